@@ -0,0 +1,14 @@
+package com.bayer.healthgoal.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+// scans com.bayer.healthgoal.reactive only, so the servlet controller shipped with the models is never registered
+@SpringBootApplication
+public class HealthGoalReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(HealthGoalReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,511 @@
+package com.bayer.healthgoal.reactive;
+
+import com.bayer.healthgoal.api.model.CreateHealthGoalRequest;
+import com.bayer.healthgoal.api.model.ErrorResponse;
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.api.model.HealthGoalBatchOperation;
+import com.bayer.healthgoal.api.model.HealthGoalBatchRequest;
+import com.bayer.healthgoal.api.model.HealthGoalBatchResponse;
+import com.bayer.healthgoal.api.model.HealthGoalBatchResult;
+import com.bayer.healthgoal.api.model.HealthGoalChanges;
+import com.bayer.healthgoal.api.model.HealthGoalSummary;
+import com.bayer.healthgoal.api.model.UpdateHealthGoalRequest;
+import com.bayer.healthgoal.reactive.api.HealthGoalsApiDelegate;
+import com.bayer.healthgoal.reactive.entity.HealthGoalEntity;
+import com.bayer.healthgoal.reactive.exceptions.InvalidRequestException;
+import com.bayer.healthgoal.reactive.exceptions.PreconditionFailedException;
+import com.bayer.healthgoal.reactive.exceptions.ResourceNotFoundException;
+import com.bayer.healthgoal.reactive.exceptions.UserNotFoundException;
+import com.bayer.healthgoal.reactive.mapper.HealthGoalMapper;
+import com.bayer.healthgoal.reactive.repository.GoalEventRepository;
+import com.bayer.healthgoal.reactive.repository.GoalSummaryRepository;
+import com.bayer.healthgoal.reactive.repository.HealthGoalCriteria;
+import com.bayer.healthgoal.reactive.repository.HealthGoalRepository;
+import com.bayer.healthgoal.reactive.repository.UserRepository;
+import com.bayer.healthgoal.reactive.summary.GoalCountChanges;
+import com.bayer.healthgoal.reactive.utlity.ApiConstants;
+import com.bayer.healthgoal.reactive.utlity.Utility;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking implementation of the same contract as the servlet {@code HealthGoalsApiDelegateImpl}: identical
+ * validation, status codes, ETags and cursors, with every database call issued through R2DBC.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class HealthGoalsApiDelegateImpl implements HealthGoalsApiDelegate {
+
+    private final HealthGoalRepository healthGoalRepository;
+    private final UserRepository userRepository;
+    private final HealthGoalMapper healthGoalMapper;
+    private final GoalSummaryRepository goalSummaryRepository;
+    private final GoalEventRepository goalEventRepository;
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_BATCH_SIZE = 500;
+
+    @Override
+    public Mono<ResponseEntity<HealthGoal>> createHealthGoal(
+            String xApiKey,
+            Mono<CreateHealthGoalRequest> createHealthGoalRequest,
+            String xCorrelationId,
+            String xRequestId,
+            String idempotencyKey,
+            ServerWebExchange exchange) {
+
+        // retries are only deduplicated by the servlet API; failing beats silently creating the goal twice
+        if (idempotencyKey != null) {
+            return Mono.error(new InvalidRequestException("Idempotency-Key is not supported by this server"));
+        }
+        return createHealthGoalRequest
+                .switchIfEmpty(Mono.error(() -> new InvalidRequestException("Request body cannot be null")))
+                .flatMap(request -> {
+                    if (request.getUserId() == null || request.getTitle() == null) {
+                        return Mono.error(new InvalidRequestException("userId and title are required fields"));
+                    }
+                    UUID userId = parseUserId(request.getUserId());
+                    return userRepository.existsById(userId)
+                            .flatMap(exists -> exists
+                                    ? healthGoalRepository.save(newGoal(UUID.randomUUID(), userId, request))
+                                    : Mono.error(new UserNotFoundException("user not found for id= " + userId)))
+                            .flatMap(saved -> {
+                                HealthGoal goal = healthGoalMapper.toDto(saved);
+                                return goalSummaryRepository
+                                        .apply(new GoalCountChanges().added(userId, saved.getStatus()))
+                                        .then(goalEventRepository.append(GoalEventRepository.Type.CREATED, saved, goal))
+                                        .thenReturn(ResponseEntity.status(HttpStatus.CREATED)
+                                                .eTag(Utility.toETag(saved.getVersion()))
+                                                .body(goal));
+                            });
+                })
+                .doOnNext(created -> log.info("health goal created successfully with ID={}",
+                        created.getBody().getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<ResponseEntity<Flux<HealthGoal>>> listHealthGoals(
+            String xApiKey, String xCorrelationId, String xRequestId,
+            UUID userId, String status, Date startDateFrom, Date startDateTo,
+            String cursor, Integer limit, ServerWebExchange exchange) {
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return Mono.error(new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+
+        Criteria filter = HealthGoalCriteria.allOf(
+                HealthGoalCriteria.ownedBy(userId),
+                HealthGoalCriteria.hasStatus(toStatus(status)),
+                HealthGoalCriteria.startsOnOrAfter(Utility.toLocalDate(startDateFrom)),
+                HealthGoalCriteria.startsOnOrBefore(Utility.toLocalDate(startDateTo)),
+                HealthGoalCriteria.idAfter(decodeCursor(cursor)));
+
+        // the page is collected so the cursor header can be set before the body is written
+        return healthGoalRepository.findPage(filter, pageSize + 1)
+                .map(healthGoalMapper::toDto)
+                .collectList()
+                .map(rows -> {
+                    boolean hasMore = rows.size() > pageSize;
+                    List<HealthGoal> goals = hasMore ? rows.subList(0, pageSize) : rows;
+                    log.info("retrieved {} health goals | hasMore={}", goals.size(), hasMore);
+
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (hasMore) {
+                        response.header(ApiConstants.X_NEXT_CURSOR, goals.get(goals.size() - 1).getId().toString());
+                    }
+                    return response.body(Flux.fromIterable(goals));
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<ResponseEntity<HealthGoalSummary>> getHealthGoalSummary(
+            String xApiKey, UUID userId, String xCorrelationId, String xRequestId, ServerWebExchange exchange) {
+
+        if (userId == null) {
+            return Mono.error(new InvalidRequestException("userId is required"));
+        }
+        // neither a summary row nor goals: a user without goals, or no user at all
+        Mono<HealthGoalSummary> noGoals = userRepository.existsById(userId)
+                .flatMap(exists -> exists
+                        ? Mono.just(new HealthGoalSummary(userId, 0L, 0L, 0L, 0L, 0L))
+                        : Mono.error(new UserNotFoundException("user not found for id= " + userId)));
+        return goalSummaryRepository.findByUserId(userId)
+                .switchIfEmpty(noGoals)
+                .map(ResponseEntity::ok);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<ResponseEntity<HealthGoalChanges>> listHealthGoalChanges(
+            String xApiKey, String xCorrelationId, String xRequestId, Long after, Integer limit,
+            ServerWebExchange exchange) {
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            return Mono.error(new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE));
+        }
+        long position = after == null ? 0 : after;
+        if (position < 0) {
+            return Mono.error(new InvalidRequestException("after must not be negative"));
+        }
+        return goalEventRepository.findAfter(position, pageSize)
+                .collectList()
+                .map(changes -> ResponseEntity.ok(new HealthGoalChanges(changes,
+                        changes.isEmpty() ? position : changes.get(changes.size() - 1).getPosition())));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @SuppressWarnings("rawtypes")
+    public Mono<ResponseEntity<Flux>> exportHealthGoals(
+            String xApiKey, String xCorrelationId, String xRequestId,
+            UUID userId, String status, String cursor, ServerWebExchange exchange) {
+
+        Criteria filter = HealthGoalCriteria.allOf(
+                HealthGoalCriteria.ownedBy(userId),
+                HealthGoalCriteria.hasStatus(toStatus(status)),
+                HealthGoalCriteria.idAfter(decodeCursor(cursor)));
+
+        // rows are pulled from the database only as fast as the client drains the response
+        Flux<HealthGoal> body = healthGoalRepository.streamAll(filter)
+                .map(healthGoalMapper::toDto)
+                .doOnComplete(() -> log.info("health goal export completed | correlationId={}", xCorrelationId));
+
+        log.info("starting health goal export | userId={} | status={} | cursor={}", userId, status, cursor);
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<ResponseEntity<HealthGoal>> getHealthGoalById(
+            UUID id, String xApiKey, String xCorrelationId, String xRequestId, String ifNoneMatch,
+            ServerWebExchange exchange) {
+
+        Mono<ResponseEntity<HealthGoal>> full = healthGoalRepository.findById(id)
+                .switchIfEmpty(healthGoalRepository.findArchivedById(id))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("HealthGoal not found: " + id)))
+                .map(entity -> ResponseEntity.ok()
+                        .eTag(Utility.toETag(entity.getVersion()))
+                        .body(healthGoalMapper.toDto(entity)));
+
+        if (ifNoneMatch == null) {
+            return full;
+        }
+        // answer unchanged polls from a version-only query, without loading the goal
+        return healthGoalRepository.findVersionById(id)
+                .switchIfEmpty(healthGoalRepository.findArchivedVersionById(id))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("HealthGoal not found: " + id)))
+                .flatMap(version -> Utility.eTagMatches(ifNoneMatch, version, true)
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(Utility.toETag(version))
+                                .<HealthGoal>build())
+                        : full);
+    }
+
+    @Override
+    public Mono<ResponseEntity<HealthGoal>> updateHealthGoal(
+            UUID id,
+            String xApiKey,
+            Mono<UpdateHealthGoalRequest> updateHealthGoalRequest,
+            String xCorrelationId,
+            String xRequestId,
+            String ifMatch,
+            ServerWebExchange exchange) {
+
+        log.info("updating healthgoal | id={} | correlationId={} | requestId={}", id, xCorrelationId, xRequestId);
+
+        return updateHealthGoalRequest
+                .switchIfEmpty(Mono.error(() -> new InvalidRequestException("Request body cannot be null")))
+                .flatMap(request -> healthGoalRepository.findById(id)
+                        .switchIfEmpty(Mono.error(() ->
+                                new ResourceNotFoundException("Health goal not found for id = " + id)))
+                        .flatMap(entity -> {
+                            // a concurrent update after this check is caught by the version column instead
+                            if (ifMatch != null && !Utility.eTagMatches(ifMatch, entity.getVersion(), false)) {
+                                return Mono.error(new PreconditionFailedException("Health goal " + id
+                                        + " has changed, current version is " + Utility.toETag(entity.getVersion())));
+                            }
+                            HealthGoalEntity.Status previousStatus = entity.getStatus();
+                            applyUpdate(entity, request);
+                            // the version check guarantees previousStatus is the status this update replaced
+                            return healthGoalRepository.save(entity)
+                                    .flatMap(updated -> {
+                                        HealthGoal goal = healthGoalMapper.toDto(updated);
+                                        return goalSummaryRepository.apply(new GoalCountChanges()
+                                                        .moved(updated.getUserId(), previousStatus, updated.getStatus()))
+                                                .then(goalEventRepository.append(GoalEventRepository.Type.UPDATED,
+                                                        updated, goal))
+                                                .thenReturn(ResponseEntity.ok()
+                                                        .eTag(Utility.toETag(updated.getVersion()))
+                                                        .body(goal));
+                                    });
+                        }))
+                .doOnNext(updated -> log.info("updated healthgoal successfully | id={} | correlationId={}",
+                        id, xCorrelationId));
+    }
+
+    @Override
+    public Mono<ResponseEntity<HealthGoalBatchResponse>> batchHealthGoals(
+            String xApiKey,
+            Mono<HealthGoalBatchRequest> healthGoalBatchRequest,
+            String xCorrelationId,
+            String xRequestId,
+            ServerWebExchange exchange) {
+
+        return healthGoalBatchRequest
+                .filter(request -> request.getOperations() != null && !request.getOperations().isEmpty())
+                .switchIfEmpty(Mono.error(() -> new InvalidRequestException("operations must not be empty")))
+                .flatMap(request -> {
+                    List<HealthGoalBatchOperation> operations = request.getOperations();
+                    if (operations.size() > MAX_BATCH_SIZE) {
+                        return Mono.error(new InvalidRequestException(
+                                "a batch may contain at most " + MAX_BATCH_SIZE + " operations"));
+                    }
+                    return processBatch(operations, xCorrelationId);
+                })
+                .map(ResponseEntity::ok);
+    }
+
+    private Mono<HealthGoalBatchResponse> processBatch(List<HealthGoalBatchOperation> operations,
+                                                       String xCorrelationId) {
+        // resolve every referenced goal and user up front with one IN query each
+        Set<UUID> goalIds = new HashSet<>();
+        Set<UUID> userIds = new HashSet<>();
+        for (HealthGoalBatchOperation operation : operations) {
+            Optional.ofNullable(operation.getId()).ifPresent(goalIds::add);
+            if (operation.getOp() == HealthGoalBatchOperation.OpEnum.CREATE && operation.getCreate() != null) {
+                Optional.ofNullable(toUuid(operation.getCreate().getUserId())).ifPresent(userIds::add);
+            }
+        }
+        Mono<Map<UUID, HealthGoalEntity>> goalsById = goalIds.isEmpty()
+                ? Mono.just(Map.of())
+                : healthGoalRepository.findAllById(goalIds).collectMap(HealthGoalEntity::getId, Function.identity());
+        Mono<Set<UUID>> existingUsers = userIds.isEmpty()
+                ? Mono.just(Set.of())
+                : userRepository.findExistingIds(userIds).collect(Collectors.toSet());
+
+        return Mono.zip(goalsById, existingUsers).flatMap(lookups -> {
+            Map<UUID, HealthGoalEntity> goals = lookups.getT1();
+            Set<UUID> knownUsers = lookups.getT2();
+
+            HealthGoalBatchResult[] results = new HealthGoalBatchResult[operations.size()];
+            Map<Integer, HealthGoalEntity> written = new LinkedHashMap<>();
+            List<HealthGoalEntity> deleted = new ArrayList<>();
+            Set<UUID> touched = new HashSet<>();
+            GoalCountChanges counts = new GoalCountChanges();
+            int created = 0;
+
+            for (int index = 0; index < operations.size(); index++) {
+                HealthGoalBatchOperation operation = operations.get(index);
+                UUID id = operation.getId();
+                HealthGoalBatchResult result = new HealthGoalBatchResult().index(index).id(id);
+                results[index] = result;
+
+                if (operation.getOp() == null) {
+                    reject(result, HttpStatus.BAD_REQUEST, "invalid_request", "op is required");
+                } else if (id != null && !touched.add(id)) {
+                    reject(result, HttpStatus.BAD_REQUEST, "invalid_request", "duplicate id in batch: " + id);
+                } else if (operation.getOp() == HealthGoalBatchOperation.OpEnum.CREATE) {
+                    CreateHealthGoalRequest create = operation.getCreate();
+                    UUID userId = create == null ? null : toUuid(create.getUserId());
+                    if (userId == null || create.getTitle() == null) {
+                        reject(result, HttpStatus.BAD_REQUEST, "invalid_request", "userId and title are required fields");
+                    } else if (id != null && goals.containsKey(id)) {
+                        reject(result, HttpStatus.CONFLICT, "conflict", "Health goal already exists for id = " + id);
+                    } else if (!knownUsers.contains(userId)) {
+                        reject(result, HttpStatus.NOT_FOUND, "user_not_found", "user not found for id= " + userId);
+                    } else {
+                        HealthGoalEntity entity = newGoal(id != null ? id : UUID.randomUUID(), userId, create);
+                        written.put(index, entity);
+                        counts.added(userId, entity.getStatus());
+                        created++;
+                        result.id(entity.getId()).status(HttpStatus.CREATED.value());
+                    }
+                } else if (id == null || !goals.containsKey(id)) {
+                    reject(result, HttpStatus.NOT_FOUND, "resource_not_found", "Health goal not found for id = " + id);
+                } else if (operation.getOp() == HealthGoalBatchOperation.OpEnum.UPDATE) {
+                    if (operation.getUpdate() == null) {
+                        reject(result, HttpStatus.BAD_REQUEST, "invalid_request", "update is required for UPDATE");
+                    } else {
+                        try {
+                            HealthGoalEntity.Status previousStatus = goals.get(id).getStatus();
+                            applyUpdate(goals.get(id), operation.getUpdate());
+                            counts.moved(goals.get(id).getUserId(), previousStatus, goals.get(id).getStatus());
+                            written.put(index, goals.get(id));
+                            result.status(HttpStatus.OK.value());
+                        } catch (InvalidRequestException e) {
+                            reject(result, HttpStatus.BAD_REQUEST, "invalid_request", e.getMessage());
+                        }
+                    }
+                } else {
+                    deleted.add(goals.get(id));
+                    counts.removed(goals.get(id).getUserId(), goals.get(id).getStatus());
+                    result.status(HttpStatus.NO_CONTENT.value());
+                }
+            }
+
+            log.info("processed health goal batch | operations={} | created={} | deleted={} | correlationId={}",
+                    operations.size(), created, deleted.size(), xCorrelationId);
+
+            // inserts, versioned updates and versioned deletes run one after another on the transaction's
+            // connection; a goal changed since it was read fails the batch instead of skewing the counts
+            return Flux.fromIterable(written.entrySet())
+                    .concatMap(entry -> healthGoalRepository.save(entry.getValue())
+                            .flatMap(saved -> {
+                                HealthGoal goal = healthGoalMapper.toDto(saved);
+                                results[entry.getKey()].goal(goal);
+                                return goalEventRepository.append(
+                                        results[entry.getKey()].getStatus() == HttpStatus.CREATED.value()
+                                                ? GoalEventRepository.Type.CREATED
+                                                : GoalEventRepository.Type.UPDATED,
+                                        saved, goal);
+                            }))
+                    .then(deleted.isEmpty() ? Mono.empty() : healthGoalRepository.archiveDeleted(
+                            deleted.stream().map(HealthGoalEntity::getId).toList(), OffsetDateTime.now(ZoneOffset.UTC)))
+                    .then(deleted.isEmpty() ? Mono.empty() : healthGoalRepository.deleteDailyProgress(
+                            deleted.stream().map(HealthGoalEntity::getId).toList()))
+                    .then(healthGoalRepository.deleteAll(deleted))
+                    .thenMany(Flux.fromIterable(deleted))
+                    .concatMap(goal -> goalEventRepository.append(GoalEventRepository.Type.DELETED, goal, null))
+                    .then(goalSummaryRepository.apply(counts))
+                    .thenReturn(new HealthGoalBatchResponse().results(Arrays.asList(results)));
+        });
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> deleteHealthGoal(
+            UUID id, String xApiKey, String xCorrelationId, String xRequestId, ServerWebExchange exchange) {
+
+        return healthGoalRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.warn("health goal not found for deletion id={}", id);
+                    return new ResourceNotFoundException("Health goal not found for id = " + id);
+                }))
+                // the versioned delete fails with a conflict if the status changed after it was read
+                .flatMap(entity -> healthGoalRepository.archiveDeleted(List.of(id), OffsetDateTime.now(ZoneOffset.UTC))
+                        .then(healthGoalRepository.deleteDailyProgress(List.of(id)))
+                        .then(healthGoalRepository.delete(entity))
+                        .then(goalSummaryRepository.apply(
+                                new GoalCountChanges().removed(entity.getUserId(), entity.getStatus())))
+                        .then(goalEventRepository.append(GoalEventRepository.Type.DELETED, entity, null)))
+                .then(Mono.fromSupplier(() -> {
+                    log.info("deleted health goal id={}", id);
+                    return ResponseEntity.noContent().<Void>build();
+                }));
+    }
+
+    private static HealthGoalEntity newGoal(UUID id, UUID userId, CreateHealthGoalRequest request) {
+        return HealthGoalEntity.newGoal()
+                .id(id)
+                .userId(userId)
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .target(request.getTarget())
+                .unit(request.getUnit())
+                .startDate(Utility.toLocalDate(request.getStartDate()))
+                .endDate(Utility.toLocalDate(request.getEndDate()))
+                .status(HealthGoalEntity.Status.ACTIVE)
+                .build();
+    }
+
+    private static void applyUpdate(HealthGoalEntity entity, UpdateHealthGoalRequest request) {
+        // resolve the status first so an invalid value leaves the entity untouched
+        HealthGoalEntity.Status status = request.getStatus() == null ? null : toStatus(request.getStatus().getValue());
+
+        Optional.ofNullable(request.getTitle())
+                .ifPresent(entity::setTitle);
+        Optional.ofNullable(request.getDescription())
+                .ifPresent(entity::setDescription);
+        Optional.ofNullable(request.getTarget())
+                .ifPresent(entity::setTarget);
+        Optional.ofNullable(request.getUnit())
+                .ifPresent(entity::setUnit);
+        Optional.ofNullable(request.getStartDate())
+                .ifPresent(date -> entity.setStartDate(Utility.toLocalDate(date)));
+        Optional.ofNullable(request.getEndDate())
+                .ifPresent(date -> entity.setEndDate(Utility.toLocalDate(date)));
+        Optional.ofNullable(status)
+                .ifPresent(entity::setStatus);
+    }
+
+    private static void reject(HealthGoalBatchResult result, HttpStatus status, String code, String message) {
+        ErrorResponse error = new ErrorResponse();
+        error.setError(code);
+        error.setMessage(message);
+        result.status(status.value()).error(error);
+    }
+
+    private static UUID parseUserId(String userId) {
+        UUID parsed = toUuid(userId);
+        if (parsed == null) {
+            throw new InvalidRequestException("Invalid userId: " + userId);
+        }
+        return parsed;
+    }
+
+    private static UUID toUuid(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static HealthGoalEntity.Status toStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return HealthGoalEntity.Status.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid status value: " + status);
+        }
+    }
+
+    private static UUID decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.bayer.healthgoal.reactive.config;
+
+import com.bayer.healthgoal.reactive.utlity.ApiConstants;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * WebFlux port of the servlet {@code ApiFilter}: same excluded paths, same API key check and same 401 body.
+ * There is no MDC on an event loop, so the ids travel in the Reactor context under the same keys. The key is
+ * compared in constant time and the correlation id is JSON-escaped before it is echoed back.
+ */
+@Slf4j
+@Component
+public class ApiWebFilter implements WebFilter {
+
+    public static final String CORRELATION_ID = "correlationId";
+    public static final String REQUEST_ID = "requestId";
+
+    private static final String[] EXCLUDED_PATHS = {
+            "/actuator",              // /actuator/*
+            "/swagger-ui",            // /swagger-ui/*
+            "/v3/api-docs",           // /v3/api-docs/*
+            "/openapi.yaml",          // static YAML spec
+            "/error"                  // allow default error endpoint
+    };
+
+    private final byte[] expectedApiKey;
+
+    public ApiWebFilter(@Value("${healthgoal.api.x_api_key}") String expectedApiKey) {
+        this.expectedApiKey = expectedApiKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        for (String excluded : EXCLUDED_PATHS) {
+            if (path.startsWith(excluded)) {
+                return chain.filter(exchange);
+            }
+        }
+
+        String apiKey = request.getHeaders().getFirst(ApiConstants.X_API_KEY);
+        String correlationId = request.getHeaders().getFirst(ApiConstants.X_CORRELATION_ID);
+        String requestId = request.getHeaders().getFirst(ApiConstants.X_REQUEST_ID);
+
+        if (apiKey == null || !MessageDigest.isEqual(apiKey.getBytes(StandardCharsets.UTF_8), expectedApiKey)) {
+            log.warn("Unauthorized | URI={} | correlationId={} | requestId={}", path, correlationId, requestId);
+            return sendErrorResponse(exchange.getResponse(), HttpStatus.UNAUTHORIZED,
+                    "unauthorized", "Missing or invalid API key", correlationId);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Authorized | URI={} | correlationId={} | requestId={}", path, correlationId, requestId);
+        }
+        return chain.filter(exchange)
+                .contextWrite(context -> {
+                    if (correlationId != null) {
+                        context = context.put(CORRELATION_ID, correlationId);
+                    }
+                    return requestId != null ? context.put(REQUEST_ID, requestId) : context;
+                });
+    }
+
+    private Mono<Void> sendErrorResponse(ServerHttpResponse response, HttpStatus status,
+                                         String error, String message, String correlationId) {
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        byte[] body = """
+                {"error":"%s","message":"%s","traceId":"%s"}"""
+                .formatted(error, message, correlationId != null
+                        ? new String(encoder.quoteAsString(correlationId)) : "missing_correlationId")
+                .getBytes(StandardCharsets.UTF_8);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+}
@@ -0,0 +1,92 @@
+package com.bayer.healthgoal.reactive.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The servlet {@code BinaryFormatConfig} for WebFlux: CBOR and Smile codecs on mappers from Boot's builder.
+ * WebFlux registers Smile by default, but with a mapper of its own; CBOR it does not register at all. Custom codecs
+ * are consulted before the JSON one, which is why {@code GlobalExceptionHandler} names JSON for its error bodies.
+ */
+@Configuration
+public class BinaryCodecsConfig {
+
+    private static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    @Bean
+    public CodecCustomizer binaryCodecsCustomizer(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cbor = builder.build().copyWith(new CBORFactory());
+        ObjectMapper smile = builder.build().copyWith(new SmileFactory());
+        // the mime types must be named: without them these constructors fall back to the JSON ones
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileEncoder(new SmileEncoder(smile));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile, APPLICATION_SMILE));
+            configurer.customCodecs().register(new CborEncoder(cbor));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+        };
+    }
+
+    /**
+     * Writes a {@code Flux} body, such as a page of goals, as one array. Spring's CBOR encoder refuses a
+     * {@code Flux}, and its Smile encoder joins the values with JSON brackets and commas.
+     */
+    private static Flux<DataBuffer> encodeAsOneValue(AbstractJackson2Encoder encoder, Publisher<?> inputStream,
+                                                     DataBufferFactory bufferFactory, ResolvableType elementType,
+                                                     MimeType mimeType, Map<String, Object> hints) {
+        if (inputStream instanceof Mono<?> single) {
+            return single.map(value -> encoder.encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+        }
+        ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+        return Flux.from(inputStream)
+                .collectList()
+                .map(values -> encoder.encodeValue(values, bufferFactory, listType, mimeType, hints))
+                .flux();
+    }
+
+    static final class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            return encodeAsOneValue(this, inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+    }
+
+    static final class SmileEncoder extends Jackson2SmileEncoder {
+
+        SmileEncoder(ObjectMapper mapper) {
+            super(mapper, APPLICATION_SMILE);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            return encodeAsOneValue(this, inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+    }
+}
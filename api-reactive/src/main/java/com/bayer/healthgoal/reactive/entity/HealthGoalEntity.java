@@ -0,0 +1,67 @@
+package com.bayer.healthgoal.reactive.entity;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+// same health_goals table as the servlet api; the schema is owned there
+@Table("health_goals")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class HealthGoalEntity implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    @Column("user_id")
+    private UUID userId;
+
+    private String title;
+    private String description;
+    private Integer target;
+    private String unit;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Status status;
+
+    // when the status last changed, set by newGoal() and setStatus; the servlet api archives terminal goals by it
+    private OffsetDateTime statusChangedAt;
+
+    @Version
+    private Long version;
+
+    // ids are assigned by the application, so Spring Data cannot tell an insert from an update by the id alone
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newEntity = false;
+
+    public void setStatus(Status status) {
+        if (status != this.status) {
+            this.statusChangedAt = OffsetDateTime.now(ZoneOffset.UTC);
+        }
+        this.status = status;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    public static HealthGoalEntityBuilder newGoal() {
+        return builder().newEntity(true).statusChangedAt(OffsetDateTime.now(ZoneOffset.UTC));
+    }
+
+    public enum Status {
+        ACTIVE, COMPLETED, CANCELLED, EXPIRED
+    }
+}
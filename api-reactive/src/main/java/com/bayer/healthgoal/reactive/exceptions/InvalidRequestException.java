@@ -0,0 +1,8 @@
+package com.bayer.healthgoal.reactive.exceptions;
+
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
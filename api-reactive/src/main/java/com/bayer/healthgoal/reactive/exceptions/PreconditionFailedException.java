@@ -0,0 +1,8 @@
+package com.bayer.healthgoal.reactive.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
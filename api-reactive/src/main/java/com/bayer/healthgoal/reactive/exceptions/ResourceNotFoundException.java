@@ -0,0 +1,8 @@
+package com.bayer.healthgoal.reactive.exceptions;
+
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package com.bayer.healthgoal.reactive.exceptions;
+
+public class UserNotFoundException extends RuntimeException {
+
+    public UserNotFoundException(String message) {
+        super(message);
+    }
+}
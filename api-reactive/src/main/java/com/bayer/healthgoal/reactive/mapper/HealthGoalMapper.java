@@ -0,0 +1,11 @@
+package com.bayer.healthgoal.reactive.mapper;
+
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.reactive.entity.HealthGoalEntity;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface HealthGoalMapper {
+
+    HealthGoal toDto(HealthGoalEntity entity);
+}
@@ -0,0 +1,91 @@
+package com.bayer.healthgoal.reactive.repository;
+
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.api.model.HealthGoalChange;
+import com.bayer.healthgoal.reactive.entity.HealthGoalEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.UUID;
+
+// same goal_events outbox as the servlet GoalEventOutbox and GoalChangeFeed; the servlet api's relay publishes
+// the rows written here
+@Repository
+public class GoalEventRepository {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    public GoalEventRepository(DatabaseClient databaseClient, ObjectMapper objectMapper) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Inserts the outbox row on the caller's transaction, so the event exists exactly when the change committed.
+     */
+    public Mono<Void> append(Type type, HealthGoalEntity goal, HealthGoal dto) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql("""
+                        insert into goal_events (id, goal_id, user_id, event_type, version, created_at, payload)
+                        values (:id, :goalId, :userId, :type, :version, :createdAt, :payload)""")
+                .bind("id", UUID.randomUUID())
+                .bind("goalId", goal.getId())
+                .bind("userId", goal.getUserId())
+                .bind("type", type.name())
+                .bind("version", goal.getVersion())
+                .bind("createdAt", OffsetDateTime.ofInstant(Instant.now(), ZoneOffset.UTC));
+        insert = dto == null ? insert.bindNull("payload", String.class) : insert.bind("payload", toJson(dto));
+        return insert.then();
+    }
+
+    /**
+     * Published events after the given feed position, in position order; a range scan on the feed_position index.
+     */
+    public Flux<HealthGoalChange> findAfter(long after, int limit) {
+        return databaseClient.sql("""
+                        select feed_position, goal_id, user_id, event_type, version, created_at, payload
+                        from goal_events
+                        where feed_position > :after
+                        order by feed_position
+                        limit :limit""")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(row -> {
+                    String payload = row.get("payload", String.class);
+                    return new HealthGoalChange(row.get("feed_position", Long.class),
+                            HealthGoalChange.TypeEnum.fromValue(row.get("event_type", String.class)),
+                            row.get("goal_id", UUID.class), row.get("user_id", UUID.class),
+                            row.get("version", Long.class),
+                            Date.from(row.get("created_at", OffsetDateTime.class).toInstant()))
+                            .goal(payload == null ? null : fromJson(payload));
+                })
+                .all();
+    }
+
+    private String toJson(HealthGoal dto) {
+        try {
+            return objectMapper.writeValueAsString(dto);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HealthGoal fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, HealthGoal.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
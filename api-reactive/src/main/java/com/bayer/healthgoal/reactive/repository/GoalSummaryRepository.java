@@ -0,0 +1,103 @@
+package com.bayer.healthgoal.reactive.repository;
+
+import com.bayer.healthgoal.api.model.HealthGoalSummary;
+import com.bayer.healthgoal.reactive.summary.GoalCountChanges;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static com.bayer.healthgoal.reactive.entity.HealthGoalEntity.Status.ACTIVE;
+import static com.bayer.healthgoal.reactive.entity.HealthGoalEntity.Status.CANCELLED;
+import static com.bayer.healthgoal.reactive.entity.HealthGoalEntity.Status.COMPLETED;
+import static com.bayer.healthgoal.reactive.entity.HealthGoalEntity.Status.EXPIRED;
+
+// same user_goal_summary table and update rules as the servlet GoalSummaryService
+@Repository
+public class GoalSummaryRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public GoalSummaryRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Adds the changes with relative updates on the caller's transaction. A user without a row gets one counted
+     * from their goals, which already include this transaction's changes.
+     */
+    public Mono<Void> apply(GoalCountChanges changes) {
+        return Flux.fromIterable(changes.deltasByUser().entrySet())
+                .concatMap(change -> addCounts(change.getKey(), change.getValue())
+                        .filter(rows -> rows == 0)
+                        .flatMap(missing -> insertCountedFromGoals(change.getKey()))
+                        // created concurrently from a count that did not include our uncommitted changes
+                        .filter(inserted -> inserted == 0)
+                        .flatMap(lost -> addCounts(change.getKey(), change.getValue())))
+                .then();
+    }
+
+    /**
+     * The user's counts, from their summary row or, before the user has one, from their goals. Empty if the user
+     * has neither.
+     */
+    public Mono<HealthGoalSummary> findByUserId(UUID userId) {
+        Mono<HealthGoalSummary> stored = databaseClient.sql(
+                        "select active, completed, cancelled, expired from user_goal_summary where user_id = :userId")
+                .bind("userId", userId)
+                .map(row -> summary(userId, row.get("active", Long.class), row.get("completed", Long.class),
+                        row.get("cancelled", Long.class), row.get("expired", Long.class)))
+                .one();
+        Mono<HealthGoalSummary> counted = databaseClient.sql(
+                        "select status, count(*) as goals from health_goals where user_id = :userId group by status")
+                .bind("userId", userId)
+                .map(row -> Map.entry(row.get("status", String.class), row.get("goals", Long.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .filter(counts -> !counts.isEmpty())
+                .map(counts -> summary(userId, counts.getOrDefault(ACTIVE.name(), 0L),
+                        counts.getOrDefault(COMPLETED.name(), 0L), counts.getOrDefault(CANCELLED.name(), 0L),
+                        counts.getOrDefault(EXPIRED.name(), 0L)));
+        return stored.switchIfEmpty(counted);
+    }
+
+    private Mono<Long> addCounts(UUID userId, long[] delta) {
+        return databaseClient.sql("""
+                        update user_goal_summary
+                        set active = active + :active, completed = completed + :completed,
+                            cancelled = cancelled + :cancelled, expired = expired + :expired
+                        where user_id = :userId""")
+                .bind("userId", userId)
+                .bind("active", delta[ACTIVE.ordinal()])
+                .bind("completed", delta[COMPLETED.ordinal()])
+                .bind("cancelled", delta[CANCELLED.ordinal()])
+                .bind("expired", delta[EXPIRED.ordinal()])
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<Long> insertCountedFromGoals(UUID userId) {
+        return databaseClient.sql("""
+                        insert into user_goal_summary (user_id, active, completed, cancelled, expired)
+                        select :userId,
+                               coalesce(sum(case when status = 'ACTIVE' then 1 else 0 end), 0),
+                               coalesce(sum(case when status = 'COMPLETED' then 1 else 0 end), 0),
+                               coalesce(sum(case when status = 'CANCELLED' then 1 else 0 end), 0),
+                               coalesce(sum(case when status = 'EXPIRED' then 1 else 0 end), 0)
+                        from health_goals
+                        where user_id = :userId
+                        on conflict do nothing""")
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static HealthGoalSummary summary(UUID userId, long active, long completed, long cancelled,
+                                             long expired) {
+        return new HealthGoalSummary(userId, active, completed, cancelled, expired,
+                active + completed + cancelled + expired);
+    }
+}
@@ -0,0 +1,44 @@
+package com.bayer.healthgoal.reactive.repository;
+
+import com.bayer.healthgoal.reactive.entity.HealthGoalEntity;
+import org.springframework.data.relational.core.query.Criteria;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * R2DBC counterpart of the servlet {@code HealthGoalSpecifications}: each factory returns null for a null argument
+ * and {@link #allOf} skips those.
+ */
+public final class HealthGoalCriteria {
+
+    private HealthGoalCriteria() {
+    }
+
+    public static Criteria allOf(Criteria... criteria) {
+        return Criteria.from(Arrays.stream(criteria).filter(Objects::nonNull).toList());
+    }
+
+    public static Criteria ownedBy(UUID userId) {
+        return userId == null ? null : Criteria.where("userId").is(userId);
+    }
+
+    public static Criteria hasStatus(HealthGoalEntity.Status status) {
+        return status == null ? null : Criteria.where("status").is(status.name());
+    }
+
+    public static Criteria startsOnOrAfter(LocalDate from) {
+        return from == null ? null : Criteria.where("startDate").greaterThanOrEquals(from);
+    }
+
+    public static Criteria startsOnOrBefore(LocalDate to) {
+        return to == null ? null : Criteria.where("startDate").lessThanOrEquals(to);
+    }
+
+    // keyset predicate: everything strictly after the last id of the previous page
+    public static Criteria idAfter(UUID lastSeenId) {
+        return lastSeenId == null ? null : Criteria.where("id").greaterThan(lastSeenId);
+    }
+}
@@ -0,0 +1,18 @@
+package com.bayer.healthgoal.reactive.repository;
+
+import com.bayer.healthgoal.reactive.entity.HealthGoalEntity;
+import org.springframework.data.relational.core.query.Criteria;
+import reactor.core.publisher.Flux;
+
+public interface HealthGoalQueryRepository {
+
+    /**
+     * One keyset page in id order; build the filter with {@link HealthGoalCriteria#allOf}.
+     */
+    Flux<HealthGoalEntity> findPage(Criteria filter, int limit);
+
+    /**
+     * Every matching goal in id order, fetched on demand as the subscriber requests more.
+     */
+    Flux<HealthGoalEntity> streamAll(Criteria filter);
+}
@@ -0,0 +1,27 @@
+package com.bayer.healthgoal.reactive.repository;
+
+import com.bayer.healthgoal.reactive.entity.HealthGoalEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Flux;
+
+@RequiredArgsConstructor
+class HealthGoalQueryRepositoryImpl implements HealthGoalQueryRepository {
+
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.ASC, "id");
+
+    private final R2dbcEntityTemplate template;
+
+    @Override
+    public Flux<HealthGoalEntity> findPage(Criteria filter, int limit) {
+        return template.select(Query.query(filter).sort(KEYSET_ORDER).limit(limit), HealthGoalEntity.class);
+    }
+
+    @Override
+    public Flux<HealthGoalEntity> streamAll(Criteria filter) {
+        return template.select(Query.query(filter).sort(KEYSET_ORDER), HealthGoalEntity.class);
+    }
+}
@@ -0,0 +1,41 @@
+package com.bayer.healthgoal.reactive.repository;
+
+import com.bayer.healthgoal.reactive.entity.HealthGoalEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+public interface HealthGoalRepository extends ReactiveCrudRepository<HealthGoalEntity, UUID>, HealthGoalQueryRepository {
+
+    // conditional GETs only need the version, not the mapped goal
+    @Query("select version from health_goals where id = :id")
+    Mono<Long> findVersionById(UUID id);
+
+    // archived goals are still served by id, as the servlet api serves them; deleted ones are not
+    @Query("select * from health_goals_archive where id = :id and deleted_at is null")
+    Mono<HealthGoalEntity> findArchivedById(UUID id);
+
+    @Query("select version from health_goals_archive where id = :id and deleted_at is null")
+    Mono<Long> findArchivedVersionById(UUID id);
+
+    // soft delete, as in the servlet api: the goals are copied into the archive marked deleted, then deleted here
+    @Modifying
+    @Query("""
+            insert into health_goals_archive (id, user_id, title, description, target, unit, start_date, end_date,
+                                              status, version, status_changed_at, archived_at, deleted_at)
+            select id, user_id, title, description, target, unit, start_date, end_date,
+                   status, version, status_changed_at, :deletedAt, :deletedAt
+            from health_goals
+            where id in (:ids)""")
+    Mono<Integer> archiveDeleted(Collection<UUID> ids, OffsetDateTime deletedAt);
+
+    // the servlet api drops a deleted goal's daily progress too, since both share the database
+    @Modifying
+    @Query("delete from goal_progress_daily where goal_id in (:ids)")
+    Mono<Integer> deleteDailyProgress(Collection<UUID> ids);
+}
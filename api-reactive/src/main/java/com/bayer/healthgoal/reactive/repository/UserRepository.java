@@ -0,0 +1,35 @@
+package com.bayer.healthgoal.reactive.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.UUID;
+
+// users are only ever checked for existence here, so no entity is mapped for them
+@Repository
+public class UserRepository {
+
+    private final DatabaseClient databaseClient;
+
+    public UserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Boolean> existsById(UUID id) {
+        return databaseClient.sql("select 1 from users where id = :id")
+                .bind("id", id)
+                .fetch()
+                .first()
+                .hasElement();
+    }
+
+    public Flux<UUID> findExistingIds(Collection<UUID> ids) {
+        return databaseClient.sql("select id from users where id in (:ids)")
+                .bind("ids", ids)
+                .map(row -> row.get("id", UUID.class))
+                .all();
+    }
+}
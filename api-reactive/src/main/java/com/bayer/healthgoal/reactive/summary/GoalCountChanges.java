@@ -0,0 +1,49 @@
+package com.bayer.healthgoal.reactive.summary;
+
+import com.bayer.healthgoal.reactive.entity.HealthGoalEntity;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Per-user changes to the goal counts made by one request, applied together by
+ * {@link com.bayer.healthgoal.reactive.repository.GoalSummaryRepository}.
+ */
+public final class GoalCountChanges {
+
+    private static final int STATUSES = HealthGoalEntity.Status.values().length;
+
+    // sorted, so concurrent batches lock the summary rows of their users in the same order
+    private final Map<UUID, long[]> deltasByUser = new TreeMap<>();
+
+    public GoalCountChanges added(UUID userId, HealthGoalEntity.Status status) {
+        return add(userId, status, 1);
+    }
+
+    public GoalCountChanges removed(UUID userId, HealthGoalEntity.Status status) {
+        return add(userId, status, -1);
+    }
+
+    public GoalCountChanges moved(UUID userId, HealthGoalEntity.Status from, HealthGoalEntity.Status to) {
+        if (from == to) {
+            return this;
+        }
+        return add(userId, from, -1).add(userId, to, 1);
+    }
+
+    /**
+     * Count deltas per user, indexed by {@link HealthGoalEntity.Status#ordinal()}.
+     */
+    public Map<UUID, long[]> deltasByUser() {
+        return Collections.unmodifiableMap(deltasByUser);
+    }
+
+    private GoalCountChanges add(UUID userId, HealthGoalEntity.Status status, long delta) {
+        if (status != null) {
+            deltasByUser.computeIfAbsent(userId, id -> new long[STATUSES])[status.ordinal()] += delta;
+        }
+        return this;
+    }
+}
@@ -0,0 +1,11 @@
+package com.bayer.healthgoal.reactive.utlity;
+
+public final class ApiConstants {
+    public static final String X_API_KEY = "x-api-key";
+    public static final String X_CORRELATION_ID = "x-correlation-id";
+    public static final String X_REQUEST_ID = "x-request-id";
+    public static final String X_NEXT_CURSOR = "x-next-cursor";
+
+    private ApiConstants() {
+    }
+}
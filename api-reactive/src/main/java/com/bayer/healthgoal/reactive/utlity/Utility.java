@@ -0,0 +1,43 @@
+package com.bayer.healthgoal.reactive.utlity;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+public final class Utility {
+
+    private Utility() {
+    }
+
+    public static LocalDate toLocalDate(Date date) {
+        return date == null ? null : date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    public static String toETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Checks an If-Match / If-None-Match header against a version, with the same rules as the servlet api:
+     * weak comparison for If-None-Match, strong comparison for If-Match (RFC 9110).
+     */
+    public static boolean eTagMatches(String header, long version, boolean weakComparison) {
+        if (header == null) {
+            return false;
+        }
+        String expected = toETag(version);
+        for (String tag : header.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (weakComparison && candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,58 @@
+package com.bayer.healthgoal.reactive;
+
+import com.bayer.healthgoal.contract.HealthGoalApiContractTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.UUID;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-contract;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.sql.init.mode=always"
+})
+class HealthGoalReactiveContractTest extends HealthGoalApiContractTest {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Override
+    protected UUID createUser() {
+        UUID id = UUID.randomUUID();
+        databaseClient.sql("insert into users (id, username, email) values (:id, :username, :email)")
+                .bind("id", id)
+                .bind("username", "user-" + id)
+                .bind("email", id + "@example.com")
+                .then()
+                .block();
+        return id;
+    }
+
+    // the servlet api's relay assigns feed positions; here the row is published by hand
+    @Test
+    void listHealthGoalChanges_ReturnsPublishedOutboxRows() {
+        String id = createGoal("Feed");
+        long position = databaseClient.sql("select coalesce(max(feed_position), 0) + 1 as next from goal_events")
+                .map(row -> row.get("next", Long.class))
+                .one()
+                .block();
+        databaseClient.sql("update goal_events set feed_position = :position where goal_id = :goalId")
+                .bind("position", position)
+                .bind("goalId", UUID.fromString(id))
+                .then()
+                .block();
+
+        webTestClient.get().uri(BASE_PATH + "/changes?after=" + (position - 1))
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.changes.length()").isEqualTo(1)
+                .jsonPath("$.changes[0].type").isEqualTo("CREATED")
+                .jsonPath("$.changes[0].goalId").isEqualTo(id)
+                .jsonPath("$.changes[0].goal.title").isEqualTo("Feed")
+                .jsonPath("$.next").isEqualTo(position);
+    }
+}
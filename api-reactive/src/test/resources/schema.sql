@@ -0,0 +1,67 @@
+-- H2 copy of the tables the servlet api creates through Hibernate
+CREATE TABLE IF NOT EXISTS users (
+    id UUID PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    email VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS health_goals (
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL REFERENCES users (id),
+    title VARCHAR(255),
+    description VARCHAR(255),
+    target INT,
+    unit VARCHAR(255),
+    start_date DATE,
+    end_date DATE,
+    status VARCHAR(255),
+    status_changed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS health_goals_archive (
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL,
+    title VARCHAR(255),
+    description VARCHAR(255),
+    target INT,
+    unit VARCHAR(255),
+    start_date DATE,
+    end_date DATE,
+    status VARCHAR(255),
+    version BIGINT NOT NULL,
+    status_changed_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    archived_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    deleted_at TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS user_goal_summary (
+    user_id UUID PRIMARY KEY,
+    active BIGINT NOT NULL,
+    completed BIGINT NOT NULL,
+    cancelled BIGINT NOT NULL,
+    expired BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS goal_progress_daily (
+    goal_id UUID NOT NULL,
+    day_utc DATE NOT NULL,
+    total BIGINT NOT NULL,
+    entries BIGINT NOT NULL,
+    PRIMARY KEY (goal_id, day_utc)
+);
+
+CREATE INDEX IF NOT EXISTS idx_health_goals_user_id_id ON health_goals (user_id, id);
+
+CREATE TABLE IF NOT EXISTS goal_events (
+    id UUID PRIMARY KEY,
+    feed_position BIGINT,
+    goal_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    event_type VARCHAR(16) NOT NULL,
+    version BIGINT NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    payload VARCHAR(4000)
+);
+
+CREATE INDEX IF NOT EXISTS idx_goal_events_feed_position_created_at ON goal_events (feed_position, created_at);
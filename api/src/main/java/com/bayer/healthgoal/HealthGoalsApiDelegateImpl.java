@@ -2,29 +2,78 @@ package com.bayer.healthgoal;
 
 import com.bayer.healthgoal.api.HealthGoalsApiDelegate;
 import com.bayer.healthgoal.api.model.CreateHealthGoalRequest;
+import com.bayer.healthgoal.api.model.ErrorResponse;
+import com.bayer.healthgoal.api.model.GoalProgress;
 import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.api.model.HealthGoalAuditEntry;
+import com.bayer.healthgoal.api.model.HealthGoalBatchOperation;
+import com.bayer.healthgoal.api.model.HealthGoalBatchRequest;
+import com.bayer.healthgoal.api.model.HealthGoalBatchResponse;
+import com.bayer.healthgoal.api.model.HealthGoalBatchResult;
+import com.bayer.healthgoal.api.model.HealthGoalChanges;
+import com.bayer.healthgoal.api.model.HealthGoalSummary;
+import com.bayer.healthgoal.api.model.RecordProgressRequest;
 import com.bayer.healthgoal.api.model.UpdateHealthGoalRequest;
+import com.bayer.healthgoal.audit.GoalAuditTrail;
+import com.bayer.healthgoal.cache.HealthGoalCache;
+import com.bayer.healthgoal.cache.VersionedHealthGoal;
+import com.bayer.healthgoal.config.ApiFilter;
+import com.bayer.healthgoal.entity.GoalAuditEntity;
 import com.bayer.healthgoal.entity.HealthGoalEntity;
-import com.bayer.healthgoal.entity.UserEntity;
 import com.bayer.healthgoal.exceptions.InvalidRequestException;
+import com.bayer.healthgoal.exceptions.PreconditionFailedException;
 import com.bayer.healthgoal.exceptions.ResourceNotFoundException;
 import com.bayer.healthgoal.exceptions.UserNotFoundException;
+import com.bayer.healthgoal.export.HealthGoalExporter;
+import com.bayer.healthgoal.idempotency.CreatedGoal;
+import com.bayer.healthgoal.idempotency.IdempotencyService;
 import com.bayer.healthgoal.mapper.HealthGoalMapper;
+import com.bayer.healthgoal.metrics.OperationMetrics;
+import com.bayer.healthgoal.outbox.GoalChangeFeed;
+import com.bayer.healthgoal.outbox.GoalEventOutbox;
+import com.bayer.healthgoal.progress.GoalProgressService;
+import com.bayer.healthgoal.repository.GoalAuditRepository;
+import com.bayer.healthgoal.repository.HealthGoalArchiveRepository;
 import com.bayer.healthgoal.repository.HealthGoalRepository;
+import com.bayer.healthgoal.repository.HealthGoalSearchRepository;
+import com.bayer.healthgoal.repository.HealthGoalSpecifications;
 import com.bayer.healthgoal.repository.UserRepository;
+import com.bayer.healthgoal.summary.GoalCountChanges;
+import com.bayer.healthgoal.summary.GoalSummaryService;
+import com.bayer.healthgoal.utlity.ApiConstants;
 import com.bayer.healthgoal.utlity.Utility;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.bayer.healthgoal.logging.SamplingTurboFilter.SAMPLED;
+
+/**
+ * Writes run in read-write transactions on the primary. Reads are marked read-only: Hibernate then loads entities
+ * without snapshots and never flushes, and with replicas configured the transaction runs on one of them.
+ */
 @Slf4j
 @Service
 @Transactional
@@ -32,63 +81,268 @@ import java.util.stream.Collectors;
 public class HealthGoalsApiDelegateImpl implements HealthGoalsApiDelegate {
 
     private final HealthGoalRepository healthGoalRepository;
+    private final HealthGoalArchiveRepository healthGoalArchiveRepository;
     private final UserRepository userRepository;
     private final HealthGoalMapper healthGoalMapper;
+    private final HealthGoalExporter healthGoalExporter;
+    private final HealthGoalCache healthGoalCache;
+    private final OperationMetrics operationMetrics;
+    private final GoalProgressService goalProgressService;
+    private final GoalSummaryService goalSummaryService;
+    private final GoalEventOutbox goalEventOutbox;
+    private final GoalChangeFeed goalChangeFeed;
+    private final GoalAuditTrail goalAuditTrail;
+    private final GoalAuditRepository goalAuditRepository;
+    private final IdempotencyService idempotencyService;
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_BATCH_SIZE = 500;
+    static final int MAX_SEARCH_LENGTH = 200;
 
     @Override
+    // joins a caller's transaction but never opens one: a retry answered from the idempotency cache takes no
+    // connection, and IdempotencyService runs the create itself in a transaction
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ResponseEntity<HealthGoal> createHealthGoal(
             String xApiKey,
             CreateHealthGoalRequest request,
             String xCorrelationId,
-            String xRequestId) {
+            String xRequestId,
+            String idempotencyKey) {
 
         if (request.getUserId() == null || request.getTitle() == null) {
             throw new InvalidRequestException("userId and title are required fields");
         }
 
-        UUID userId = UUID.fromString(request.getUserId());
+        UUID userId = parseUserId(request.getUserId());
+        // idempotency keys are per client, the one ApiFilter authenticated for this request
+        String client = idempotencyKey == null ? null : ApiFilter.currentClient().name();
+        CreatedGoal created = idempotencyService.createOnce(client, idempotencyKey, request,
+                () -> create(userId, request));
+
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(Utility.toETag(created.version()))
+                .body(created.goal());
+    }
+
+    private CreatedGoal create(UUID userId, CreateHealthGoalRequest request) {
         // we shouldn't use the provided user, we should pull the user details form JWT token,
         // for now just i've verified user from payload user.
-        UserEntity user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("user not found for id= " + userId));
+        // an id-only existence check; the goal only needs the foreign key, not the user row
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("user not found for id= " + userId);
+        }
 
-        HealthGoalEntity entity = HealthGoalEntity.builder()
-                .user(user)
-                .title(request.getTitle())
-                .description(request.getDescription())
-                .target(request.getTarget())
-                .unit(request.getUnit())
-                .startDate(Utility.toLocalDate(request.getStartDate()))
-                .endDate(Utility.toLocalDate(request.getEndDate()))
-                .status(HealthGoalEntity.Status.ACTIVE)
-                .build();
+        HealthGoalEntity entity = newGoal(UUID.randomUUID(), userId, request);
 
         HealthGoalEntity saved = healthGoalRepository.save(entity);
-        log.info("health goal created successfully with ID={}", saved.getId());
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(healthGoalMapper.toDto(saved));
+        goalSummaryService.apply(new GoalCountChanges().added(userId, saved.getStatus()));
+        HealthGoal goal = operationMetrics.timeMapping(() -> healthGoalMapper.toDto(saved));
+        goalEventOutbox.created(saved, goal);
+        log.info(SAMPLED, "health goal created successfully with ID={}", saved.getId());
+        return new CreatedGoal(goal, saved.getVersion());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public ResponseEntity<List<HealthGoal>> listHealthGoals(
-            String xApiKey, String xCorrelationId, String xRequestId) {
+            String xApiKey, String xCorrelationId, String xRequestId,
+            UUID userId, String status, Date startDateFrom, Date startDateTo,
+            String cursor, Integer limit) {
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Specification<HealthGoalEntity> filter = Specification.allOf(
+                HealthGoalSpecifications.ownedBy(userId),
+                HealthGoalSpecifications.hasStatus(toStatus(status)),
+                HealthGoalSpecifications.startsOnOrAfter(Utility.toLocalDate(startDateFrom)),
+                HealthGoalSpecifications.startsOnOrBefore(Utility.toLocalDate(startDateTo)),
+                HealthGoalSpecifications.idAfter(decodeCursor(cursor)));
 
-        List<HealthGoal> goals = healthGoalRepository.findAll().stream()
+        // one extra row tells us whether another page exists without running a count query
+        List<HealthGoalEntity> rows = healthGoalRepository.findPage(filter, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<HealthGoal> goals = operationMetrics.timeMapping(() -> rows.stream()
+                .limit(pageSize)
                 .map(healthGoalMapper::toDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+
+        log.info(SAMPLED, "retrieved {} health goals | hasMore={}", goals.size(), hasMore);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasMore) {
+            response.header(ApiConstants.X_NEXT_CURSOR, goals.get(goals.size() - 1).getId().toString());
+        }
+        return response.body(goals);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<HealthGoal>> searchHealthGoals(
+            String xApiKey, String q, String xCorrelationId, String xRequestId,
+            UUID userId, String status, String cursor, Integer limit) {
+
+        if (q == null || q.isBlank() || q.length() > MAX_SEARCH_LENGTH) {
+            throw new InvalidRequestException("q must be 1 to " + MAX_SEARCH_LENGTH + " characters");
+        }
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // ranked results have no stable keyset, so the cursor is the offset of the next page
+        int offset = decodeOffsetCursor(cursor);
+
+        // one extra row tells us whether another page exists
+        HealthGoalSearchRepository.SearchPage page =
+                healthGoalRepository.search(q, userId, toStatus(status), offset, pageSize + 1);
+        List<HealthGoalEntity> rows = page.goals();
+        boolean hasMore = rows.size() > pageSize;
+        List<HealthGoal> goals = operationMetrics.timeMapping(() -> rows.stream()
+                .limit(pageSize)
+                .map(healthGoalMapper::toDto)
+                .collect(Collectors.toList()));
+
+        log.info(SAMPLED, "found {} health goals | hasMore={} | truncated={}", goals.size(), hasMore,
+                page.truncated());
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasMore) {
+            response.header(ApiConstants.X_NEXT_CURSOR, String.valueOf(offset + pageSize));
+        }
+        if (page.truncated()) {
+            response.header(ApiConstants.X_SEARCH_TRUNCATED, "true");
+        }
+        return response.body(goals);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseEntity<HealthGoalSummary> getHealthGoalSummary(
+            String xApiKey, UUID userId, String xCorrelationId, String xRequestId) {
+
+        if (userId == null) {
+            throw new InvalidRequestException("userId is required");
+        }
+        return ResponseEntity.ok(goalSummaryService.summary(userId));
+    }
 
-        log.info("retrieved {} health goals", goals.size());
-        return ResponseEntity.ok(goals);
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseEntity<HealthGoalChanges> listHealthGoalChanges(
+            String xApiKey, String xCorrelationId, String xRequestId, Long after, Integer limit) {
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long position = after == null ? 0 : after;
+        if (position < 0) {
+            throw new InvalidRequestException("after must not be negative");
+        }
+        return ResponseEntity.ok(goalChangeFeed.changesAfter(position, pageSize));
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<StreamingResponseBody> exportHealthGoals(
+            String xApiKey, String xCorrelationId, String xRequestId,
+            UUID userId, String status, String cursor) {
+
+        // the exporter opens its own read-only transaction on the thread that writes the body
+        StreamingResponseBody body = healthGoalExporter.export(Specification.allOf(
+                HealthGoalSpecifications.ownedBy(userId),
+                HealthGoalSpecifications.hasStatus(toStatus(status)),
+                HealthGoalSpecifications.idAfter(decodeCursor(cursor))));
+
+        log.info("starting health goal export | userId={} | status={} | cursor={}", userId, status, cursor);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // read-write, so it runs on the primary: a lagging replica could answer 304 for a version the client already
+    // replaced, or serve a goal it just wrote as missing
+    @Override
+    @Transactional
     public ResponseEntity<HealthGoal> getHealthGoalById(
-            UUID id, String xApiKey, String xCorrelationId, String xRequestId) {
+            UUID id, String xApiKey, String xCorrelationId, String xRequestId, String ifNoneMatch) {
 
-        HealthGoalEntity entity = healthGoalRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("HealthGoal not found: " + id));
+        if (ifNoneMatch != null) {
+            // answer unchanged polls from the cache or a version-only query, without mapping the goal
+            long version = healthGoalCache.peek(id)
+                    .map(VersionedHealthGoal::version)
+                    .or(() -> healthGoalRepository.findVersionById(id))
+                    .or(() -> healthGoalArchiveRepository.findVersionById(id))
+                    .orElseThrow(() -> new ResourceNotFoundException("HealthGoal not found: " + id));
+            if (Utility.eTagMatches(ifNoneMatch, version, true)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(Utility.toETag(version)).build();
+            }
+        }
+
+        VersionedHealthGoal goal = loadGoal(id);
+
+        return ResponseEntity.ok()
+                .eTag(Utility.toETag(goal.version()))
+                .body(goal.goal());
+    }
+
+    @Override
+    @Transactional
+    public ResponseEntity<Void> recordGoalProgress(
+            UUID id, String xApiKey, RecordProgressRequest request, String xCorrelationId, String xRequestId) {
 
-        return ResponseEntity.ok(healthGoalMapper.toDto(entity));
+        if (request == null) {
+            throw new InvalidRequestException("Request body cannot be null");
+        }
+        // existence check through the cache, so a wearable posting every few minutes does not read the goal
+        if (loadGoal(id).archived()) {
+            throw new ResourceNotFoundException("Health goal " + id + " is archived and read-only");
+        }
+        goalProgressService.record(id, request.getEntries());
+        log.info(SAMPLED, "recorded goal progress | id={} | entries={}", id, request.getEntries().size());
+        return ResponseEntity.noContent().build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<HealthGoalAuditEntry>> listHealthGoalAudit(
+            UUID id, String xApiKey, String xCorrelationId, String xRequestId, String cursor, Integer limit) {
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Long before = decodeAuditCursor(cursor);
+        // one extra row tells us whether older entries exist
+        List<GoalAuditEntity> rows = before == null
+                ? goalAuditRepository.findByGoalIdOrderByIdDesc(id, Limit.of(pageSize + 1))
+                : goalAuditRepository.findByGoalIdAndIdLessThanOrderByIdDesc(id, before, Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<HealthGoalAuditEntry> entries = rows.stream()
+                .limit(pageSize)
+                .map(HealthGoalsApiDelegateImpl::toAuditEntry)
+                .toList();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (hasMore) {
+            response.header(ApiConstants.X_NEXT_CURSOR, entries.get(entries.size() - 1).getId().toString());
+        }
+        return response.body(entries);
+    }
+
+    // on the primary, like getHealthGoalById, since a cache miss loads the goal
+    @Override
+    @Transactional
+    public ResponseEntity<GoalProgress> getGoalProgress(
+            UUID id, String xApiKey, String xCorrelationId, String xRequestId,
+            String granularity, Date from, Date to) {
+
+        return ResponseEntity.ok(goalProgressService.progress(loadGoal(id).goal(), granularity,
+                Utility.toLocalDate(from), Utility.toLocalDate(to)));
     }
 
     @Override
@@ -97,9 +351,11 @@ public class HealthGoalsApiDelegateImpl implements HealthGoalsApiDelegate {
             String xApiKey,
             UpdateHealthGoalRequest request,
             String xCorrelationId,
-            String xRequestId) {
+            String xRequestId,
+            String ifMatch) {
 
-        log.info("updating healthgoal | id={} | correlationId={} | requestId={}", id, xCorrelationId, xRequestId);
+        // correlationId and requestId are already in the MDC, and so in every JSON log line
+        log.info(SAMPLED, "updating healthgoal | id={}", id);
 
         if (request == null) {
             throw new InvalidRequestException("Request body cannot be null");
@@ -108,6 +364,200 @@ public class HealthGoalsApiDelegateImpl implements HealthGoalsApiDelegate {
         HealthGoalEntity entity = healthGoalRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Health goal not found for id = " + id));
 
+        // a concurrent update between this check and the flush is caught by the @Version column instead
+        if (ifMatch != null && !Utility.eTagMatches(ifMatch, entity.getVersion(), false)) {
+            throw new PreconditionFailedException("Health goal " + id + " has changed, current version is "
+                    + Utility.toETag(entity.getVersion()));
+        }
+
+        GoalAuditTrail.Snapshot before = GoalAuditTrail.snapshot(entity);
+        applyUpdate(entity, request);
+
+        // flush now so the response carries the incremented version; the version check also guarantees that
+        // the snapshot holds the values this update replaced
+        HealthGoalEntity updated = healthGoalRepository.saveAndFlush(entity);
+        goalSummaryService.apply(new GoalCountChanges().moved(updated.getUserId(), before.status(),
+                updated.getStatus()));
+        goalAuditTrail.updated(before, updated, xCorrelationId, xRequestId);
+        healthGoalCache.evict(id, updated.getVersion());
+        HealthGoal goal = operationMetrics.timeMapping(() -> healthGoalMapper.toDto(updated));
+        goalEventOutbox.updated(updated, goal);
+        log.info(SAMPLED, "updated healthgoal successfully | id={}", updated.getId());
+
+        return ResponseEntity.ok()
+                .eTag(Utility.toETag(updated.getVersion()))
+                .body(goal);
+    }
+
+    @Override
+    public ResponseEntity<HealthGoalBatchResponse> batchHealthGoals(
+            String xApiKey,
+            HealthGoalBatchRequest request,
+            String xCorrelationId,
+            String xRequestId) {
+
+        if (request == null || request.getOperations() == null || request.getOperations().isEmpty()) {
+            throw new InvalidRequestException("operations must not be empty");
+        }
+        List<HealthGoalBatchOperation> operations = request.getOperations();
+        if (operations.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("a batch may contain at most " + MAX_BATCH_SIZE + " operations");
+        }
+
+        // resolve every referenced goal and user up front with one IN query each
+        Set<UUID> goalIds = new HashSet<>();
+        Set<UUID> createIds = new HashSet<>();
+        Set<UUID> userIds = new HashSet<>();
+        for (HealthGoalBatchOperation operation : operations) {
+            Optional.ofNullable(operation.getId()).ifPresent(goalIds::add);
+            if (operation.getOp() == HealthGoalBatchOperation.OpEnum.CREATE) {
+                Optional.ofNullable(operation.getId()).ifPresent(createIds::add);
+                if (operation.getCreate() != null) {
+                    Optional.ofNullable(toUuid(operation.getCreate().getUserId())).ifPresent(userIds::add);
+                }
+            }
+        }
+        Map<UUID, HealthGoalEntity> goals = healthGoalRepository.findAllById(goalIds).stream()
+                .collect(Collectors.toMap(HealthGoalEntity::getId, Function.identity()));
+        Set<UUID> archivedIds = createIds.isEmpty() ? Set.of() : healthGoalArchiveRepository.findExistingIds(createIds);
+        Set<UUID> knownUsers = userIds.isEmpty() ? Set.of() : userRepository.findExistingIds(userIds);
+
+        HealthGoalBatchResult[] results = new HealthGoalBatchResult[operations.size()];
+        Map<Integer, HealthGoalEntity> written = new LinkedHashMap<>();
+        List<HealthGoalEntity> created = new ArrayList<>();
+        Map<UUID, GoalAuditTrail.Snapshot> updated = new LinkedHashMap<>();
+        List<HealthGoalEntity> deleted = new ArrayList<>();
+        GoalCountChanges counts = new GoalCountChanges();
+        Set<UUID> touched = new HashSet<>();
+
+        for (int index = 0; index < operations.size(); index++) {
+            HealthGoalBatchOperation operation = operations.get(index);
+            UUID id = operation.getId();
+            HealthGoalBatchResult result = new HealthGoalBatchResult().index(index).id(id);
+            results[index] = result;
+
+            if (operation.getOp() == null) {
+                reject(result, HttpStatus.BAD_REQUEST, "invalid_request", "op is required");
+            } else if (id != null && !touched.add(id)) {
+                reject(result, HttpStatus.BAD_REQUEST, "invalid_request", "duplicate id in batch: " + id);
+            } else if (operation.getOp() == HealthGoalBatchOperation.OpEnum.CREATE) {
+                CreateHealthGoalRequest create = operation.getCreate();
+                UUID userId = create == null ? null : toUuid(create.getUserId());
+                if (userId == null || create.getTitle() == null) {
+                    reject(result, HttpStatus.BAD_REQUEST, "invalid_request", "userId and title are required fields");
+                } else if (id != null && goals.containsKey(id)) {
+                    reject(result, HttpStatus.CONFLICT, "conflict", "Health goal already exists for id = " + id);
+                } else if (id != null && archivedIds.contains(id)) {
+                    reject(result, HttpStatus.CONFLICT, "conflict",
+                            "Health goal id = " + id + " belongs to an archived or deleted goal");
+                } else if (!knownUsers.contains(userId)) {
+                    reject(result, HttpStatus.NOT_FOUND, "user_not_found", "user not found for id= " + userId);
+                } else {
+                    HealthGoalEntity entity = newGoal(id != null ? id : UUID.randomUUID(), userId, create);
+                    created.add(entity);
+                    counts.added(userId, entity.getStatus());
+                    written.put(index, entity);
+                    result.id(entity.getId()).status(HttpStatus.CREATED.value());
+                }
+            } else if (id == null || !goals.containsKey(id)) {
+                reject(result, HttpStatus.NOT_FOUND, "resource_not_found", "Health goal not found for id = " + id);
+            } else if (operation.getOp() == HealthGoalBatchOperation.OpEnum.UPDATE) {
+                if (operation.getUpdate() == null) {
+                    reject(result, HttpStatus.BAD_REQUEST, "invalid_request", "update is required for UPDATE");
+                } else {
+                    try {
+                        GoalAuditTrail.Snapshot before = GoalAuditTrail.snapshot(goals.get(id));
+                        // managed entity: dirty checking turns this into a batched UPDATE at flush
+                        applyUpdate(goals.get(id), operation.getUpdate());
+                        counts.moved(goals.get(id).getUserId(), before.status(), goals.get(id).getStatus());
+                        written.put(index, goals.get(id));
+                        updated.put(id, before);
+                        result.status(HttpStatus.OK.value());
+                    } catch (InvalidRequestException e) {
+                        reject(result, HttpStatus.BAD_REQUEST, "invalid_request", e.getMessage());
+                    }
+                }
+            } else {
+                deleted.add(goals.get(id));
+                counts.removed(goals.get(id).getUserId(), goals.get(id).getStatus());
+                result.status(HttpStatus.NO_CONTENT.value());
+            }
+        }
+
+        healthGoalRepository.saveAll(created);
+        if (!deleted.isEmpty()) {
+            // soft delete: the goals are kept in the archive, marked deleted; their progress is not
+            List<UUID> deletedIds = deleted.stream().map(HealthGoalEntity::getId).toList();
+            healthGoalArchiveRepository.archiveDeleted(deletedIds, Instant.now());
+            goalProgressService.deleteProgress(deletedIds);
+        }
+        // removed one by one (JDBC-batched) with a version check, so a goal whose status changed since it was
+        // read fails the batch instead of being subtracted from the wrong count
+        healthGoalRepository.deleteAll(deleted);
+        healthGoalRepository.flush();
+        goalSummaryService.apply(counts);
+        updated.forEach((id, before) -> {
+            goalAuditTrail.updated(before, goals.get(id), xCorrelationId, xRequestId);
+            healthGoalCache.evict(id, goals.get(id).getVersion());
+        });
+        deleted.forEach(goal -> healthGoalCache.evictDeleted(goal.getId()));
+        // the events are inserted at commit, in one JDBC batch
+        written.forEach((index, entity) -> {
+            HealthGoal goal = operationMetrics.timeMapping(() -> healthGoalMapper.toDto(entity));
+            results[index].goal(goal);
+            if (results[index].getStatus() == HttpStatus.CREATED.value()) {
+                goalEventOutbox.created(entity, goal);
+            } else {
+                goalEventOutbox.updated(entity, goal);
+            }
+        });
+        deleted.forEach(goalEventOutbox::deleted);
+
+        log.info("processed health goal batch | operations={} | created={} | deleted={} | correlationId={}",
+                operations.size(), created.size(), deleted.size(), xCorrelationId);
+        return ResponseEntity.ok(new HealthGoalBatchResponse().results(Arrays.asList(results)));
+    }
+
+    @Override
+    public ResponseEntity<Void> deleteHealthGoal(
+            UUID id, String xApiKey, String xCorrelationId, String xRequestId) {
+
+        HealthGoalEntity entity = healthGoalRepository.findById(id).orElseThrow(() -> {
+            log.warn("health goal not found for deletion id={}", id);
+            return new ResourceNotFoundException("Health goal not found for id = " + id);
+        });
+
+        // soft delete: the goal is kept in the archive, marked deleted, and leaves the working set with its progress
+        healthGoalArchiveRepository.archiveDeleted(List.of(id), Instant.now());
+        goalProgressService.deleteProgress(List.of(id));
+        // the versioned delete fails with a conflict if the status changed after it was read
+        healthGoalRepository.delete(entity);
+        healthGoalRepository.flush();
+        goalSummaryService.apply(new GoalCountChanges().removed(entity.getUserId(), entity.getStatus()));
+        goalEventOutbox.deleted(entity);
+        healthGoalCache.evictDeleted(id);
+        log.info("deleted health goal id={}", id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static HealthGoalEntity newGoal(UUID id, UUID userId, CreateHealthGoalRequest request) {
+        return HealthGoalEntity.builder()
+                .id(id)
+                .userId(userId)
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .target(request.getTarget())
+                .unit(request.getUnit())
+                .startDate(Utility.toLocalDate(request.getStartDate()))
+                .endDate(Utility.toLocalDate(request.getEndDate()))
+                .status(HealthGoalEntity.Status.ACTIVE)
+                .build();
+    }
+
+    private static void applyUpdate(HealthGoalEntity entity, UpdateHealthGoalRequest request) {
+        // resolve the status first so an invalid value leaves the managed entity untouched
+        HealthGoalEntity.Status status = request.getStatus() == null ? null : toStatus(request.getStatus().getValue());
+
         Optional.ofNullable(request.getTitle())
                 .ifPresent(entity::setTitle);
         Optional.ofNullable(request.getDescription())
@@ -120,32 +570,103 @@ public class HealthGoalsApiDelegateImpl implements HealthGoalsApiDelegate {
                 .ifPresent(date -> entity.setStartDate(Utility.toLocalDate(date)));
         Optional.ofNullable(request.getEndDate())
                 .ifPresent(date -> entity.setEndDate(Utility.toLocalDate(date)));
+        Optional.ofNullable(status)
+                .ifPresent(entity::setStatus);
+    }
 
-        if (request.getStatus() != null) {
-            try {
-                entity.setStatus(HealthGoalEntity.Status.valueOf(request.getStatus().getValue()));
-            } catch (IllegalArgumentException e) {
-                throw new InvalidRequestException("Invalid status value: " + request.getStatus().getValue());
-            }
+    private static void reject(HealthGoalBatchResult result, HttpStatus status, String code, String message) {
+        ErrorResponse error = new ErrorResponse();
+        error.setError(code);
+        error.setMessage(message);
+        result.status(status.value()).error(error);
+    }
+
+    private static UUID parseUserId(String userId) {
+        UUID parsed = toUuid(userId);
+        if (parsed == null) {
+            throw new InvalidRequestException("Invalid userId: " + userId);
         }
+        return parsed;
+    }
 
-        HealthGoalEntity updated = healthGoalRepository.save(entity);
-        log.info("updated healthgoal successfully | id={} | correlationId={}", updated.getId(), xCorrelationId);
+    private static UUID toUuid(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-        return ResponseEntity.ok(healthGoalMapper.toDto(updated));
+    // callers run in read-write transactions, so misses are loaded from the primary
+    private VersionedHealthGoal loadGoal(UUID id) {
+        return healthGoalCache.get(id, () -> healthGoalRepository.findById(id)
+                .map(entity -> new VersionedHealthGoal(
+                        operationMetrics.timeMapping(() -> healthGoalMapper.toDto(entity)), entity.getVersion(), false))
+                // an archived goal is served as it was when it left health_goals
+                .or(() -> healthGoalArchiveRepository.findByIdAndDeletedAtIsNull(id)
+                        .map(archived -> new VersionedHealthGoal(
+                                operationMetrics.timeMapping(() -> healthGoalMapper.toDto(archived)),
+                                archived.getVersion(), true)))
+                .orElseThrow(() -> new ResourceNotFoundException("HealthGoal not found: " + id)));
     }
 
-    @Override
-    public ResponseEntity<Void> deleteHealthGoal(
-            UUID id, String xApiKey, String xCorrelationId, String xRequestId) {
+    private static HealthGoalEntity.Status toStatus(String status) {
+        if (status == null) {
+            return null;
+        }
+        try {
+            return HealthGoalEntity.Status.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid status value: " + status);
+        }
+    }
 
-        if (!healthGoalRepository.existsById(id)) {
-            log.warn("health goal not found for deletion id={}", id);
-            throw new ResourceNotFoundException("Health goal not found for id = " + id);
+    private static HealthGoalAuditEntry toAuditEntry(GoalAuditEntity row) {
+        return new HealthGoalAuditEntry(row.getId(), row.getGoalId(), row.getVersion(),
+                HealthGoalAuditEntry.FieldEnum.fromValue(row.getField()), Date.from(row.getChangedAt()))
+                .oldValue(row.getOldValue())
+                .newValue(row.getNewValue())
+                .correlationId(row.getCorrelationId())
+                .requestId(row.getRequestId());
+    }
+
+    private static Long decodeAuditCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(cursor);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static int decodeOffsetCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
         }
+        try {
+            int offset = Integer.parseInt(cursor);
+            if (offset >= 0) {
+                return offset;
+            }
+        } catch (NumberFormatException e) {
+            // rejected below
+        }
+        throw new InvalidRequestException("Invalid cursor: " + cursor);
+    }
 
-        healthGoalRepository.deleteById(id);
-        log.info("deleted health goal id={}", id);
-        return ResponseEntity.noContent().build();
+    private static UUID decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
     }
 }
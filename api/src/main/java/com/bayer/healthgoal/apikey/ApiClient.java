@@ -0,0 +1,7 @@
+package com.bayer.healthgoal.apikey;
+
+/**
+ * An authenticated caller and the rate limiter shared by every request made with its key.
+ */
+public record ApiClient(String name, RateLimiter rateLimiter) {
+}
@@ -0,0 +1,142 @@
+package com.bayer.healthgoal.apikey;
+
+import com.bayer.healthgoal.entity.ApiKeyEntity;
+import com.bayer.healthgoal.repository.ApiKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves an {@code x-api-key} header to its client.
+ * <p>
+ * The configured {@code healthgoal.api.x_api_key} stays valid as a bootstrap key and is checked in memory. Every
+ * other key is looked up by its SHA-256 in {@code api_keys}; results are kept in bounded Caffeine caches for
+ * {@code healthgoal.api.key-cache.ttl}, which is also how long a revoked key keeps working. Unknown keys have a
+ * cache of their own, so guessed keys cannot evict valid ones. Lookups of keys never seen valid share one
+ * {@code healthgoal.api.key-lookups-per-second} limit: a flood of random keys is answered 401 without a query. A key
+ * that was valid once is re-checked past that limit when its cache entry expires, so the flood cannot lock its client
+ * out. Rate limiters live outside the caches, so an expiring entry does not hand its client a fresh burst.
+ */
+@Slf4j
+@Component
+public class ApiKeyService {
+
+    private static final String BOOTSTRAP_CLIENT = "bootstrap";
+
+    private final ApiKeyRepository apiKeyRepository;
+    private final byte[] bootstrapKey;
+    private final Optional<ApiClient> bootstrapClient;
+    private final Cache<String, ApiClient> clientsByKeyHash;
+    private final Cache<String, Boolean> unknownKeyHashes;
+    private final Cache<String, Boolean> validKeyHashes;
+    private final RateLimiter lookups;
+    private final Map<UUID, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+    public ApiKeyService(ApiKeyRepository apiKeyRepository,
+                         @Value("${healthgoal.api.x_api_key:}") String bootstrapKey,
+                         @Value("${healthgoal.api.bootstrap-rate-limit:0}") int bootstrapRequestsPerSecond,
+                         @Value("${healthgoal.api.key-cache.maximum-size:10000}") long cacheSize,
+                         @Value("${healthgoal.api.key-cache.ttl:60s}") Duration cacheTtl,
+                         @Value("${healthgoal.api.key-cache.unknown-maximum-size:1000}") long unknownCacheSize,
+                         @Value("${healthgoal.api.key-lookups-per-second:50}") int lookupsPerSecond) {
+        this.apiKeyRepository = apiKeyRepository;
+        this.bootstrapKey = bootstrapKey.getBytes(StandardCharsets.UTF_8);
+        this.bootstrapClient = Optional.of(new ApiClient(BOOTSTRAP_CLIENT, bootstrapRequestsPerSecond > 0
+                ? new RateLimiter(bootstrapRequestsPerSecond, bootstrapRequestsPerSecond)
+                : RateLimiter.UNLIMITED));
+        this.clientsByKeyHash = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+        this.unknownKeyHashes = Caffeine.newBuilder()
+                .maximumSize(unknownCacheSize)
+                .expireAfterWrite(cacheTtl)
+                .build();
+        // no expiry: only keys found in api_keys get here, so its size is bounded by theirs, not by guesses
+        this.validKeyHashes = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+        this.lookups = new RateLimiter(lookupsPerSecond, lookupsPerSecond);
+    }
+
+    public Optional<ApiClient> authenticate(String apiKey) {
+        if (apiKey == null || apiKey.isEmpty()) {
+            return Optional.empty();
+        }
+        if (isBootstrapKey(apiKey)) {
+            return bootstrapClient;
+        }
+        String keyHash = hash(apiKey);
+        ApiClient client = clientsByKeyHash.getIfPresent(keyHash);
+        if (client != null) {
+            return Optional.of(client);
+        }
+        if (unknownKeyHashes.getIfPresent(keyHash) != null) {
+            return Optional.empty();
+        }
+        boolean seenValid = validKeyHashes.getIfPresent(keyHash) != null;
+        if (!seenValid && lookups.tryAcquire() > 0) {
+            // not cached as unknown: a new valid key is looked up once the flood is over
+            return Optional.empty();
+        }
+        // not cache.get(key, loader): that runs the query inside a ConcurrentHashMap bin lock, which would pin
+        // a virtual thread; a few concurrent misses for the same new key are cheaper than that
+        Optional<ApiClient> found = apiKeyRepository.findByKeyHashAndActiveTrue(keyHash).map(this::toClient);
+        if (found.isPresent()) {
+            clientsByKeyHash.put(keyHash, found.get());
+            validKeyHashes.put(keyHash, Boolean.TRUE);
+        } else {
+            // a revoked key goes back under the limit
+            validKeyHashes.invalidate(keyHash);
+            unknownKeyHashes.put(keyHash, Boolean.TRUE);
+        }
+        return found;
+    }
+
+    /**
+     * Compares every byte of the bootstrap key regardless of where the first difference is, so response time does
+     * not reveal how much of a guessed key was right. Non-ASCII header characters never match.
+     */
+    boolean isBootstrapKey(String apiKey) {
+        if (bootstrapKey.length == 0) {
+            return false;
+        }
+        int diff = apiKey.length() ^ bootstrapKey.length;
+        for (int i = 0; i < bootstrapKey.length; i++) {
+            char c = i < apiKey.length() ? apiKey.charAt(i) : 0;
+            diff |= (c & ~0x7f) | (c ^ bootstrapKey[i]);
+        }
+        return diff == 0;
+    }
+
+    public static String hash(String apiKey) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(apiKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private ApiClient toClient(ApiKeyEntity entity) {
+        RateLimiter rateLimiter = rateLimiters.compute(entity.getId(), (id, existing) ->
+                existing != null && existing.hasLimits(entity.getRequestsPerSecond(), entity.getBurst())
+                        ? existing
+                        : new RateLimiter(entity.getRequestsPerSecond(), entity.getBurst()));
+        log.info("loaded api key | client={} | requestsPerSecond={} | burst={}",
+                entity.getClientName(), entity.getRequestsPerSecond(), entity.getBurst());
+        return new ApiClient(entity.getClientName(), rateLimiter);
+    }
+}
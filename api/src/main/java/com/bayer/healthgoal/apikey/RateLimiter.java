@@ -0,0 +1,67 @@
+package com.bayer.healthgoal.apikey;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket in its GCRA form: the whole bucket is one theoretical arrival time in an {@link AtomicLong}, advanced
+ * by one emission interval per admitted request. Admitting a request is a single CAS, so callers never block and
+ * different keys never share a cache line.
+ */
+public final class RateLimiter {
+
+    public static final RateLimiter UNLIMITED = new RateLimiter(0, 0, System::nanoTime);
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final int requestsPerSecond;
+    private final int burst;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier clock;
+    private final AtomicLong theoreticalArrival;
+
+    public RateLimiter(int requestsPerSecond, int burst) {
+        this(requestsPerSecond, burst, System::nanoTime);
+    }
+
+    /**
+     * @param requestsPerSecond sustained rate; {@code 0} or less admits everything
+     * @param burst             requests admitted back to back when the bucket is full; at least 1
+     */
+    RateLimiter(int requestsPerSecond, int burst, LongSupplier clock) {
+        this.requestsPerSecond = Math.max(requestsPerSecond, 0);
+        this.burst = Math.max(burst, 1);
+        this.emissionIntervalNanos = this.requestsPerSecond > 0 ? NANOS_PER_SECOND / this.requestsPerSecond : 0;
+        this.burstToleranceNanos = emissionIntervalNanos * this.burst;
+        this.clock = clock;
+        this.theoreticalArrival = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Takes one token if there is one.
+     *
+     * @return {@code 0} if the request is admitted, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire() {
+        if (emissionIntervalNanos == 0) {
+            return 0;
+        }
+        long now = clock.getAsLong();
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long waitNanos = next - now - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean hasLimits(int requestsPerSecond, int burst) {
+        return this.requestsPerSecond == Math.max(requestsPerSecond, 0) && this.burst == Math.max(burst, 1);
+    }
+}
@@ -0,0 +1,12 @@
+package com.bayer.healthgoal.audit;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One changed field on its way from the update transaction to the {@code goal_audit} table; also the line format
+ * of the spool files.
+ */
+public record GoalAuditEntry(UUID goalId, long version, String field, String oldValue, String newValue,
+                             Instant changedAt, String correlationId, String requestId) {
+}
@@ -0,0 +1,81 @@
+package com.bayer.healthgoal.audit;
+
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Computes the field-level diff of an update inside its transaction and hands it to {@link GoalAuditWriter} once
+ * the transaction has committed, so the update never waits for the audit insert and a rolled back update leaves
+ * no history.
+ */
+@Component
+public class GoalAuditTrail {
+
+    private final GoalAuditWriter goalAuditWriter;
+
+    public GoalAuditTrail(GoalAuditWriter goalAuditWriter) {
+        this.goalAuditWriter = goalAuditWriter;
+    }
+
+    /**
+     * The audited fields of a goal, taken before the update is applied.
+     */
+    public static Snapshot snapshot(HealthGoalEntity goal) {
+        return new Snapshot(goal.getTitle(), goal.getTarget(), goal.getStartDate(), goal.getEndDate(),
+                goal.getStatus());
+    }
+
+    /**
+     * Records every audited field that differs between the snapshot and the flushed goal.
+     */
+    public void updated(Snapshot before, HealthGoalEntity after, String correlationId, String requestId) {
+        Instant now = Instant.now();
+        List<GoalAuditEntry> entries = new ArrayList<>(5);
+        Snapshot current = snapshot(after);
+        diff(entries, after, "title", before.title(), current.title(), now, correlationId, requestId);
+        diff(entries, after, "target", before.target(), current.target(), now, correlationId, requestId);
+        diff(entries, after, "startDate", before.startDate(), current.startDate(), now, correlationId, requestId);
+        diff(entries, after, "endDate", before.endDate(), current.endDate(), now, correlationId, requestId);
+        diff(entries, after, "status", before.status(), current.status(), now, correlationId, requestId);
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            goalAuditWriter.submit(entries);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                goalAuditWriter.submit(entries);
+            }
+        });
+    }
+
+    private static void diff(List<GoalAuditEntry> entries, HealthGoalEntity goal, String field, Object oldValue,
+                             Object newValue, Instant changedAt, String correlationId, String requestId) {
+        if (!Objects.equals(oldValue, newValue)) {
+            entries.add(new GoalAuditEntry(goal.getId(), goal.getVersion(), field, toText(oldValue),
+                    toText(newValue), changedAt, correlationId, requestId));
+        }
+    }
+
+    private static String toText(Object value) {
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return value == null ? null : value.toString();
+    }
+
+    public record Snapshot(String title, Integer target, LocalDate startDate, LocalDate endDate,
+                           HealthGoalEntity.Status status) {
+    }
+}
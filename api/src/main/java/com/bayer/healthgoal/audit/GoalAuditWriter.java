@@ -0,0 +1,305 @@
+package com.bayer.healthgoal.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes audit entries to {@code goal_audit} from a bounded in-memory queue on one background thread, in JDBC
+ * batches of up to {@code healthgoal.audit.batch-size}.
+ * <p>
+ * A full queue pushes back on the committing request for at most {@code healthgoal.audit.offer-timeout}; entries
+ * that still do not fit go to a second queue, and a spooler thread appends them to a spool file in
+ * {@code healthgoal.audit.spool-dir} and syncs it to disk. Request threads therefore never do file I/O; when the
+ * spooler falls behind too, they park on that queue, which does not pin a virtual thread. Batches the database
+ * rejects are spooled by the writer thread. A scheduled job inserts spooled entries once the database takes them
+ * again. Entries still in the queues when the process dies are lost; on a normal shutdown they are written or
+ * spooled.
+ * <p>
+ * A spool directory that cannot be created is reported at startup but does not stop the service: audit entries
+ * only need it while the database is behind, and each spool attempt tries to create it again.
+ */
+@Slf4j
+@Component
+public class GoalAuditWriter {
+
+    static final String SPOOL_FILE = "goal-audit.ndjson";
+    private static final String REPLAYING_FILE = SPOOL_FILE + ".replaying";
+    private static final String INSERT = "insert into goal_audit (goal_id, version, field, old_value, new_value, "
+            + "changed_at, correlation_id, request_id) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<GoalAuditEntry> queue;
+    private final BlockingQueue<GoalAuditEntry> overflow;
+    // guards appends to the spool file and moving it aside for a replay
+    private final ReentrantLock spoolLock = new ReentrantLock();
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final Path spoolDir;
+    private final Counter spooled;
+    private volatile boolean running;
+    private Thread writer;
+    private Thread spooler;
+
+    public GoalAuditWriter(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${healthgoal.audit.queue-capacity:10000}") int queueCapacity,
+                           @Value("${healthgoal.audit.batch-size:500}") int batchSize,
+                           @Value("${healthgoal.audit.offer-timeout:50ms}") Duration offerTimeout,
+                           @Value("${healthgoal.audit.spool-dir:/var/lib/healthgoal/audit-spool}") Path spoolDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.overflow = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.spoolDir = spoolDir;
+        Gauge.builder("healthgoal.audit.queue.size", queue, Collection::size)
+                .description("Audit entries waiting for the background writer")
+                .register(meterRegistry);
+        this.spooled = Counter.builder("healthgoal.audit.spooled")
+                .description("Audit entries written to the spool file instead of the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        try {
+            Files.createDirectories(spoolDir);
+        } catch (IOException e) {
+            log.error("cannot create the audit spool directory {}; audit entries the database cannot take are lost "
+                    + "until it exists: {}", spoolDir.toAbsolutePath(), e.toString());
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("goal-audit-writer").daemon().start(this::drain);
+        spooler = Thread.ofPlatform().name("goal-audit-spooler").daemon().start(this::spoolOverflow);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        spooler.interrupt();
+        writer.join(Duration.ofSeconds(10));
+        spooler.join(Duration.ofSeconds(10));
+        List<GoalAuditEntry> rest = new ArrayList<>(queue.size());
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            write(rest);
+        }
+        rest.clear();
+        overflow.drainTo(rest);
+        if (!rest.isEmpty()) {
+            spool(rest);
+        }
+    }
+
+    /**
+     * Queues the entries, waiting at most the offer timeout for space; whatever does not fit is handed to the
+     * spooler.
+     */
+    public void submit(List<GoalAuditEntry> entries) {
+        for (int i = 0; i < entries.size(); i++) {
+            boolean queued;
+            try {
+                queued = queue.offer(entries.get(i), offerTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+            if (!queued) {
+                // the writer is behind; waiting again for each remaining entry would only slow the request more
+                handOver(entries.subList(i, entries.size()));
+                return;
+            }
+        }
+    }
+
+    /**
+     * Inserts spooled entries in one transaction, so a failure leaves the file to be replayed whole.
+     *
+     * @return the number of entries inserted
+     */
+    @Scheduled(fixedDelayString = "${healthgoal.audit.spool-replay-interval:30s}")
+    public long replaySpool() throws IOException {
+        Path replaying = spoolDir.resolve(REPLAYING_FILE);
+        spoolLock.lock();
+        try {
+            Path spool = spoolDir.resolve(SPOOL_FILE);
+            // a file left by a failed replay goes first; new spool lines wait for the next run
+            if (!Files.exists(replaying)) {
+                if (!Files.exists(spool)) {
+                    return 0;
+                }
+                Files.move(spool, replaying, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            spoolLock.unlock();
+        }
+        try {
+            long inserted = transaction.execute(status -> insertSpooled(replaying));
+            Files.delete(replaying);
+            log.info("replayed {} spooled audit entries", inserted);
+            return inserted;
+        } catch (DataAccessException e) {
+            log.warn("audit spool replay failed, retrying on the next run: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private void drain() {
+        List<GoalAuditEntry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    // parks, without pinning, while the spooler is behind as well
+    private void handOver(List<GoalAuditEntry> entries) {
+        for (int i = 0; i < entries.size(); i++) {
+            try {
+                overflow.put(entries.get(i));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("lost {} audit entries, interrupted while handing them to the spooler",
+                        entries.size() - i);
+                return;
+            }
+        }
+    }
+
+    // one append and sync for everything that piled up meanwhile
+    private void spoolOverflow() {
+        List<GoalAuditEntry> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(overflow.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            overflow.drainTo(batch);
+            spool(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<GoalAuditEntry> batch) {
+        try {
+            insert(batch);
+        } catch (DataAccessException e) {
+            log.warn("could not write {} audit entries, spooling them: {}", batch.size(), e.getMessage());
+            spool(batch);
+        }
+    }
+
+    private void insert(List<GoalAuditEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT, entries, entries.size(), (statement, entry) -> {
+            statement.setObject(1, entry.goalId());
+            statement.setLong(2, entry.version());
+            statement.setString(3, entry.field());
+            statement.setString(4, entry.oldValue());
+            statement.setString(5, entry.newValue());
+            statement.setObject(6, OffsetDateTime.ofInstant(entry.changedAt(), ZoneOffset.UTC));
+            statement.setString(7, entry.correlationId());
+            statement.setString(8, entry.requestId());
+        });
+    }
+
+    private long insertSpooled(Path file) {
+        long inserted = 0;
+        List<GoalAuditEntry> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                try {
+                    batch.add(objectMapper.readValue(line, GoalAuditEntry.class));
+                } catch (JsonProcessingException e) {
+                    // a line cut short by a crash while spooling
+                    log.warn("skipping unreadable audit spool line: {}", e.getOriginalMessage());
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    insert(batch);
+                    inserted += batch.size();
+                    batch.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!batch.isEmpty()) {
+            insert(batch);
+            inserted += batch.size();
+        }
+        return inserted;
+    }
+
+    // only called from the writer and spooler threads, and on shutdown
+    private void spool(List<GoalAuditEntry> entries) {
+        StringBuilder lines = new StringBuilder(entries.size() * 256);
+        spoolLock.lock();
+        try {
+            for (GoalAuditEntry entry : entries) {
+                lines.append(objectMapper.writeValueAsString(entry)).append('\n');
+            }
+            Files.createDirectories(spoolDir);
+            try (FileChannel channel = FileChannel.open(spoolDir.resolve(SPOOL_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+            spooled.increment(entries.size());
+        } catch (IOException e) {
+            log.error("lost {} audit entries, neither the database nor the spool file took them", entries.size(), e);
+        } finally {
+            spoolLock.unlock();
+        }
+    }
+}
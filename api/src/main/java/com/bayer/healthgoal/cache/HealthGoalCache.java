@@ -0,0 +1,134 @@
+package com.bayer.healthgoal.cache;
+
+import com.bayer.healthgoal.api.model.HealthGoal;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of mapped {@link HealthGoal} DTOs and their entity version, keyed by goal id.
+ * <p>
+ * Backed by whatever {@link CacheManager} {@code spring.cache.type} selects: caffeine (bounded, TTL) by default,
+ * {@code none} to switch it off, or a distributed provider such as redis without touching callers.
+ * Cached DTOs are shared between requests and must not be mutated.
+ * <p>
+ * A committed change leaves a tombstone holding the new version in place of the entry, and a loaded goal is only
+ * stored over an entry of a lower version. A reader that loaded the row before the change committed, or from a
+ * replica that has not caught up yet, therefore cannot store it over the change. On caffeine and the in-memory map
+ * the comparison is atomic and the first load of the new version replaces the tombstone. Other providers cannot
+ * compare atomically: there loads only fill empty entries, and a goal is read from the database until its
+ * tombstone expires.
+ * <p>
+ * Archiving a goal keeps its version, so the archive job leaves an archived tombstone, which replaces a live copy of
+ * the same version and is only replaced by the goal loaded from the archive. A copy loaded from the working set
+ * before the goal moved cannot be stored over it.
+ */
+@Component
+public class HealthGoalCache {
+
+    public static final String CACHE_NAME = "healthGoals";
+
+    // a deleted goal never loads again, so its tombstone outranks any version
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final Cache cache;
+    // the provider's own map when it supports atomic merges, otherwise null
+    private final ConcurrentMap<Object, Object> entries;
+
+    @SuppressWarnings("unchecked")
+    public HealthGoalCache(CacheManager cacheManager) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME),
+                "cache '" + CACHE_NAME + "' is not configured, check spring.cache.cache-names");
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            this.entries = (ConcurrentMap<Object, Object>) caffeine.asMap();
+        } else if (nativeCache instanceof ConcurrentMap<?, ?> map) {
+            this.entries = (ConcurrentMap<Object, Object>) map;
+        } else {
+            this.entries = null;
+        }
+    }
+
+    public VersionedHealthGoal get(UUID id, Supplier<VersionedHealthGoal> loader) {
+        return peek(id).orElseGet(() -> {
+            VersionedHealthGoal loaded = loader.get();
+            store(id, loaded);
+            return loaded;
+        });
+    }
+
+    public Optional<VersionedHealthGoal> peek(UUID id) {
+        return Optional.ofNullable(cache.get(id, VersionedHealthGoal.class))
+                .filter(entry -> entry.goal() != null);
+    }
+
+    /**
+     * Replaces the entry with a tombstone for {@code version}, the version the change wrote. Inside a transaction
+     * this happens after commit, so readers keep the committed goal until then and a rollback leaves it alone.
+     */
+    public void evict(UUID id, long version) {
+        replaceAfterCommit(id, new VersionedHealthGoal(null, version, false));
+    }
+
+    public void evictDeleted(UUID id) {
+        evict(id, DELETED);
+    }
+
+    /**
+     * Like {@link #evict}, for a goal moved to the archive at {@code version}.
+     */
+    public void evictArchived(UUID id, long version) {
+        replaceAfterCommit(id, new VersionedHealthGoal(null, version, true));
+    }
+
+    private void replaceAfterCommit(UUID id, VersionedHealthGoal tombstone) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replace(id, tombstone);
+                }
+            });
+        } else {
+            replace(id, tombstone);
+        }
+    }
+
+    private void store(UUID id, VersionedHealthGoal loaded) {
+        if (entries != null) {
+            entries.merge(id, loaded, HealthGoalCache::newer);
+        } else {
+            cache.putIfAbsent(id, loaded);
+        }
+    }
+
+    private void replace(UUID id, VersionedHealthGoal tombstone) {
+        if (entries != null) {
+            entries.merge(id, tombstone, HealthGoalCache::newer);
+        } else {
+            cache.put(id, tombstone);
+        }
+    }
+
+    // the higher version wins; at the same version an archived entry replaces a live one, and a loaded goal its
+    // tombstone
+    private static Object newer(Object current, Object candidate) {
+        VersionedHealthGoal present = (VersionedHealthGoal) current;
+        VersionedHealthGoal offered = (VersionedHealthGoal) candidate;
+        if (offered.version() != present.version()) {
+            return offered.version() > present.version() ? offered : present;
+        }
+        if (offered.archived() != present.archived()) {
+            return offered.archived() ? offered : present;
+        }
+        return present.goal() == null && offered.goal() != null ? offered : present;
+    }
+}
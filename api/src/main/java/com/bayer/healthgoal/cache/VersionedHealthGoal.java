@@ -0,0 +1,10 @@
+package com.bayer.healthgoal.cache;
+
+import com.bayer.healthgoal.api.model.HealthGoal;
+
+/**
+ * A mapped goal together with the entity version it was mapped from, so cached reads can answer with an ETag.
+ * {@code archived} is set for goals served from the archive, which are read-only.
+ */
+public record VersionedHealthGoal(HealthGoal goal, long version, boolean archived) {
+}
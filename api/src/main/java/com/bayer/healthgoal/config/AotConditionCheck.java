@@ -0,0 +1,46 @@
+package com.bayer.healthgoal.config;
+
+import com.bayer.healthgoal.datasource.ReplicaDataSource;
+import com.bayer.healthgoal.outbox.FileGoalEventSink;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fails startup when a build processed by Spring AOT runs with settings its bean conditions were not evaluated for.
+ * AOT fixes those conditions at {@code mvn -Paot package}, so replica routing or the file event sink switched on
+ * (or off) only on the container would otherwise be ignored without a word.
+ */
+@Component
+public class AotConditionCheck {
+
+    public AotConditionCheck(Environment environment, ListableBeanFactory beanFactory) {
+        if (AotDetector.useGeneratedArtifacts()) {
+            verify(environment, beanFactory);
+        }
+    }
+
+    static void verify(Environment environment, ListableBeanFactory beanFactory) {
+        verify("healthgoal.datasource.replica-urls",
+                !environment.getProperty("healthgoal.datasource.replica-urls", "").isBlank(),
+                hasBean(beanFactory, ReplicaDataSource.class));
+        verify("healthgoal.outbox.sink=file",
+                "file".equals(environment.getProperty("healthgoal.outbox.sink")),
+                hasBean(beanFactory, FileGoalEventSink.class));
+    }
+
+    private static void verify(String setting, boolean configured, boolean built) {
+        if (configured != built) {
+            String message = setting + (configured
+                    ? " is set, but this build was processed by Spring AOT without it."
+                    : " is not set, but this build was processed by Spring AOT with it.")
+                    + " Set it the same way for mvn -Paot package, or start without -Dspring.aot.enabled=true";
+            throw new IllegalStateException(message);
+        }
+    }
+
+    private static boolean hasBean(ListableBeanFactory beanFactory, Class<?> type) {
+        return beanFactory.getBeanNamesForType(type, false, false).length > 0;
+    }
+}
@@ -1,38 +1,74 @@
 package com.bayer.healthgoal.config;
 
+import com.bayer.healthgoal.apikey.ApiClient;
+import com.bayer.healthgoal.apikey.ApiKeyService;
 import com.bayer.healthgoal.utlity.ApiConstants;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
 
+/**
+ * Checks the API key and its client's rate limit on every request. Prefixes are matched in a plain loop and log
+ * arguments are only built when the level is enabled. Error bodies are prebuilt bytes with the variable parts
+ * JSON-escaped.
+ */
 @Slf4j
 @Component
 public class ApiFilter extends OncePerRequestFilter {
 
-    @Value("${healthgoal.api.x_api_key}")
-    private String expectedApiKey;
+    public static final String CORRELATION_ID = "correlationId";
+    public static final String REQUEST_ID = "requestId";
+    // request attribute holding the ApiClient the key resolved to
+    public static final String API_CLIENT = ApiFilter.class.getName() + ".apiClient";
 
-    private static final List<String> EXCLUDED_PATHS = List.of(
+    private static final String[] EXCLUDED_PATHS = {
             "/actuator",              // /actuator/*
             "/swagger-ui",            // /swagger-ui/*
             "/v3/api-docs",           // /v3/api-docs/*
             "/openapi.yaml",          // static YAML spec
             "/error"                  // allow default error endpoint
-    );
+    };
+
+    private static final byte[] UNAUTHORIZED_PREFIX =
+            ascii("{\"error\":\"unauthorized\",\"message\":\"Missing or invalid API key\",\"traceId\":\"");
+    private static final byte[] TOO_MANY_REQUESTS_PREFIX =
+            ascii("{\"error\":\"too_many_requests\",\"message\":\"Rate limit exceeded for API key\",\"traceId\":\"");
+    // the exception is only logged: its message can carry SQL or internals, and the caller may be unauthenticated
+    private static final byte[] INTERNAL_ERROR_PREFIX =
+            ascii("{\"error\":\"internal_error\",\"message\":\"Internal server error\",\"traceId\":\"");
+    private static final byte[] MISSING_CORRELATION_ID = ascii("missing_correlationId");
+    private static final byte[] BODY_SUFFIX = ascii("\"}");
+
+    private final ApiKeyService apiKeyService;
+
+    public ApiFilter(ApiKeyService apiKeyService) {
+        this.apiKeyService = apiKeyService;
+    }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
-        return EXCLUDED_PATHS.stream().anyMatch(path::startsWith);
+        for (String excluded : EXCLUDED_PATHS) {
+            if (path.startsWith(excluded)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -45,42 +81,88 @@ public class ApiFilter extends OncePerRequestFilter {
         String correlationId = request.getHeader(ApiConstants.X_CORRELATION_ID);
         String requestId = request.getHeader(ApiConstants.X_REQUEST_ID);
 
-        MDC.put("correlationId", correlationId);
-        MDC.put("requestId", requestId);
+        if (correlationId != null) {
+            MDC.put(CORRELATION_ID, correlationId);
+        }
+        if (requestId != null) {
+            MDC.put(REQUEST_ID, requestId);
+        }
 
         try {
-            if (apiKey == null || !apiKey.equals(expectedApiKey)) {
+            Optional<ApiClient> client = apiKeyService.authenticate(apiKey);
+            if (client.isEmpty()) {
                 log.warn("Unauthorized | URI={} | correlationId={} | requestId={}",
                         request.getRequestURI(), correlationId, requestId);
                 sendErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED,
-                        "unauthorized", "Missing or invalid API key", correlationId);
+                        UNAUTHORIZED_PREFIX, correlationId);
                 return;
             }
 
-            log.debug("Authorized | URI={} | correlationId={} | requestId={}",
-                    request.getRequestURI(), correlationId, requestId);
+            long waitNanos = client.get().rateLimiter().tryAcquire();
+            if (waitNanos > 0) {
+                log.warn("Rate limited | client={} | URI={} | correlationId={} | requestId={}",
+                        client.get().name(), request.getRequestURI(), correlationId, requestId);
+                response.setIntHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds(waitNanos));
+                sendErrorResponse(response, HttpStatus.TOO_MANY_REQUESTS.value(),
+                        TOO_MANY_REQUESTS_PREFIX, correlationId);
+                return;
+            }
 
+            if (log.isDebugEnabled()) {
+                log.debug("Authorized | URI={} | correlationId={} | requestId={}",
+                        request.getRequestURI(), correlationId, requestId);
+            }
+
+            request.setAttribute(API_CLIENT, client.get());
             filterChain.doFilter(request, response);
         } catch (Exception e) {
             log.error("Unhandled filter error | URI={} | correlationId={} | requestId={}",
                     request.getRequestURI(), correlationId, requestId, e);
             sendErrorResponse(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
-                    "internal_error", e.getMessage(), correlationId);
+                    INTERNAL_ERROR_PREFIX, correlationId);
         } finally {
-            MDC.clear();
+            // remove rather than clear, so the thread's MDC map is reused by the next request
+            MDC.remove(CORRELATION_ID);
+            MDC.remove(REQUEST_ID);
+        }
+    }
+
+    /**
+     * The client this filter authenticated for the current request, so handlers need not resolve the key again.
+     */
+    public static ApiClient currentClient() {
+        ApiClient client = (ApiClient) RequestContextHolder.currentRequestAttributes()
+                .getAttribute(API_CLIENT, RequestAttributes.SCOPE_REQUEST);
+        if (client == null) {
+            throw new IllegalStateException("the request did not pass ApiFilter");
         }
+        return client;
+    }
+
+    // whole seconds, rounded up so a client that waits exactly this long finds a token
+    static int retryAfterSeconds(long waitNanos) {
+        return (int) Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
     }
 
-    private void sendErrorResponse(HttpServletResponse response, int status,
-                                   String error, String message, String correlationId) throws IOException {
+    private void sendErrorResponse(HttpServletResponse response, int status, byte[] prefix,
+                                   String correlationId) throws IOException {
+        byte[] traceId = correlationId != null ? escape(correlationId) : MISSING_CORRELATION_ID;
+        int length = prefix.length + traceId.length + BODY_SUFFIX.length;
+
         response.setStatus(status);
         response.setContentType("application/json");
-        response.getWriter().write("""
-                {
-                  "error": "%s",
-                  "message": "%s",
-                  "traceId": "%s"
-                }
-                """.formatted(error, message, correlationId != null ? correlationId : "missing_correlationId"));
+        response.setContentLength(length);
+        ServletOutputStream out = response.getOutputStream();
+        out.write(prefix);
+        out.write(traceId);
+        out.write(BODY_SUFFIX);
+    }
+
+    private static byte[] escape(String value) {
+        return JsonStringEncoder.getInstance().quoteAsUTF8(value);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
     }
 }
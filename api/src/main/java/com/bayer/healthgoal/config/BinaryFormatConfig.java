@@ -0,0 +1,32 @@
+package com.bayer.healthgoal.config;
+
+import com.bayer.healthgoal.metrics.OperationMetrics;
+import com.bayer.healthgoal.metrics.TimedCborHttpMessageConverter;
+import com.bayer.healthgoal.metrics.TimedSmileHttpMessageConverter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * CBOR and Smile as alternatives to JSON for the goal payloads, chosen by {@code Accept} and {@code Content-Type}.
+ * Both mappers come from Boot's builder, so they carry the same modules and settings as the JSON one. The JSON
+ * converter stays ahead of both, so a client that does not ask for a binary format, and every error body, gets JSON.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    // the builder bean is a prototype; each injection point gets its own
+    @Bean
+    public TimedCborHttpMessageConverter timedCborHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                       OperationMetrics operationMetrics) {
+        return new TimedCborHttpMessageConverter(builder.factory(new CBORFactory()).build(), operationMetrics);
+    }
+
+    @Bean
+    public TimedSmileHttpMessageConverter timedSmileHttpMessageConverter(Jackson2ObjectMapperBuilder builder,
+                                                                         OperationMetrics operationMetrics) {
+        return new TimedSmileHttpMessageConverter(builder.factory(new SmileFactory()).build(), operationMetrics);
+    }
+}
@@ -0,0 +1,10 @@
+package com.bayer.healthgoal.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// enables spring.cache.* auto-configuration; cache metrics are bound to the actuator automatically
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
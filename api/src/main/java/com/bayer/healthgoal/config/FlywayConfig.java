@@ -0,0 +1,31 @@
+package com.bayer.healthgoal.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Objects;
+
+/**
+ * Runs the migrations on connections of their own, opened with {@code spring.datasource.url} but without the pool's
+ * {@code data-source-properties}. The pool's 60s {@code socketTimeout} bounds request queries; a
+ * {@code CREATE INDEX CONCURRENTLY} on a large table runs longer and would be cut off half-built. An explicit
+ * {@code spring.flyway.url} is left alone.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayConfigurationCustomizer flywayWithoutSocketTimeout(DataSourceProperties dataSource,
+                                                                    FlywayProperties flyway) {
+        return configuration -> {
+            if (flyway.getUrl() == null) {
+                configuration.dataSource(dataSource.determineUrl(),
+                        Objects.requireNonNullElse(flyway.getUser(), dataSource.determineUsername()),
+                        Objects.requireNonNullElse(flyway.getPassword(), dataSource.determinePassword()));
+            }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.bayer.healthgoal.config;
+
+import com.bayer.healthgoal.metrics.OperationMetrics;
+import com.bayer.healthgoal.metrics.TimedJackson2HttpMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// wires OperationMetrics into MVC, Spring Data repositories, JdbcTemplate and the JSON converter; it is also a
+// TransactionExecutionListener bean, which Boot adds to the transaction manager
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final OperationMetrics operationMetrics;
+
+    public MetricsConfig(OperationMetrics operationMetrics) {
+        this.operationMetrics = operationMetrics;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(operationMetrics);
+    }
+
+    @Bean
+    public TimedJackson2HttpMessageConverter timedJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJackson2HttpMessageConverter(objectMapper, operationMetrics);
+    }
+
+    // static and lazy so repositories can be post-processed without creating the meter registry early
+    @Bean
+    public static BeanPostProcessor operationMetricsDataAccessTiming(ObjectProvider<OperationMetrics> provider) {
+        SingletonSupplier<OperationMetrics> metrics = SingletonSupplier.of(provider::getObject);
+        MethodInterceptor timing = invocation -> metrics.obtain().timeDataAccess(invocation);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((repository, information) ->
+                                    repository.addAdvice(timing)));
+                }
+                return bean;
+            }
+
+            // progress, search, audit and outbox statements bypass Spring Data; a class proxy, since they
+            // inject JdbcTemplate rather than JdbcOperations
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JdbcTemplate) {
+                    ProxyFactory proxy = new ProxyFactory(bean);
+                    proxy.setProxyTargetClass(true);
+                    proxy.addAdvice(timing);
+                    return proxy.getProxy();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package com.bayer.healthgoal.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections to read replicas in turn, skipping replicas that are down or lagging, and falls back to the
+ * primary when none is usable. Used as the read-only target of the application's {@code DataSource}, so only
+ * read-only transactions get here.
+ * <p>
+ * A replica is taken out when a connection attempt fails, and a health check every
+ * {@code healthgoal.datasource.replica-check-interval} puts it back once it answers and, on PostgreSQL, its replay
+ * lag is within {@code healthgoal.datasource.replica-max-lag}.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    // zero while the replica has replayed everything it received, so an idle primary does not look like lag;
+    // null on a server that is not a standby
+    private static final String LAG_SQL = """
+            select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                        else extract(epoch from now() - pg_last_xact_replay_timestamp()) end""";
+
+    private final List<Replica> replicas;
+    private final DataSource primary;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaDataSource(List<? extends DataSource> replicas, DataSource primary, Duration maxLag) {
+        this.replicas = new ArrayList<>(replicas.size());
+        for (DataSource replica : replicas) {
+            this.replicas.add(new Replica(this.replicas.size(), replica));
+        }
+        this.primary = primary;
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(Connector connector) throws SQLException {
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return connector.connect(replica.dataSource);
+            } catch (SQLFeatureNotSupportedException e) {
+                // a pool that cannot switch credentials says nothing about the replica's health
+                throw e;
+            } catch (SQLException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+        return connector.connect(primary);
+    }
+
+    @Scheduled(fixedDelayString = "${healthgoal.datasource.replica-check-interval:5s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                Duration lag = lag(connection);
+                if (lag.compareTo(maxLag) > 0) {
+                    replica.markDown("replay lag " + lag);
+                } else if (!replica.healthy) {
+                    log.info("read replica {} is back", replica.index);
+                    replica.healthy = true;
+                }
+            } catch (SQLException e) {
+                replica.markDown(e.getMessage());
+            }
+        }
+    }
+
+    boolean isHealthy(int replica) {
+        return replicas.get(replica).healthy;
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static Duration lag(Connection connection) throws SQLException {
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return connection.isValid(1) ? Duration.ZERO : Duration.ofDays(1);
+        }
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(LAG_SQL)) {
+            rs.next();
+            return Duration.ofMillis((long) (rs.getDouble(1) * 1000));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+
+        private final int index;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(int index, DataSource dataSource) {
+            this.index = index;
+            this.dataSource = dataSource;
+        }
+
+        private void markDown(String reason) {
+            if (healthy) {
+                log.warn("read replica {} taken out, reads go to the others or the primary: {}", index, reason);
+                healthy = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.bayer.healthgoal.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * A client's API key. Only the hex SHA-256 of the key is stored; the key itself is handed to the client once.
+ */
+@Entity
+@Table(name = "api_keys")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ApiKeyEntity {
+
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    @Column(nullable = false, unique = true)
+    private String clientName;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String keyHash;
+
+    // sustained rate and how many requests may arrive at once on top of it
+    @Column(nullable = false)
+    private int requestsPerSecond;
+
+    @Column(nullable = false)
+    private int burst;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private boolean active = true;
+}
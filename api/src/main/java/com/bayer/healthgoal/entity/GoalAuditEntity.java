@@ -0,0 +1,44 @@
+package com.bayer.healthgoal.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One field changed by an update of a goal. Rows are inserted in batches by {@code GoalAuditWriter} with plain
+ * JDBC; the mapping creates the table and serves the audit history reads.
+ */
+@Entity
+@Table(name = "goal_audit", indexes = {
+        // one goal's history, newest first, keyset-paginated on id
+        @Index(name = "idx_goal_audit_goal_id_id", columnList = "goal_id, id")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class GoalAuditEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "goal_id", nullable = false)
+    private UUID goalId;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false, length = 16)
+    private String field;
+
+    private String oldValue;
+
+    private String newValue;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    private String correlationId;
+
+    private String requestId;
+}
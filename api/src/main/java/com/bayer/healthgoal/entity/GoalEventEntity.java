@@ -0,0 +1,56 @@
+package com.bayer.healthgoal.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Outbox row for one create, update or delete of a goal, inserted in the transaction that made the change.
+ */
+@Entity
+@Table(name = "goal_events", indexes = {
+        // serves both the change feed (feed_position > ?) and the relay's scan for unpublished events
+        // (feed_position is null, oldest first)
+        @Index(name = "idx_goal_events_feed_position_created_at", columnList = "feed_position, created_at")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class GoalEventEntity implements Persistable<UUID> {
+
+    @Id
+    private UUID id;
+
+    // assigned by GoalEventRelay when it publishes the event; null until then
+    @Column(name = "feed_position")
+    private Long feedPosition;
+
+    @Column(nullable = false)
+    private UUID goalId;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 16)
+    private Type type;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // the goal as the API returns it, as JSON; null for deletes
+    @Column(length = 4000)
+    private String payload;
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    // events are only ever inserted, so save() never needs to check whether one exists
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
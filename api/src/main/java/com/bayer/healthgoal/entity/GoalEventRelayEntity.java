@@ -0,0 +1,20 @@
+package com.bayer.healthgoal.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * The single row {@code GoalEventRelay} locks while it publishes, holding the last feed position handed out.
+ * Mapped only so that the schema is created with the others; it is read and written with SQL.
+ */
+@Entity
+@Table(name = "goal_event_relay")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class GoalEventRelayEntity {
+
+    @Id
+    private int id;
+
+    @Column(nullable = false)
+    private long lastPosition;
+}
@@ -0,0 +1,51 @@
+package com.bayer.healthgoal.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A goal moved out of {@code health_goals}, by the archive job or by a delete. Rows are inserted with
+ * {@code INSERT ... SELECT} from {@code health_goals} and never change; the mapping creates the table on H2 and serves
+ * {@code getHealthGoalById} for archived goals. On PostgreSQL the table is partitioned by month on
+ * {@code archived_at}.
+ */
+@Entity
+@Immutable
+@Table(name = "health_goals_archive")
+@Getter @NoArgsConstructor
+public class HealthGoalArchiveEntity {
+
+    @Id
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    private String title;
+    private String description;
+    private Integer target;
+    private String unit;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Enumerated(EnumType.STRING)
+    private HealthGoalEntity.Status status;
+
+    // the goal's version when it was archived; still served as the ETag
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private Instant statusChangedAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    // set for goals that were deleted; those are kept, but no longer served
+    private Instant deletedAt;
+}
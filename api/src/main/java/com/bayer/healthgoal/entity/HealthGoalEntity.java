@@ -2,22 +2,38 @@ package com.bayer.healthgoal.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.domain.Persistable;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.UUID;
 
 @Entity
-@Table(name = "health_goals")
+@Table(name = "health_goals", indexes = {
+        // composite indexes serve both the filter and the keyset order (id) of listHealthGoals
+        @Index(name = "idx_health_goals_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_health_goals_status_id", columnList = "status, id"),
+        @Index(name = "idx_health_goals_start_date", columnList = "start_date"),
+        // the expiry job reads the overdue ACTIVE goals in end_date order
+        @Index(name = "idx_health_goals_status_end_date", columnList = "status, end_date"),
+        // the archive job reads the terminal goals whose status changed before its cutoff
+        @Index(name = "idx_health_goals_status_status_changed_at", columnList = "status, status_changed_at")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
-public class HealthGoalEntity {
+public class HealthGoalEntity implements Persistable<UUID> {
 
+    // assigned by the application (or the client, for batch creates) so inserts can be JDBC-batched
     @Id
-    @GeneratedValue
     private UUID id;
 
+    // the foreign key is written and read as a plain column, so creating or mapping a goal never touches users
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
-    private UserEntity user;   // each goal belongs to one user
+    @JoinColumn(name = "user_id", insertable = false, updatable = false)
+    private UserEntity user;   // each goal belongs to one user; read-only, only for queries that need the join
 
     private String title;
     private String description;
@@ -29,6 +45,49 @@ public class HealthGoalEntity {
     @Enumerated(EnumType.STRING)
     private Status status;
 
-    public enum Status { ACTIVE, COMPLETED, CANCELLED }
+    // when the status last changed, stamped on insert and by setStatus; terminal goals are archived some time after it
+    @ColumnDefault("current_timestamp")
+    @Column(nullable = false)
+    private Instant statusChangedAt;
+
+    // optimistic lock; also served to clients as the ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // lets save() persist new goals with an assigned id instead of merging them (which would SELECT first)
+    @Transient
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean newEntity = true;
+
+    public enum Status { ACTIVE, COMPLETED, CANCELLED, EXPIRED }
+
+    public void setStatus(Status status) {
+        if (status != this.status) {
+            this.statusChangedAt = Instant.now();
+        }
+        this.status = status;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
+    @PrePersist
+    void stampStatusChange() {
+        if (statusChangedAt == null) {
+            statusChangedAt = Instant.now();
+        }
+    }
 }
 
@@ -0,0 +1,67 @@
+package com.bayer.healthgoal.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The response of a create made under an {@code Idempotency-Key}, inserted in the transaction that created the goal.
+ * The primary key is what lets only one of several concurrent creates with the same key commit. Keys are scoped to
+ * the API client that sent them, so clients that happen to pick the same key do not share goals.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        // the hourly cleanup deletes by age
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+@IdClass(IdempotencyKeyEntity.Key.class)
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class IdempotencyKeyEntity implements Persistable<IdempotencyKeyEntity.Key> {
+
+    // the name of the authenticated API client
+    @Id
+    @Column(name = "client_id", length = 255)
+    private String clientId;
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, hex; a retry must send the same body
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private UUID goalId;
+
+    @Column(nullable = false)
+    private long version;
+
+    // the goal as the API returned it, as JSON
+    @Column(nullable = false, length = 4000)
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Override
+    public Key getId() {
+        return new Key(clientId, idempotencyKey);
+    }
+
+    // keys are only ever inserted; a duplicate must fail on the primary key instead of being merged
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor @EqualsAndHashCode @ToString
+    public static class Key implements Serializable {
+        private String clientId;
+        private String idempotencyKey;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bayer.healthgoal.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.UUID;
+
+/**
+ * Number of goals a user has in each status. Only ever changed by relative updates in
+ * {@link com.bayer.healthgoal.repository.UserGoalSummaryRepository}, never saved through the entity.
+ */
+@Entity
+@Table(name = "user_goal_summary")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class UserGoalSummaryEntity {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(nullable = false)
+    private long active;
+
+    @Column(nullable = false)
+    private long completed;
+
+    @Column(nullable = false)
+    private long cancelled;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long expired;
+}
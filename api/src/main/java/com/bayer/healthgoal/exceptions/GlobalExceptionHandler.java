@@ -1,33 +1,60 @@
 package com.bayer.healthgoal.exceptions;
 
 import com.bayer.healthgoal.api.model.ErrorResponse;
+import com.bayer.healthgoal.config.ApiFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleUserNotFound(UserNotFoundException ex) {
-        return buildResponse(HttpStatus.NOT_FOUND, "user_not_found", ex.getMessage());
+        return buildResponse(ex, HttpStatus.NOT_FOUND, "user_not_found", ex.getMessage());
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleNotFound(ResourceNotFoundException ex) {
-        return buildResponse(HttpStatus.NOT_FOUND, "resource_not_found", ex.getMessage());
+        return buildResponse(ex, HttpStatus.NOT_FOUND, "resource_not_found", ex.getMessage());
     }
 
     @ExceptionHandler(InvalidRequestException.class)
     public ResponseEntity<ErrorResponse> handleInvalidRequest(InvalidRequestException ex) {
-        return buildResponse(HttpStatus.BAD_REQUEST, "invalid_request", ex.getMessage());
+        return buildResponse(ex, HttpStatus.BAD_REQUEST, "invalid_request", ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailed(PreconditionFailedException ex) {
+        return buildResponse(ex, HttpStatus.PRECONDITION_FAILED, "precondition_failed", ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return buildResponse(ex, HttpStatus.UNPROCESSABLE_ENTITY, "idempotency_key_reused", ex.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrentModification(OptimisticLockingFailureException ex) {
+        return buildResponse(ex, HttpStatus.CONFLICT, "conflict", "Health goal was modified concurrently, retry the request");
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -36,20 +63,48 @@ public class GlobalExceptionHandler {
                 .map(f -> f.getField() + " " + f.getDefaultMessage())
                 .findFirst()
                 .orElse("Validation failed");
-        return buildResponse(HttpStatus.BAD_REQUEST, "validation_error", message);
+        return buildResponse(ex, HttpStatus.BAD_REQUEST, "validation_error", message);
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return buildResponse(ex, HttpStatus.BAD_REQUEST, "invalid_request",
+                "Invalid value for parameter " + ex.getName());
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotAcquireLockException.class})
+    public ResponseEntity<ErrorResponse> handleDatabaseUnavailable(Exception ex) {
+        log.warn("database unavailable: {}", ex.getMessage());
+        return buildResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, "service_unavailable",
+                "Database is busy or unavailable, retry later");
+    }
+
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleQueryTimeout(QueryTimeoutException ex) {
+        log.warn("query timed out: {}", ex.getMessage());
+        return buildResponse(ex, HttpStatus.GATEWAY_TIMEOUT, "gateway_timeout", "Database query timed out");
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGeneric(Exception ex) {
         log.error("Unexpected error", ex);
-        return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, "internal_error", ex.getMessage());
+        return buildResponse(ex, HttpStatus.INTERNAL_SERVER_ERROR, "internal_error", ex.getMessage());
     }
 
-    private ResponseEntity<ErrorResponse> buildResponse(HttpStatus status, String code, String message) {
+    private ResponseEntity<ErrorResponse> buildResponse(Exception ex, HttpStatus status, String code, String message) {
+        // one counter per exception type and error code; the registry returns the existing counter after the first
+        meterRegistry.counter("healthgoal.exceptions",
+                "exception", ex.getClass().getSimpleName(), "code", code).increment();
         ErrorResponse error = new ErrorResponse();
         error.setError(code);
         error.setMessage(message);
-        error.setTraceId(UUID.randomUUID().toString()); // or use MDC if available
+        error.setTraceId(traceId());
         return ResponseEntity.status(status).body(error);
     }
+
+    // the caller's correlation id ties the error to its log lines; only requests without one get a fresh id
+    private static String traceId() {
+        String correlationId = MDC.get(ApiFilter.CORRELATION_ID);
+        return correlationId != null ? correlationId : UUID.randomUUID().toString();
+    }
 }
@@ -0,0 +1,8 @@
+package com.bayer.healthgoal.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+package com.bayer.healthgoal.export;
+
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+import com.bayer.healthgoal.mapper.HealthGoalMapper;
+import com.bayer.healthgoal.repository.HealthGoalRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Streams health goals as NDJSON straight from a database cursor, so heap use does not depend on the export size.
+ */
+@Slf4j
+@Component
+public class HealthGoalExporter {
+
+    private final HealthGoalRepository healthGoalRepository;
+    private final HealthGoalMapper healthGoalMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    public HealthGoalExporter(HealthGoalRepository healthGoalRepository,
+                              HealthGoalMapper healthGoalMapper,
+                              EntityManager entityManager,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${healthgoal.export.fetch-size:500}") int fetchSize) {
+        this.healthGoalRepository = healthGoalRepository;
+        this.healthGoalMapper = healthGoalMapper;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    public StreamingResponseBody export(Specification<HealthGoalEntity> filter) {
+        // the body is written on an async thread, so carry the request's MDC over
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return outputStream -> {
+            if (mdc != null) {
+                MDC.setContextMap(mdc);
+            }
+            try {
+                long written = readOnlyTransaction.execute(status -> write(filter, outputStream));
+                log.info("exported {} health goals", written);
+            } catch (UncheckedIOException e) {
+                log.warn("health goal export aborted: {}", e.getCause().getMessage());
+                throw e.getCause();
+            } finally {
+                MDC.clear();
+            }
+        };
+    }
+
+    private long write(Specification<HealthGoalEntity> filter, OutputStream outputStream) {
+        long written = 0;
+        try (Stream<HealthGoalEntity> rows = healthGoalRepository.streamAll(filter, fetchSize);
+             JsonGenerator generator = objectMapper.createGenerator(outputStream)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                     .setRootValueSeparator(null)) {
+            Iterator<HealthGoalEntity> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                HealthGoalEntity entity = iterator.next();
+                generator.writeObject(healthGoalMapper.toDto(entity));
+                generator.writeRaw('\n');
+                entityManager.detach(entity);
+
+                if (++written % fetchSize == 0) {
+                    // drops anything else the chunk pulled into the persistence context and pushes it to the client
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bayer.healthgoal.idempotency;
+
+import com.bayer.healthgoal.api.model.HealthGoal;
+
+/**
+ * A created goal as returned to the client, with the version its ETag is built from.
+ */
+public record CreatedGoal(HealthGoal goal, long version) {
+}
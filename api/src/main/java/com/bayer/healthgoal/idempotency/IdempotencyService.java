@@ -0,0 +1,188 @@
+package com.bayer.healthgoal.idempotency;
+
+import com.bayer.healthgoal.api.model.CreateHealthGoalRequest;
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.entity.IdempotencyKeyEntity;
+import com.bayer.healthgoal.exceptions.IdempotencyKeyReusedException;
+import com.bayer.healthgoal.exceptions.InvalidRequestException;
+import com.bayer.healthgoal.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Makes {@code createHealthGoal} safe to retry under an {@code Idempotency-Key}. Keys are scoped to the API
+ * client, so a key only ever replays a goal created by the same client.
+ * <p>
+ * The first request with a key creates the goal and inserts its response into {@code idempotency_keys} in the same
+ * transaction, so the key exists exactly when the goal does. Completed keys are also kept in a bounded Caffeine
+ * cache for {@code healthgoal.idempotency.ttl}; a retry found there is answered without touching the database.
+ * Requests with a key that is still being created on this instance wait for that create instead of racing it.
+ * Across instances the primary key lets only one transaction commit; the others roll back and return its response.
+ * A key sent again with a different request body is rejected.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transaction;
+    private final Duration ttl;
+    private final Cache<IdempotencyKeyEntity.Key, StoredCreate> completed;
+    private final Map<IdempotencyKeyEntity.Key, CompletableFuture<StoredCreate>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${healthgoal.idempotency.cache-size:10000}") long cacheSize,
+                              @Value("${healthgoal.idempotency.ttl:24h}") Duration ttl) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Runs {@code create} in a transaction, once per client and key. Without a key every call creates.
+     *
+     * @param client the name of the authenticated API client
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     */
+    public CreatedGoal createOnce(String client, String idempotencyKey, CreateHealthGoalRequest request,
+                                  Supplier<CreatedGoal> create) {
+        if (idempotencyKey == null) {
+            return transaction.execute(status -> create.get());
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        IdempotencyKeyEntity.Key key = new IdempotencyKeyEntity.Key(client, idempotencyKey);
+        String requestHash = hash(request);
+        while (true) {
+            StoredCreate stored = completed.getIfPresent(key);
+            if (stored != null) {
+                return replay(key, stored, requestHash);
+            }
+            CompletableFuture<StoredCreate> running = new CompletableFuture<>();
+            CompletableFuture<StoredCreate> first = inFlight.putIfAbsent(key, running);
+            if (first != null) {
+                try {
+                    return replay(key, first.join(), requestHash);
+                } catch (CompletionException e) {
+                    // the create we waited for failed and left nothing behind; this request gets its own attempt
+                    continue;
+                }
+            }
+            try {
+                stored = createOrLoad(key, requestHash, create);
+                completed.put(key, stored);
+                running.complete(stored);
+            } finally {
+                // a no-op after complete(); otherwise wakes the waiting requests so they can retry
+                running.completeExceptionally(new IllegalStateException("create for " + idempotencyKey + " failed"));
+                inFlight.remove(key, running);
+            }
+            return replay(key, stored, requestHash);
+        }
+    }
+
+    @Scheduled(cron = "${healthgoal.idempotency.cleanup-cron:0 45 * * * *}", zone = "UTC")
+    void deleteExpired() {
+        Integer deleted = transaction.execute(status ->
+                idempotencyKeyRepository.deleteCreatedBefore(Instant.now().minus(ttl)));
+        log.info("deleted {} idempotency keys older than {}", deleted, ttl);
+    }
+
+    private StoredCreate createOrLoad(IdempotencyKeyEntity.Key key, String requestHash, Supplier<CreatedGoal> create) {
+        try {
+            // the lookup covers keys completed on another instance or evicted from the cache
+            return transaction.execute(status -> idempotencyKeyRepository.findById(key)
+                    .map(this::toStored)
+                    .orElseGet(() -> {
+                        CreatedGoal created = create.get();
+                        idempotencyKeyRepository.save(IdempotencyKeyEntity.builder()
+                                .clientId(key.getClientId())
+                                .idempotencyKey(key.getIdempotencyKey())
+                                .requestHash(requestHash)
+                                .goalId(created.goal().getId())
+                                .version(created.version())
+                                .response(toJson(created.goal()))
+                                .createdAt(Instant.now())
+                                .build());
+                        return new StoredCreate(requestHash, created);
+                    }));
+        } catch (DataIntegrityViolationException e) {
+            // another instance committed the same key first and our goal was rolled back with our key
+            return transaction.execute(status -> idempotencyKeyRepository.findById(key))
+                    .map(this::toStored)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private static CreatedGoal replay(IdempotencyKeyEntity.Key key, StoredCreate stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key " + key.getIdempotencyKey()
+                    + " was used for a different request");
+        }
+        return stored.created();
+    }
+
+    private StoredCreate toStored(IdempotencyKeyEntity entity) {
+        try {
+            HealthGoal goal = objectMapper.readValue(entity.getResponse(), HealthGoal.class);
+            return new StoredCreate(entity.getRequestHash(), new CreatedGoal(goal, entity.getVersion()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toJson(HealthGoal goal) {
+        try {
+            return objectMapper.writeValueAsString(goal);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // the generated model serializes its fields in a fixed order, so equal requests hash equally
+    private String hash(CreateHealthGoalRequest request) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record StoredCreate(String requestHash, CreatedGoal created) {
+    }
+}
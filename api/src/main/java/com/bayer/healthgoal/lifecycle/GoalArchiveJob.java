@@ -0,0 +1,185 @@
+package com.bayer.healthgoal.lifecycle;
+
+import com.bayer.healthgoal.cache.HealthGoalCache;
+import com.bayer.healthgoal.repository.HealthGoalArchiveRepository;
+import com.bayer.healthgoal.repository.HealthGoalRepository;
+import com.bayer.healthgoal.summary.GoalSummaryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Moves COMPLETED, CANCELLED and EXPIRED goals whose status changed more than {@code healthgoal.archive.min-age} ago
+ * from {@code health_goals} to {@code health_goals_archive}, in batches of {@code healthgoal.archive.batch-size}
+ * goals with one transaction each and a {@code healthgoal.archive.pause} between them, so API requests keep most of
+ * the database while a large backlog is moved. Expired goals age from when {@link GoalExpiryJob} expired them.
+ * <p>
+ * Like {@link GoalExpiryJob}, a batch locks its goals with {@code FOR UPDATE SKIP LOCKED}, so instances and API
+ * requests never wait on each other. Archived goals keep their place in the summary counts and are served, read-only,
+ * by {@code getHealthGoalById}. They did not change, so no change-feed event is written, but cached copies are
+ * marked archived after commit so they stop accepting progress.
+ * <p>
+ * On PostgreSQL the archive is partitioned by month on {@code archived_at}. At startup and every day the job creates
+ * the partitions for this month and the next, which deletes also write to.
+ */
+@Slf4j
+@Component
+// the schema is migrated (or, on H2, created by Hibernate) before the entity manager factory is built
+@DependsOn("entityManagerFactory")
+public class GoalArchiveJob {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final HealthGoalRepository healthGoalRepository;
+    private final HealthGoalArchiveRepository healthGoalArchiveRepository;
+    private final GoalSummaryService goalSummaryService;
+    private final HealthGoalCache healthGoalCache;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Duration pause;
+    private final Duration maxRunTime;
+    private final Counter archived;
+    private final Timer batches;
+    private boolean partitioned;
+
+    public GoalArchiveJob(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          HealthGoalRepository healthGoalRepository,
+                          HealthGoalArchiveRepository healthGoalArchiveRepository,
+                          GoalSummaryService goalSummaryService,
+                          HealthGoalCache healthGoalCache,
+                          MeterRegistry meterRegistry,
+                          @Value("${healthgoal.archive.min-age:90d}") Duration minAge,
+                          @Value("${healthgoal.archive.batch-size:500}") int batchSize,
+                          @Value("${healthgoal.archive.pause:200ms}") Duration pause,
+                          @Value("${healthgoal.archive.max-run-time:30m}") Duration maxRunTime) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.healthGoalRepository = healthGoalRepository;
+        this.healthGoalArchiveRepository = healthGoalArchiveRepository;
+        this.goalSummaryService = goalSummaryService;
+        this.healthGoalCache = healthGoalCache;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.maxRunTime = maxRunTime;
+        this.archived = Counter.builder("healthgoal.archive.archived")
+                .description("Terminal goals moved to the archive by the archive job")
+                .register(meterRegistry);
+        this.batches = Timer.builder("healthgoal.archive.batch")
+                .description("Time to lock, copy, delete and commit one batch of archived goals")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void detectDatabase() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        partitioned = "PostgreSQL".equals(database);
+        createPartitions();
+    }
+
+    @Scheduled(cron = "${healthgoal.archive.maintenance-cron:0 10 0 * * *}", zone = "UTC")
+    void createPartitions() {
+        if (!partitioned) {
+            return;
+        }
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        for (YearMonth partition : new YearMonth[]{month, month.plusMonths(1)}) {
+            try {
+                jdbcTemplate.execute(partitionDdl(partition));
+            } catch (DataAccessException e) {
+                // two instances racing on the same partition; whichever lost finds it there on the next run
+                log.warn("could not create archive partition for {}: {}", partition, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Archives terminal goals until none are old enough, or for at most {@code healthgoal.archive.max-run-time};
+     * the next run picks up the rest.
+     *
+     * @return the number of goals this run archived
+     */
+    @Scheduled(cron = "${healthgoal.archive.cron:0 30 2 * * *}", zone = "UTC")
+    public int archiveTerminalGoals() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(minAge));
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        int total = 0;
+        int count;
+        while (true) {
+            count = batches.record(() -> transaction.execute(status -> archiveBatch(cutoff)));
+            total += count;
+            if (count < batchSize || System.nanoTime() >= deadline || !pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("archived {} health goals", total);
+        }
+        return total;
+    }
+
+    private int archiveBatch(Timestamp cutoff) {
+        Map<UUID, UUID> owners = new HashMap<>();
+        Map<UUID, Long> versions = new HashMap<>();
+        jdbcTemplate.query("select id, user_id, version from health_goals"
+                        + " where status in ('COMPLETED', 'CANCELLED', 'EXPIRED') and status_changed_at < ?"
+                        + " limit ? for update skip locked",
+                rs -> {
+                    UUID id = rs.getObject("id", UUID.class);
+                    owners.put(id, rs.getObject("user_id", UUID.class));
+                    versions.put(id, rs.getLong("version"));
+                }, cutoff, batchSize);
+        if (owners.isEmpty()) {
+            return 0;
+        }
+        goalSummaryService.countBeforeArchiving(owners.values());
+        // the rows are locked, so the copies match what is deleted
+        healthGoalArchiveRepository.archive(owners.keySet(), Instant.now());
+        healthGoalRepository.deleteAllByIdInBatch(owners.keySet());
+        versions.forEach(healthGoalCache::evictArchived);
+        archived.increment(owners.size());
+        return owners.size();
+    }
+
+    // false if the run should stop
+    private boolean pause() {
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    static String partitionDdl(YearMonth month) {
+        return "create table if not exists health_goals_archive_" + PARTITION_SUFFIX.format(month)
+                + " partition of health_goals_archive for values from ('" + month.atDay(1) + " 00:00:00+00') to ('"
+                + month.plusMonths(1).atDay(1) + " 00:00:00+00')";
+    }
+}
@@ -0,0 +1,163 @@
+package com.bayer.healthgoal.lifecycle;
+
+import com.bayer.healthgoal.audit.GoalAuditTrail;
+import com.bayer.healthgoal.cache.HealthGoalCache;
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+import com.bayer.healthgoal.mapper.HealthGoalMapper;
+import com.bayer.healthgoal.outbox.GoalEventOutbox;
+import com.bayer.healthgoal.summary.GoalCountChanges;
+import com.bayer.healthgoal.summary.GoalSummaryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves ACTIVE goals whose {@code endDate} has passed (in UTC) to EXPIRED, in chunks of
+ * {@code healthgoal.lifecycle.chunk-size} goals with one transaction each.
+ * <p>
+ * A chunk locks the next overdue goals with {@code FOR UPDATE SKIP LOCKED}, read in end date order through
+ * {@code idx_health_goals_status_end_date}, and expires them with a single {@code UPDATE}. Every instance runs the
+ * job; concurrent runs skip each other's chunks, and goals an API request is changing, instead of waiting on them.
+ * Each expired goal gets the same summary change, audit entries, cache eviction and outbox event as an update
+ * through the API.
+ */
+@Slf4j
+@Component
+// the schema is migrated (or, on H2, created by Hibernate) before the entity manager factory is built
+@DependsOn("entityManagerFactory")
+public class GoalExpiryJob {
+
+    private static final RowMapper<HealthGoalEntity> GOAL = (rs, row) -> HealthGoalEntity.builder()
+            .id(rs.getObject("id", UUID.class))
+            .userId(rs.getObject("user_id", UUID.class))
+            .title(rs.getString("title"))
+            .description(rs.getString("description"))
+            .target(rs.getObject("target", Integer.class))
+            .unit(rs.getString("unit"))
+            .startDate(rs.getObject("start_date", LocalDate.class))
+            .endDate(rs.getObject("end_date", LocalDate.class))
+            .status(HealthGoalEntity.Status.valueOf(rs.getString("status")))
+            .version(rs.getLong("version"))
+            .newEntity(false)
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final GoalSummaryService goalSummaryService;
+    private final GoalAuditTrail goalAuditTrail;
+    private final GoalEventOutbox goalEventOutbox;
+    private final HealthGoalCache healthGoalCache;
+    private final HealthGoalMapper healthGoalMapper;
+    private final int chunkSize;
+    private final Duration maxRunTime;
+    private final Counter expired;
+    private final Timer chunks;
+    private final AtomicLong overdue = new AtomicLong();
+
+    public GoalExpiryJob(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         GoalSummaryService goalSummaryService,
+                         GoalAuditTrail goalAuditTrail,
+                         GoalEventOutbox goalEventOutbox,
+                         HealthGoalCache healthGoalCache,
+                         HealthGoalMapper healthGoalMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${healthgoal.lifecycle.chunk-size:500}") int chunkSize,
+                         @Value("${healthgoal.lifecycle.max-run-time:5m}") Duration maxRunTime) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.goalSummaryService = goalSummaryService;
+        this.goalAuditTrail = goalAuditTrail;
+        this.goalEventOutbox = goalEventOutbox;
+        this.healthGoalCache = healthGoalCache;
+        this.healthGoalMapper = healthGoalMapper;
+        this.chunkSize = chunkSize;
+        this.maxRunTime = maxRunTime;
+        this.expired = Counter.builder("healthgoal.lifecycle.expired")
+                .description("Goals moved from ACTIVE to EXPIRED by the expiry job")
+                .register(meterRegistry);
+        this.chunks = Timer.builder("healthgoal.lifecycle.chunk")
+                .description("Time to lock, expire and commit one chunk of overdue goals")
+                .register(meterRegistry);
+        Gauge.builder("healthgoal.lifecycle.overdue", overdue, AtomicLong::get)
+                .description("Overdue ACTIVE goals left when this instance last counted them")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Expires overdue goals until none are left, or for at most {@code healthgoal.lifecycle.max-run-time}; the
+     * next run picks up the rest.
+     *
+     * @return the number of goals this run expired
+     */
+    @Scheduled(cron = "${healthgoal.lifecycle.expiry-cron:0 */15 * * * *}", zone = "UTC")
+    public int expireOverdueGoals() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        overdue.set(countOverdue(today));
+        int total = 0;
+        int count;
+        do {
+            count = chunks.record(() -> transaction.execute(status -> expireChunk(today)));
+            total += count;
+            overdue.addAndGet(-count);
+        } while (count == chunkSize && System.nanoTime() < deadline);
+        if (total > 0) {
+            // goals locked by other instances or requests were not counted down; recount what is really left
+            overdue.set(countOverdue(today));
+            log.info("expired {} health goals | overdue={}", total, overdue.get());
+        }
+        return total;
+    }
+
+    private long countOverdue(LocalDate today) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from health_goals where status = 'ACTIVE' and end_date < ?", Long.class, today);
+    }
+
+    private int expireChunk(LocalDate today) {
+        List<HealthGoalEntity> goals = jdbcTemplate.query(
+                "select id, user_id, title, description, target, unit, start_date, end_date, status, version "
+                        + "from health_goals where status = 'ACTIVE' and end_date < ? "
+                        + "order by end_date limit ? for update skip locked", GOAL, today, chunkSize);
+        if (goals.isEmpty()) {
+            return 0;
+        }
+        // one statement for the chunk; the rows are locked, so they are still ACTIVE at the versions read
+        jdbcTemplate.update("update health_goals set status = 'EXPIRED', status_changed_at = current_timestamp,"
+                        + " version = version + 1 where id = any(?)",
+                (Object) goals.stream().map(HealthGoalEntity::getId).toArray(UUID[]::new));
+
+        GoalCountChanges changes = new GoalCountChanges();
+        for (HealthGoalEntity goal : goals) {
+            GoalAuditTrail.Snapshot before = GoalAuditTrail.snapshot(goal);
+            goal.setStatus(HealthGoalEntity.Status.EXPIRED);
+            goal.setVersion(goal.getVersion() + 1);
+            changes.moved(goal.getUserId(), before.status(), goal.getStatus());
+            // no request, so no correlation or request id
+            goalAuditTrail.updated(before, goal, null, null);
+            healthGoalCache.evict(goal.getId(), goal.getVersion());
+            goalEventOutbox.updated(goal, healthGoalMapper.toDto(goal));
+        }
+        goalSummaryService.apply(changes);
+        expired.increment(goals.size());
+        return goals.size();
+    }
+}
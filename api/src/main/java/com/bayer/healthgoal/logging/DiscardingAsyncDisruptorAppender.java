@@ -0,0 +1,56 @@
+package com.bayer.healthgoal.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import net.logstash.logback.appender.LoggingEventAsyncDisruptorAppender;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Disruptor ring buffer in front of the JSON appender, with logback's {@code AsyncAppender} discard policy on top:
+ * once fewer than {@code discardingThreshold} slots are free, INFO, DEBUG and TRACE events are dropped so the
+ * remaining space is kept for WARN and ERROR. Those wait up to {@code appendTimeout} for a slot and are dropped after
+ * that, so a stalled console holds a request up for at most that timeout.
+ */
+public class DiscardingAsyncDisruptorAppender extends LoggingEventAsyncDisruptorAppender {
+
+    private int discardingThreshold = -1;
+    private final AtomicLong discarded = new AtomicLong();
+
+    @Override
+    public void start() {
+        if (discardingThreshold < 0) {
+            discardingThreshold = getRingBufferSize() / 5;
+        }
+        super.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (event.getLevel().levelInt <= Level.INFO_INT
+                && getDisruptor().getRingBuffer().remainingCapacity() < discardingThreshold) {
+            long count = discarded.incrementAndGet();
+            if (count == 1 || count % getDroppedWarnFrequency() == 0) {
+                addWarn("Ring buffer nearly full, discarded " + count + " INFO and lower events so far");
+            }
+            return;
+        }
+        super.append(event);
+    }
+
+    public long getDiscardedCount() {
+        return discarded.get();
+    }
+
+    public int getDiscardingThreshold() {
+        return discardingThreshold;
+    }
+
+    /**
+     * @param discardingThreshold free slots below which INFO and lower are discarded; defaults to a fifth of the
+     *                            ring buffer, {@code 0} never discards by level
+     */
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+}
@@ -0,0 +1,44 @@
+package com.bayer.healthgoal.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps one in {@code sampleEvery} INFO and DEBUG statements logged with the {@link #SAMPLED} marker and drops the
+ * rest before an event is even created. WARN and ERROR always pass, as does everything without the marker.
+ * <p>
+ * Sampling is random rather than every n-th call, so request threads do not contend on a shared counter.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+    private int sampleEvery = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        // runs for every log statement in the application, so the common case has to be one comparison
+        if (marker != SAMPLED || sampleEvery <= 1 || level.levelInt >= Level.WARN_INT) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(sampleEvery) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    /**
+     * @param sampleEvery {@code 1} or less keeps every statement
+     */
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+}
@@ -1,12 +1,14 @@
 package com.bayer.healthgoal.mapper;
 
 import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.entity.HealthGoalArchiveEntity;
 import com.bayer.healthgoal.entity.HealthGoalEntity;
-import org.mapstruct.*;
+import org.mapstruct.Mapper;
 
 @Mapper(componentModel = "spring")
 public interface HealthGoalMapper {
 
-    @Mapping(target = "userId", source = "user.id")
     HealthGoal toDto(HealthGoalEntity entity);
+
+    HealthGoal toDto(HealthGoalArchiveEntity entity);
 }
\ No newline at end of file
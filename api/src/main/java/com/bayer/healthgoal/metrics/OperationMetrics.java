@@ -0,0 +1,219 @@
+package com.bayer.healthgoal.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Times every {@code HealthGoalsApiDelegate} operation and splits it into phases.
+ * <p>
+ * {@code healthgoal.operation} (tags {@code operation}, {@code outcome}) covers the handler from dispatch until the
+ * response is written. {@code healthgoal.operation.phase} (tags {@code operation}, {@code phase}) records, per
+ * request, the time spent in Spring Data repository and {@code JdbcTemplate} calls plus the commit
+ * ({@code repository}), in entity to DTO mapping ({@code mapper}) and in writing the JSON body
+ * ({@code serialization}). The operation is the generated controller method, which is named after the operationId.
+ * <p>
+ * Phase times are summed into a per-thread holder, so the hot path is a few {@code nanoTime} calls and field adds;
+ * meters are looked up once per operation and then reused.
+ */
+@Component
+public class OperationMetrics implements HandlerInterceptor, TransactionExecutionListener {
+
+    private static final ThreadLocal<RequestTimes> CURRENT = new ThreadLocal<>();
+
+    // fixed buckets instead of publishPercentileHistogram: ~70 generated buckets cost a longer search on every
+    // record and a much larger scrape, and these sixteen cover what the operations actually take
+    private static final Duration[] BUCKETS = Stream.of(
+                    "100us", "250us", "500us", "1ms", "2500us", "5ms", "10ms", "25ms", "50ms", "100ms", "250ms",
+                    "500ms", "1s", "2500ms", "5s", "10s")
+            .map(DurationStyle::detectAndParse)
+            .toArray(Duration[]::new);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OperationTimers> timersByOperation = new ConcurrentHashMap<>();
+
+    public OperationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            CURRENT.set(new RequestTimes(timers(handlerMethod.getMethod().getName()), System.nanoTime()));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        RequestTimes times = CURRENT.get();
+        if (times == null) {
+            return;
+        }
+        // set(null) rather than remove(): the entry stays for the next request on this thread instead of
+        // being cleared and re-created each time
+        CURRENT.set(null);
+        OperationTimers timers = times.timers;
+        timers.total(Outcome.forStatus(response.getStatus()))
+                .record(System.nanoTime() - times.startedNanos, TimeUnit.NANOSECONDS);
+        record(timers.repository, times.repositoryNanos);
+        record(timers.mapper, times.mapperNanos);
+        record(timers.serialization, times.serializationNanos);
+    }
+
+    /**
+     * Times a repository or {@code JdbcTemplate} call as repository time. Only the outermost call counts, so the
+     * statements a repository fragment runs through {@code JdbcTemplate} are not added a second time.
+     */
+    public Object timeDataAccess(MethodInvocation invocation) throws Throwable {
+        RequestTimes times = CURRENT.get();
+        if (times == null || times.inDataAccess) {
+            return invocation.proceed();
+        }
+        times.inDataAccess = true;
+        long started = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            times.repositoryNanos += System.nanoTime() - started;
+            times.inDataAccess = false;
+        }
+    }
+
+    @Override
+    public void beforeCommit(TransactionExecution transaction) {
+        RequestTimes times = CURRENT.get();
+        if (times != null) {
+            times.commitStartedNanos = System.nanoTime();
+        }
+    }
+
+    // inserts and batched updates are flushed here, so the commit is counted as repository time
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        RequestTimes times = CURRENT.get();
+        if (times != null && times.commitStartedNanos != 0) {
+            times.repositoryNanos += System.nanoTime() - times.commitStartedNanos;
+            times.commitStartedNanos = 0;
+        }
+    }
+
+    public <T> T timeMapping(Supplier<T> mapping) {
+        RequestTimes times = CURRENT.get();
+        if (times == null) {
+            return mapping.get();
+        }
+        long started = System.nanoTime();
+        try {
+            return mapping.get();
+        } finally {
+            times.mapperNanos += System.nanoTime() - started;
+        }
+    }
+
+    public void timeMapping(Runnable mapping) {
+        timeMapping(() -> {
+            mapping.run();
+            return null;
+        });
+    }
+
+    public void addSerializationTime(long nanos) {
+        RequestTimes times = CURRENT.get();
+        if (times != null) {
+            times.serializationNanos += nanos;
+        }
+    }
+
+    private OperationTimers timers(String operation) {
+        OperationTimers timers = timersByOperation.get(operation);
+        return timers != null ? timers : timersByOperation.computeIfAbsent(operation, this::register);
+    }
+
+    private OperationTimers register(String operation) {
+        return new OperationTimers(operation, phase(operation, "repository"), phase(operation, "mapper"),
+                phase(operation, "serialization"));
+    }
+
+    private Timer phase(String operation, String phase) {
+        return Timer.builder("healthgoal.operation.phase")
+                .description("Time per request spent in one phase of an API operation")
+                .tag("operation", operation)
+                .tag("phase", phase)
+                .serviceLevelObjectives(BUCKETS)
+                .register(meterRegistry);
+    }
+
+    // a phase the request never entered (no body, no mapping) is not recorded as a zero
+    private static void record(Timer timer, long nanos) {
+        if (nanos > 0) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private final class OperationTimers {
+
+        private final String operation;
+        private final Timer repository;
+        private final Timer mapper;
+        private final Timer serialization;
+        // one per outcome, registered the first time that outcome occurs
+        private final AtomicReferenceArray<Timer> total = new AtomicReferenceArray<>(Outcome.values().length);
+
+        private OperationTimers(String operation, Timer repository, Timer mapper, Timer serialization) {
+            this.operation = operation;
+            this.repository = repository;
+            this.mapper = mapper;
+            this.serialization = serialization;
+        }
+
+        private Timer total(Outcome outcome) {
+            Timer timer = total.get(outcome.ordinal());
+            if (timer == null) {
+                // a racing request registers the same meter, the registry hands both the same instance
+                timer = Timer.builder("healthgoal.operation")
+                        .description("Handler time per API operation, until the response body is written")
+                        .tag("operation", operation)
+                        .tag("outcome", outcome.name())
+                        .serviceLevelObjectives(BUCKETS)
+                        .register(meterRegistry);
+                total.set(outcome.ordinal(), timer);
+            }
+            return timer;
+        }
+    }
+
+    private static final class RequestTimes {
+
+        private final OperationTimers timers;
+        private final long startedNanos;
+        private long repositoryNanos;
+        private long mapperNanos;
+        private long serializationNanos;
+        private long commitStartedNanos;
+        private boolean inDataAccess;
+
+        private RequestTimes(OperationTimers timers, long startedNanos) {
+            this.timers = timers;
+            this.startedNanos = startedNanos;
+        }
+    }
+}
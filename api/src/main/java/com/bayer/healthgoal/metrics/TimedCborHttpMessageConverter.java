@@ -0,0 +1,35 @@
+package com.bayer.healthgoal.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * The CBOR counterpart of {@link TimedJackson2HttpMessageConverter}. Being a
+ * {@link MappingJackson2CborHttpMessageConverter}, it replaces the default one and keeps its place after the JSON
+ * converter.
+ */
+public class TimedCborHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+    private final OperationMetrics operationMetrics;
+
+    public TimedCborHttpMessageConverter(ObjectMapper objectMapper, OperationMetrics operationMetrics) {
+        super(objectMapper);
+        this.operationMetrics = operationMetrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long started = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            operationMetrics.addSerializationTime(System.nanoTime() - started);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.bayer.healthgoal.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Boot's JSON converter with the time spent writing each response body reported as the serialization phase.
+ * Being a {@link MappingJackson2HttpMessageConverter}, it replaces the default one rather than adding a second.
+ */
+public class TimedJackson2HttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final OperationMetrics operationMetrics;
+
+    public TimedJackson2HttpMessageConverter(ObjectMapper objectMapper, OperationMetrics operationMetrics) {
+        super(objectMapper);
+        this.operationMetrics = operationMetrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        long started = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            operationMetrics.addSerializationTime(System.nanoTime() - started);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.bayer.healthgoal.outbox;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends each batch to a local NDJSON file, one change per line in the shape of the change feed, and forces it to
+ * disk before the batch is marked published. Enabled with {@code healthgoal.outbox.sink=file}.
+ */
+@Component
+@ConditionalOnProperty(name = "healthgoal.outbox.sink", havingValue = "file")
+public class FileGoalEventSink implements GoalEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    public FileGoalEventSink(ObjectMapper objectMapper,
+                             @Value("${healthgoal.outbox.file:goal-events.ndjson}") Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    @Override
+    public void publish(List<GoalEvent> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 512);
+        try (JsonGenerator generator = objectMapper.createGenerator(lines)) {
+            generator.setRootValueSeparator(null);
+            for (GoalEvent event : events) {
+                generator.writeStartObject();
+                generator.writeNumberField("position", event.position());
+                generator.writeStringField("type", event.type());
+                generator.writeStringField("goalId", event.goalId().toString());
+                generator.writeStringField("userId", event.userId().toString());
+                generator.writeNumberField("version", event.version());
+                generator.writeStringField("occurredAt", event.occurredAt().toString());
+                if (event.payload() != null) {
+                    // stored as the API's JSON already, so it is copied rather than parsed and rewritten
+                    generator.writeFieldName("goal");
+                    generator.writeRawValue(event.payload());
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.bayer.healthgoal.outbox;
+
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.api.model.HealthGoalChange;
+import com.bayer.healthgoal.api.model.HealthGoalChanges;
+import com.bayer.healthgoal.entity.GoalEventEntity;
+import com.bayer.healthgoal.repository.GoalEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Serves published outbox rows by feed position.
+ */
+@Service
+@RequiredArgsConstructor
+public class GoalChangeFeed {
+
+    private final GoalEventRepository goalEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public HealthGoalChanges changesAfter(long after, int limit) {
+        List<HealthGoalChange> changes = goalEventRepository
+                .findByFeedPositionGreaterThanOrderByFeedPosition(after, Limit.of(limit)).stream()
+                .map(this::toChange)
+                .toList();
+        long next = changes.isEmpty() ? after : changes.get(changes.size() - 1).getPosition();
+        return new HealthGoalChanges(changes, next);
+    }
+
+    private HealthGoalChange toChange(GoalEventEntity event) {
+        return new HealthGoalChange(event.getFeedPosition(),
+                HealthGoalChange.TypeEnum.fromValue(event.getType().name()),
+                event.getGoalId(), event.getUserId(), event.getVersion(), Date.from(event.getCreatedAt()))
+                .goal(event.getPayload() == null ? null : toGoal(event.getPayload()));
+    }
+
+    private HealthGoal toGoal(String payload) {
+        try {
+            return objectMapper.readValue(payload, HealthGoal.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.bayer.healthgoal.outbox;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A published goal change as handed to a {@link GoalEventSink}; {@code payload} is the goal's JSON, null for
+ * deletes.
+ */
+public record GoalEvent(long position, UUID id, UUID goalId, UUID userId, String type, long version,
+                        Instant occurredAt, String payload) {
+}
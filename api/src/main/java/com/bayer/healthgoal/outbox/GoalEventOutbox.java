@@ -0,0 +1,61 @@
+package com.bayer.healthgoal.outbox;
+
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.entity.GoalEventEntity;
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+import com.bayer.healthgoal.repository.GoalEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Records goal changes as outbox rows in the caller's transaction, so an event exists exactly when its change
+ * committed. The rows are inserted with the rest of the flush, in the same JDBC batch as each other.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class GoalEventOutbox {
+
+    private final GoalEventRepository goalEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public void created(HealthGoalEntity goal, HealthGoal dto) {
+        append(GoalEventEntity.Type.CREATED, goal, dto);
+    }
+
+    public void updated(HealthGoalEntity goal, HealthGoal dto) {
+        append(GoalEventEntity.Type.UPDATED, goal, dto);
+    }
+
+    public void deleted(HealthGoalEntity goal) {
+        append(GoalEventEntity.Type.DELETED, goal, null);
+    }
+
+    private void append(GoalEventEntity.Type type, HealthGoalEntity goal, HealthGoal dto) {
+        goalEventRepository.save(GoalEventEntity.builder()
+                .id(UUID.randomUUID())
+                .goalId(goal.getId())
+                .userId(goal.getUserId())
+                .type(type)
+                .version(goal.getVersion())
+                .createdAt(Instant.now())
+                .payload(dto == null ? null : toJson(dto))
+                .build());
+    }
+
+    private String toJson(HealthGoal dto) {
+        try {
+            return objectMapper.writeValueAsString(dto);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.bayer.healthgoal.outbox;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Publishes committed outbox rows in batches: each batch gets the next feed positions, goes to every
+ * {@link GoalEventSink} and is marked published, all in one transaction.
+ * <p>
+ * Only one instance relays at a time. A run starts by locking the {@code goal_event_relay} row with
+ * {@code SKIP LOCKED}, so other instances return at once instead of queueing. Because batches are published one
+ * after another, positions are handed out and committed in order and the feed never shows a gap that a slower
+ * transaction fills later.
+ */
+@Slf4j
+@Component
+// the schema is migrated (or, on H2, created by Hibernate) before the entity manager factory is built
+@DependsOn("entityManagerFactory")
+public class GoalEventRelay {
+
+    private static final RowMapper<GoalEvent> PENDING = (rs, row) -> new GoalEvent(0,
+            rs.getObject("id", UUID.class),
+            rs.getObject("goal_id", UUID.class),
+            rs.getObject("user_id", UUID.class),
+            rs.getString("event_type"),
+            rs.getLong("version"),
+            rs.getTimestamp("created_at").toInstant(),
+            rs.getString("payload"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final List<GoalEventSink> sinks;
+    private final int batchSize;
+    private final Duration retention;
+
+    public GoalEventRelay(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          List<GoalEventSink> sinks,
+                          @Value("${healthgoal.outbox.batch-size:500}") int batchSize,
+                          @Value("${healthgoal.outbox.retention:7d}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.sinks = sinks;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    void createRelayRow() {
+        jdbcTemplate.update("insert into goal_event_relay (id, last_position) values (1, 0) on conflict do nothing");
+    }
+
+    /**
+     * Publishes batches until the outbox is drained or another instance holds the relay.
+     *
+     * @return the number of events published
+     */
+    @Scheduled(fixedDelayString = "${healthgoal.outbox.relay-interval:500ms}")
+    public int relay() {
+        int total = 0;
+        int published;
+        do {
+            published = transaction.execute(status -> publishBatch());
+            total += published;
+        } while (published == batchSize);
+        if (total > 0) {
+            log.debug("published {} goal events", total);
+        }
+        return total;
+    }
+
+    @Scheduled(cron = "${healthgoal.outbox.cleanup-cron:0 15 * * * *}", zone = "UTC")
+    void deleteExpired() {
+        int deleted = jdbcTemplate.update(
+                "delete from goal_events where feed_position is not null and created_at < ?",
+                Timestamp.from(Instant.now().minus(retention)));
+        log.info("deleted {} goal events older than {}", deleted, retention);
+    }
+
+    private int publishBatch() {
+        List<Long> locked = jdbcTemplate.queryForList(
+                "select last_position from goal_event_relay where id = 1 for update skip locked", Long.class);
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        long position = locked.get(0);
+        List<GoalEvent> pending = jdbcTemplate.query(
+                "select id, goal_id, user_id, event_type, version, created_at, payload from goal_events "
+                        + "where feed_position is null order by created_at limit ?", PENDING, batchSize);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        List<GoalEvent> events = new ArrayList<>(pending.size());
+        for (GoalEvent event : pending) {
+            events.add(new GoalEvent(++position, event.id(), event.goalId(), event.userId(), event.type(),
+                    event.version(), event.occurredAt(), event.payload()));
+        }
+        for (GoalEventSink sink : sinks) {
+            try {
+                sink.publish(events);
+            } catch (Exception e) {
+                throw new IllegalStateException("goal event sink " + sink.getClass().getSimpleName() + " failed", e);
+            }
+        }
+        jdbcTemplate.batchUpdate("update goal_events set feed_position = ? where id = ?", events, events.size(),
+                (statement, event) -> {
+                    statement.setLong(1, event.position());
+                    statement.setObject(2, event.id());
+                });
+        jdbcTemplate.update("update goal_event_relay set last_position = ? where id = 1", position);
+        return events.size();
+    }
+}
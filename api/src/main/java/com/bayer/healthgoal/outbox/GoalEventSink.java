@@ -0,0 +1,16 @@
+package com.bayer.healthgoal.outbox;
+
+import java.util.List;
+
+/**
+ * Destination for the events {@link GoalEventRelay} publishes. Every {@code GoalEventSink} bean receives every
+ * batch; without one, the relay only makes events visible in the change feed.
+ */
+public interface GoalEventSink {
+
+    /**
+     * Receives a batch of events in feed order. Throwing rolls the batch back and it is offered again on the next
+     * run, so an event can arrive more than once; {@code position} identifies duplicates.
+     */
+    void publish(List<GoalEvent> events) throws Exception;
+}
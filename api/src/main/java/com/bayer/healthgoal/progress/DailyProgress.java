@@ -0,0 +1,13 @@
+package com.bayer.healthgoal.progress;
+
+import java.time.LocalDate;
+
+/**
+ * Sum and number of the progress entries of one goal on one UTC day, as kept in {@code goal_progress_daily}.
+ */
+public record DailyProgress(LocalDate day, long total, long entries) {
+
+    DailyProgress plus(long amount) {
+        return new DailyProgress(day, total + amount, entries + 1);
+    }
+}
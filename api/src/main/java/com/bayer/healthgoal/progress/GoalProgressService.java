@@ -0,0 +1,171 @@
+package com.bayer.healthgoal.progress;
+
+import com.bayer.healthgoal.api.model.GoalProgress;
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.api.model.ProgressBucket;
+import com.bayer.healthgoal.api.model.ProgressEntry;
+import com.bayer.healthgoal.exceptions.InvalidRequestException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Appends progress entries to a goal and answers daily, weekly and total aggregates from the daily rollup.
+ * Days are UTC days and weeks are ISO weeks starting on Monday.
+ */
+@Service
+public class GoalProgressService {
+
+    static final int MAX_BUCKET_DAYS = 366;
+    private static final int DEFAULT_RANGE_DAYS = 90;
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofDays(1);
+
+    private final ProgressRepository progressRepository;
+    private final int backfillDays;
+
+    public GoalProgressService(ProgressRepository progressRepository,
+                               @Value("${healthgoal.progress.backfill-days:30}") int backfillDays) {
+        this.progressRepository = progressRepository;
+        this.backfillDays = backfillDays;
+    }
+
+    /**
+     * Appends the entries and adds them to the goal's daily totals in one transaction.
+     */
+    @Transactional
+    public void record(UUID goalId, List<ProgressEntry> entries) {
+        if (entries == null || entries.isEmpty()) {
+            throw new InvalidRequestException("entries must not be empty");
+        }
+        Instant now = Instant.now();
+        // partitions exist from this day on; older entries would have nowhere to go
+        Instant oldest = LocalDate.ofInstant(now, ZoneOffset.UTC).minusDays(backfillDays)
+                .atStartOfDay(ZoneOffset.UTC).toInstant();
+        Instant latest = now.plus(MAX_CLOCK_SKEW);
+
+        List<ProgressSample> samples = new ArrayList<>(entries.size());
+        Map<LocalDate, DailyProgress> days = new TreeMap<>();
+        for (ProgressEntry entry : entries) {
+            if (entry.getRecordedAt() == null || entry.getValue() == null || entry.getValue() < 0) {
+                throw new InvalidRequestException("every entry needs recordedAt and a value of at least 0");
+            }
+            Instant recordedAt = entry.getRecordedAt().toInstant();
+            if (recordedAt.isBefore(oldest) || recordedAt.isAfter(latest)) {
+                throw new InvalidRequestException("recordedAt must lie between " + oldest + " and " + latest);
+            }
+            samples.add(new ProgressSample(recordedAt, entry.getValue()));
+            LocalDate day = LocalDate.ofInstant(recordedAt, ZoneOffset.UTC);
+            days.merge(day, new DailyProgress(day, entry.getValue(), 1),
+                    (sum, one) -> sum.plus(one.total()));
+        }
+
+        progressRepository.appendEntries(goalId, samples);
+        progressRepository.addToDailyRollup(goalId, days.values());
+    }
+
+    /**
+     * Drops the progress of deleted goals, in the transaction that deletes them, so an aggregate never outlives its
+     * goal.
+     */
+    @Transactional
+    public void deleteProgress(Collection<UUID> goalIds) {
+        progressRepository.deleteDailyRollups(goalIds);
+    }
+
+    @Transactional(readOnly = true)
+    public GoalProgress progress(HealthGoal goal, String granularity, LocalDate from, LocalDate to) {
+        GoalProgress.GranularityEnum bucketSize = toGranularity(granularity);
+        LocalDate last = to != null ? to : earlier(LocalDate.now(ZoneOffset.UTC), toLocalDate(goal.getEndDate()));
+        LocalDate first = from;
+        if (first == null) {
+            LocalDate start = toLocalDate(goal.getStartDate());
+            first = start != null ? start : last.minusDays(DEFAULT_RANGE_DAYS - 1);
+            // a long-running goal still gets its most recent buckets rather than a 400
+            if (bucketSize != GoalProgress.GranularityEnum.TOTAL) {
+                first = later(first, last.minusDays(MAX_BUCKET_DAYS - 1));
+            }
+        }
+        if (first.isAfter(last)) {
+            throw new InvalidRequestException("from must not be after to");
+        }
+
+        List<ProgressBucket> buckets = new ArrayList<>();
+        long total = 0;
+        long entries = 0;
+        if (bucketSize == GoalProgress.GranularityEnum.TOTAL) {
+            DailyProgress sum = progressRepository.sum(goal.getId(), first, last);
+            total = sum.total();
+            entries = sum.entries();
+        } else {
+            if (ChronoUnit.DAYS.between(first, last) >= MAX_BUCKET_DAYS) {
+                throw new InvalidRequestException("from and to may be at most " + MAX_BUCKET_DAYS
+                        + " days apart for " + bucketSize + " progress");
+            }
+            Map<LocalDate, DailyProgress> byBucket = new TreeMap<>();
+            for (DailyProgress day : progressRepository.findDaily(goal.getId(), first, last)) {
+                LocalDate start = bucketSize == GoalProgress.GranularityEnum.WEEKLY
+                        ? day.day().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                        : day.day();
+                byBucket.merge(start, new DailyProgress(start, day.total(), day.entries()),
+                        (sum, next) -> new DailyProgress(start, sum.total() + next.total(),
+                                sum.entries() + next.entries()));
+                total += day.total();
+                entries += day.entries();
+            }
+            byBucket.values().forEach(bucket -> buckets.add(
+                    new ProgressBucket(toDate(bucket.day()), bucket.total(), bucket.entries())));
+        }
+
+        GoalProgress progress = new GoalProgress(goal.getId(), bucketSize, toDate(first), toDate(last),
+                total, entries, buckets)
+                .target(goal.getTarget())
+                .unit(goal.getUnit());
+        if (goal.getTarget() != null && goal.getTarget() > 0) {
+            progress.percentOfTarget(total * 100.0 / goal.getTarget());
+        }
+        return progress;
+    }
+
+    private static GoalProgress.GranularityEnum toGranularity(String granularity) {
+        if (granularity == null) {
+            return GoalProgress.GranularityEnum.TOTAL;
+        }
+        try {
+            return GoalProgress.GranularityEnum.fromValue(granularity);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("granularity must be DAILY, WEEKLY or TOTAL");
+        }
+    }
+
+    // same convention as the generated mapper: a date is midnight UTC
+    private static Date toDate(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? LocalDate.ofInstant(date.toInstant(), ZoneOffset.UTC) : null;
+    }
+
+    private static LocalDate earlier(LocalDate day, LocalDate other) {
+        return other != null && other.isBefore(day) ? other : day;
+    }
+
+    private static LocalDate later(LocalDate day, LocalDate other) {
+        return other.isAfter(day) ? other : day;
+    }
+}
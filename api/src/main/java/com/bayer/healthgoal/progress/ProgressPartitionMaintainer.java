@@ -0,0 +1,80 @@
+package com.bayer.healthgoal.progress;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Keeps the daily partitions of {@code goal_progress}, which the migrations create partitioned by UTC day.
+ * <p>
+ * On startup, before the web server accepts requests, it creates one partition per UTC day from the oldest day
+ * ingestion accepts up to
+ * {@code healthgoal.progress.partitions-ahead-days} ahead. A daily job keeps that window moving. Creating a
+ * partition that exists is a no-op, so several instances can run the job. On H2 (the tests), which has no
+ * migrations, it creates the tables unpartitioned from {@code db/progress/schema-h2.sql} instead.
+ */
+@Slf4j
+@Component
+public class ProgressPartitionMaintainer {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int backfillDays;
+    private final int partitionsAheadDays;
+    private boolean partitioned;
+
+    public ProgressPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                       @Value("${healthgoal.progress.backfill-days:30}") int backfillDays,
+                                       @Value("${healthgoal.progress.partitions-ahead-days:7}") int partitionsAheadDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.backfillDays = backfillDays;
+        this.partitionsAheadDays = partitionsAheadDays;
+    }
+
+    @PostConstruct
+    void createSchema() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        partitioned = "PostgreSQL".equals(database);
+        if (!partitioned) {
+            new ResourceDatabasePopulator(new ClassPathResource("db/progress/schema-h2.sql"))
+                    .execute(jdbcTemplate.getDataSource());
+        }
+        createPartitions();
+    }
+
+    @Scheduled(cron = "${healthgoal.progress.maintenance-cron:0 5 0 * * *}", zone = "UTC")
+    void createPartitions() {
+        if (!partitioned) {
+            return;
+        }
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate last = today.plusDays(partitionsAheadDays);
+        for (LocalDate day = today.minusDays(backfillDays); !day.isAfter(last); day = day.plusDays(1)) {
+            try {
+                jdbcTemplate.execute(partitionDdl(day));
+            } catch (DataAccessException e) {
+                // two instances racing on the same partition; whichever lost finds it there on the next run
+                log.warn("could not create progress partition for {}: {}", day, e.getMessage());
+            }
+        }
+    }
+
+    static String partitionDdl(LocalDate day) {
+        return "create table if not exists goal_progress_" + PARTITION_SUFFIX.format(day)
+                + " partition of goal_progress for values from ('" + day + " 00:00:00+00') to ('"
+                + day.plusDays(1) + " 00:00:00+00')";
+    }
+}
@@ -0,0 +1,86 @@
+package com.bayer.healthgoal.progress;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC access to the progress tables. Entries are high-volume and never read back one by one, so they skip
+ * Hibernate: one batched INSERT per request, which the postgres driver rewrites into multi-row statements.
+ */
+@Repository
+public class ProgressRepository {
+
+    private static final String INSERT_ENTRY =
+            "insert into goal_progress (goal_id, recorded_at, amount) values (?, ?, ?)";
+    private static final String INCREMENT_DAY =
+            "update goal_progress_daily set total = total + ?, entries = entries + ? where goal_id = ? and day_utc = ?";
+    private static final String INSERT_DAY = "insert into goal_progress_daily (goal_id, day_utc, total, entries) "
+            + "values (?, ?, ?, ?) on conflict do nothing";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProgressRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void appendEntries(UUID goalId, List<ProgressSample> samples) {
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, samples, samples.size(), (statement, sample) -> {
+            statement.setObject(1, goalId);
+            statement.setObject(2, OffsetDateTime.ofInstant(sample.recordedAt(), ZoneOffset.UTC));
+            statement.setLong(3, sample.amount());
+        });
+    }
+
+    /**
+     * Adds each day's sums to the rollup. Update first, since the day usually exists; a new day is inserted, and
+     * if a concurrent request inserted it first the update is repeated against its row. Callers pass days in
+     * ascending order so concurrent requests for one goal lock the rows in the same order.
+     */
+    public void addToDailyRollup(UUID goalId, Collection<DailyProgress> days) {
+        for (DailyProgress day : days) {
+            Date dayUtc = Date.valueOf(day.day());
+            if (jdbcTemplate.update(INCREMENT_DAY, day.total(), day.entries(), goalId, dayUtc) == 0
+                    && jdbcTemplate.update(INSERT_DAY, goalId, dayUtc, day.total(), day.entries()) == 0) {
+                jdbcTemplate.update(INCREMENT_DAY, day.total(), day.entries(), goalId, dayUtc);
+            }
+        }
+    }
+
+    /**
+     * Deletes the goals' daily rows, through the primary key. Their raw entries stay until their day's partition is
+     * dropped: {@code goal_progress} has no index to find them by, and nothing reads them back.
+     */
+    public void deleteDailyRollups(Collection<UUID> goalIds) {
+        jdbcTemplate.batchUpdate("delete from goal_progress_daily where goal_id = ?", goalIds, goalIds.size(),
+                (statement, goalId) -> statement.setObject(1, goalId));
+    }
+
+    public List<DailyProgress> findDaily(UUID goalId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                        select day_utc, total, entries from goal_progress_daily
+                        where goal_id = ? and day_utc between ? and ?
+                        order by day_utc""",
+                (rows, rowNum) -> new DailyProgress(
+                        rows.getDate(1).toLocalDate(), rows.getLong(2), rows.getLong(3)),
+                goalId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Sums the rollup over the range in the database, for totals over long goals.
+     */
+    public DailyProgress sum(UUID goalId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.queryForObject("""
+                        select coalesce(sum(total), 0), coalesce(sum(entries), 0) from goal_progress_daily
+                        where goal_id = ? and day_utc between ? and ?""",
+                (rows, rowNum) -> new DailyProgress(from, rows.getLong(1), rows.getLong(2)),
+                goalId, Date.valueOf(from), Date.valueOf(to));
+    }
+}
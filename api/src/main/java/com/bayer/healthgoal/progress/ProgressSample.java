@@ -0,0 +1,9 @@
+package com.bayer.healthgoal.progress;
+
+import java.time.Instant;
+
+/**
+ * One validated progress entry, an increment of {@code amount} in the goal's unit.
+ */
+public record ProgressSample(Instant recordedAt, long amount) {
+}
@@ -0,0 +1,12 @@
+package com.bayer.healthgoal.repository;
+
+import com.bayer.healthgoal.entity.ApiKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface ApiKeyRepository extends JpaRepository<ApiKeyEntity, UUID> {
+
+    Optional<ApiKeyEntity> findByKeyHashAndActiveTrue(String keyHash);
+}
@@ -0,0 +1,16 @@
+package com.bayer.healthgoal.repository;
+
+import com.bayer.healthgoal.entity.GoalAuditEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface GoalAuditRepository extends JpaRepository<GoalAuditEntity, Long> {
+
+    // both are range scans on (goal_id, id)
+    List<GoalAuditEntity> findByGoalIdOrderByIdDesc(UUID goalId, Limit limit);
+
+    List<GoalAuditEntity> findByGoalIdAndIdLessThanOrderByIdDesc(UUID goalId, long before, Limit limit);
+}
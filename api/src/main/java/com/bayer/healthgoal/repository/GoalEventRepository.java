@@ -0,0 +1,14 @@
+package com.bayer.healthgoal.repository;
+
+import com.bayer.healthgoal.entity.GoalEventEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface GoalEventRepository extends JpaRepository<GoalEventEntity, UUID> {
+
+    // a range scan on the feed_position index
+    List<GoalEventEntity> findByFeedPositionGreaterThanOrderByFeedPosition(long after, Limit limit);
+}
@@ -0,0 +1,52 @@
+package com.bayer.healthgoal.repository;
+
+import com.bayer.healthgoal.entity.HealthGoalArchiveEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+public interface HealthGoalArchiveRepository extends JpaRepository<HealthGoalArchiveEntity, UUID> {
+
+    Optional<HealthGoalArchiveEntity> findByIdAndDeletedAtIsNull(UUID id);
+
+    // lets conditional GETs of archived goals answer 304 without loading or mapping the goal
+    @Query("select a.version from HealthGoalArchiveEntity a where a.id = :id and a.deletedAt is null")
+    Optional<Long> findVersionById(UUID id);
+
+    // ids of archived and deleted goals stay taken, so a goal id never reaches the archive twice as live
+    @Query("select distinct a.id from HealthGoalArchiveEntity a where a.id in :ids")
+    Set<UUID> findExistingIds(Collection<UUID> ids);
+
+    /**
+     * Copies goals into the archive as they are in {@code health_goals}; the caller then deletes them there.
+     */
+    @Modifying
+    @Query(value = """
+            insert into health_goals_archive (id, user_id, title, description, target, unit, start_date, end_date,
+                                              status, version, status_changed_at, archived_at)
+            select id, user_id, title, description, target, unit, start_date, end_date,
+                   status, version, status_changed_at, :archivedAt
+            from health_goals
+            where id in :ids""", nativeQuery = true)
+    int archive(Collection<UUID> ids, Instant archivedAt);
+
+    /**
+     * Copies goals into the archive marked deleted, so a delete keeps the goal; the caller then deletes them in
+     * {@code health_goals}.
+     */
+    @Modifying
+    @Query(value = """
+            insert into health_goals_archive (id, user_id, title, description, target, unit, start_date, end_date,
+                                              status, version, status_changed_at, archived_at, deleted_at)
+            select id, user_id, title, description, target, unit, start_date, end_date,
+                   status, version, status_changed_at, :deletedAt, :deletedAt
+            from health_goals
+            where id in :ids""", nativeQuery = true)
+    int archiveDeleted(Collection<UUID> ids, Instant deletedAt);
+}
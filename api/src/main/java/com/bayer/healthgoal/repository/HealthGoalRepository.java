@@ -1,9 +1,33 @@
 package com.bayer.healthgoal.repository;
 
 import com.bayer.healthgoal.entity.HealthGoalEntity;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
-public interface HealthGoalRepository extends JpaRepository<HealthGoalEntity, UUID> {
+public interface HealthGoalRepository extends JpaRepository<HealthGoalEntity, UUID>,
+        JpaSpecificationExecutor<HealthGoalEntity>, HealthGoalStreamingRepository, HealthGoalSearchRepository {
+
+    Sort KEYSET_ORDER = Sort.by(Sort.Direction.ASC, "id");
+
+    // lets conditional GETs answer 304 without loading or mapping the goal
+    @Query("select g.version from HealthGoalEntity g where g.id = :id")
+    Optional<Long> findVersionById(UUID id);
+
+    // status and count pairs of one user's goals
+    @Query("select g.status, count(g) from HealthGoalEntity g where g.userId = :userId group by g.status")
+    List<Object[]> countByStatus(UUID userId);
+
+    /**
+     * Fetches at most {@code limit} goals matching the filter in keyset order, without a count query.
+     */
+    default List<HealthGoalEntity> findPage(Specification<HealthGoalEntity> filter, int limit) {
+        return findBy(filter, query -> query.sortBy(KEYSET_ORDER).limit(limit).all());
+    }
 }
@@ -0,0 +1,22 @@
+package com.bayer.healthgoal.repository;
+
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface HealthGoalSearchRepository {
+
+    /**
+     * Fetches at most {@code limit} goals, skipping {@code offset}, whose title or description contain every word of
+     * {@code text} as a word or word prefix, best match first. {@code userId} and {@code status} may be null.
+     */
+    SearchPage search(String text, UUID userId, HealthGoalEntity.Status status, int offset, int limit);
+
+    /**
+     * A page of search results. {@code truncated} is set when more goals matched than were ranked, so the page holds
+     * the best of the ranked matches rather than of all of them.
+     */
+    record SearchPage(List<HealthGoalEntity> goals, boolean truncated) {
+    }
+}
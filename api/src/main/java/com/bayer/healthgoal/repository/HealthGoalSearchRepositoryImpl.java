@@ -0,0 +1,152 @@
+package com.bayer.healthgoal.repository;
+
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * On PostgreSQL, matches goals against a weighted full-text document through a GIN expression index, with every
+ * word also matched as a prefix; queries of three or more characters additionally match title substrings through a
+ * trigram index. Without a user filter only the first {@code healthgoal.search.max-candidates} matches are ranked,
+ * which bounds the cost of a word that occurs in many goals, and pages that stopped there are marked truncated: a GIN
+ * index cannot return matches in rank order, so ranking all of them means scoring every one of the table's matching
+ * rows on each page. With a user filter, the user's goals are read through their index and matched one by one. On
+ * other databases (the H2 tests) it falls back to {@code LIKE}.
+ */
+class HealthGoalSearchRepositoryImpl implements HealthGoalSearchRepository {
+
+    // must match the expression of idx_health_goals_search_document in db/migration/postgresql/V2__search_indexes.sql
+    static final String DOCUMENT = "(setweight(to_tsvector('english', coalesce(title, '')), 'A')"
+            + " || setweight(to_tsvector('english', coalesce(description, '')), 'B'))";
+
+    // trigrams cannot narrow shorter substrings, so those would scan the table
+    static final int MIN_SUBSTRING_LENGTH = 3;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxCandidates;
+    private boolean fullText;
+
+    HealthGoalSearchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                   @Value("${healthgoal.search.max-candidates:1000}") int maxCandidates) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @PostConstruct
+    void detectDatabase() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        fullText = "PostgreSQL".equals(database);
+    }
+
+    @Override
+    public SearchPage search(String text, UUID userId, HealthGoalEntity.Status status,
+                                         int offset, int limit) {
+        List<String> words = words(text);
+        if (words.isEmpty()) {
+            return new SearchPage(List.of(), false);
+        }
+        String statusFilter = status == null ? "" : " and status = :status";
+
+        Query query;
+        boolean capped = false;
+        if (fullText) {
+            String substring = text.strip();
+            boolean matchSubstring = substring.length() >= MIN_SUBSTRING_LENGTH;
+            String match = "(" + DOCUMENT + " @@ to_tsquery('english', :terms)"
+                    + (matchSubstring ? " or title ilike :substring" : "") + ")";
+            String rank = "ts_rank(" + DOCUMENT + ", to_tsquery('english', :terms))"
+                    + (matchSubstring ? " + similarity(title, :text)" : "");
+            if (userId != null) {
+                // a user has few goals: matching each of them is cheaper than a GIN scan for a common word
+                query = entityManager.createNativeQuery("with owned as materialized (select * from health_goals"
+                        + " where user_id = :userId" + statusFilter + ")"
+                        + " select * from owned where " + match
+                        + " order by " + rank + " desc, id limit :limit offset :offset", HealthGoalEntity.class);
+            } else {
+                // the inner query stops after maxCandidates index matches; only those are ranked and paged, and the
+                // window count, taken before the page is cut, tells whether it stopped early
+                query = entityManager.createNativeQuery("select g.*, count(*) over () as candidates"
+                                + " from (select * from health_goals where " + match + statusFilter
+                                + " limit :maxCandidates) g"
+                                + " order by " + rank + " desc, id limit :limit offset :offset")
+                        .unwrap(NativeQuery.class)
+                        .addEntity(HealthGoalEntity.class)
+                        .addScalar("candidates", StandardBasicTypes.LONG);
+                query.setParameter("maxCandidates", maxCandidates);
+                capped = true;
+            }
+            query.setParameter("terms", words.stream().map(word -> word + ":*").collect(Collectors.joining(" & ")));
+            if (matchSubstring) {
+                query.setParameter("substring", "%" + escapeLike(substring) + "%");
+                query.setParameter("text", substring);
+            }
+        } else {
+            StringBuilder where = new StringBuilder(userId == null ? "1 = 1" : "user_id = :userId");
+            for (int i = 0; i < words.size(); i++) {
+                where.append(" and (lower(title) like :word").append(i)
+                        .append(" or lower(description) like :word").append(i).append(")");
+            }
+            query = entityManager.createNativeQuery("select * from health_goals where " + where + statusFilter
+                    + " order by case when lower(title) like :word0 then 0 else 1 end, id"
+                    + " limit :limit offset :offset", HealthGoalEntity.class);
+            for (int i = 0; i < words.size(); i++) {
+                query.setParameter("word" + i, "%" + escapeLike(words.get(i)) + "%");
+            }
+        }
+        if (userId != null) {
+            query.setParameter("userId", userId);
+        }
+        if (status != null) {
+            query.setParameter("status", status.name());
+        }
+        List<?> rows = query
+                .setParameter("offset", offset)
+                .setParameter("limit", limit)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+        if (!capped) {
+            @SuppressWarnings("unchecked")
+            List<HealthGoalEntity> goals = (List<HealthGoalEntity>) rows;
+            return new SearchPage(goals, false);
+        }
+        List<HealthGoalEntity> goals = new ArrayList<>(rows.size());
+        long candidates = 0;
+        for (Object row : rows) {
+            Object[] columns = (Object[]) row;
+            goals.add((HealthGoalEntity) columns[0]);
+            candidates = (Long) columns[1];
+        }
+        // reaching the limit means more goals may have matched than were ranked
+        return new SearchPage(goals, candidates >= maxCandidates);
+    }
+
+    // letters and digits only, so the terms can be joined into a tsquery without its operators leaking in
+    static List<String> words(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,34 @@
+package com.bayer.healthgoal.repository;
+
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public final class HealthGoalSpecifications {
+
+    private HealthGoalSpecifications() {
+    }
+
+    public static Specification<HealthGoalEntity> ownedBy(UUID userId) {
+        return (root, query, cb) -> userId == null ? null : cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<HealthGoalEntity> hasStatus(HealthGoalEntity.Status status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<HealthGoalEntity> startsOnOrAfter(LocalDate from) {
+        return (root, query, cb) -> from == null ? null : cb.greaterThanOrEqualTo(root.get("startDate"), from);
+    }
+
+    public static Specification<HealthGoalEntity> startsOnOrBefore(LocalDate to) {
+        return (root, query, cb) -> to == null ? null : cb.lessThanOrEqualTo(root.get("startDate"), to);
+    }
+
+    // keyset predicate: everything strictly after the last id of the previous page
+    public static Specification<HealthGoalEntity> idAfter(UUID lastSeenId) {
+        return (root, query, cb) -> lastSeenId == null ? null : cb.greaterThan(root.get("id"), lastSeenId);
+    }
+}
@@ -0,0 +1,15 @@
+package com.bayer.healthgoal.repository;
+
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public interface HealthGoalStreamingRepository {
+
+    /**
+     * Streams matching goals in keyset order through a server-side cursor. Must be consumed inside a transaction
+     * and closed by the caller.
+     */
+    Stream<HealthGoalEntity> streamAll(Specification<HealthGoalEntity> filter, int fetchSize);
+}
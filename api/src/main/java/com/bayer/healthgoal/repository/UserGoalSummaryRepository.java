@@ -0,0 +1,42 @@
+package com.bayer.healthgoal.repository;
+
+import com.bayer.healthgoal.entity.UserGoalSummaryEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+public interface UserGoalSummaryRepository extends JpaRepository<UserGoalSummaryEntity, UUID> {
+
+    // relative update: concurrent writers queue on the row lock instead of overwriting each other's counts
+    @Modifying
+    @Query("""
+            update UserGoalSummaryEntity s
+            set s.active = s.active + :active, s.completed = s.completed + :completed,
+                s.cancelled = s.cancelled + :cancelled, s.expired = s.expired + :expired
+            where s.userId = :userId""")
+    int addCounts(UUID userId, long active, long completed, long cancelled, long expired);
+
+    @Query("select s.userId from UserGoalSummaryEntity s where s.userId in :userIds")
+    Set<UUID> findExistingIds(Collection<UUID> userIds);
+
+    /**
+     * Creates the user's row from a count of their goals, including changes this transaction has flushed. Inserts
+     * nothing if another transaction created the row first.
+     */
+    @Modifying
+    @Query(value = """
+            insert into user_goal_summary (user_id, active, completed, cancelled, expired)
+            select :userId,
+                   coalesce(sum(case when status = 'ACTIVE' then 1 else 0 end), 0),
+                   coalesce(sum(case when status = 'COMPLETED' then 1 else 0 end), 0),
+                   coalesce(sum(case when status = 'CANCELLED' then 1 else 0 end), 0),
+                   coalesce(sum(case when status = 'EXPIRED' then 1 else 0 end), 0)
+            from health_goals
+            where user_id = :userId
+            on conflict do nothing""", nativeQuery = true)
+    int insertCountedFromGoals(UUID userId);
+}
@@ -2,8 +2,14 @@ package com.bayer.healthgoal.repository;
 
 import com.bayer.healthgoal.entity.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<UserEntity, UUID> {
+
+    @Query("select u.id from UserEntity u where u.id in :ids")
+    Set<UUID> findExistingIds(Collection<UUID> ids);
 }
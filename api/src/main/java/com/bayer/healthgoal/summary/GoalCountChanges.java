@@ -0,0 +1,45 @@
+package com.bayer.healthgoal.summary;
+
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Per-user changes to the goal counts made by one request, applied together by {@link GoalSummaryService}.
+ */
+public final class GoalCountChanges {
+
+    private static final int STATUSES = HealthGoalEntity.Status.values().length;
+
+    // sorted, so concurrent batches lock the summary rows of their users in the same order
+    private final Map<UUID, long[]> deltasByUser = new TreeMap<>();
+
+    public GoalCountChanges added(UUID userId, HealthGoalEntity.Status status) {
+        return add(userId, status, 1);
+    }
+
+    public GoalCountChanges removed(UUID userId, HealthGoalEntity.Status status) {
+        return add(userId, status, -1);
+    }
+
+    public GoalCountChanges moved(UUID userId, HealthGoalEntity.Status from, HealthGoalEntity.Status to) {
+        if (from == to) {
+            return this;
+        }
+        return add(userId, from, -1).add(userId, to, 1);
+    }
+
+    void forEach(BiConsumer<UUID, long[]> action) {
+        deltasByUser.forEach(action);
+    }
+
+    private GoalCountChanges add(UUID userId, HealthGoalEntity.Status status, long delta) {
+        if (status != null) {
+            deltasByUser.computeIfAbsent(userId, id -> new long[STATUSES])[status.ordinal()] += delta;
+        }
+        return this;
+    }
+}
@@ -0,0 +1,96 @@
+package com.bayer.healthgoal.summary;
+
+import com.bayer.healthgoal.api.model.HealthGoalSummary;
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+import com.bayer.healthgoal.entity.UserGoalSummaryEntity;
+import com.bayer.healthgoal.exceptions.UserNotFoundException;
+import com.bayer.healthgoal.repository.HealthGoalRepository;
+import com.bayer.healthgoal.repository.UserGoalSummaryRepository;
+import com.bayer.healthgoal.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.bayer.healthgoal.entity.HealthGoalEntity.Status.ACTIVE;
+import static com.bayer.healthgoal.entity.HealthGoalEntity.Status.CANCELLED;
+import static com.bayer.healthgoal.entity.HealthGoalEntity.Status.COMPLETED;
+import static com.bayer.healthgoal.entity.HealthGoalEntity.Status.EXPIRED;
+
+/**
+ * Keeps {@code user_goal_summary} in step with the goals and serves it.
+ * <p>
+ * Writers add their changes with relative updates in the transaction that changes the goals. A user without a row
+ * (goals created before the table existed) gets one counted from their goals the first time one changes, or before
+ * one is archived. Archived goals stay in the counts.
+ */
+@Service
+@RequiredArgsConstructor
+public class GoalSummaryService {
+
+    private final UserGoalSummaryRepository summaryRepository;
+    private final HealthGoalRepository healthGoalRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Applies the changes in the caller's transaction, after the goal changes they describe.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(GoalCountChanges changes) {
+        changes.forEach((userId, delta) -> {
+            if (addCounts(userId, delta) > 0) {
+                return;
+            }
+            // the count has to see this transaction's goal changes, which then need no delta
+            healthGoalRepository.flush();
+            if (summaryRepository.insertCountedFromGoals(userId) == 0) {
+                // created concurrently from a count that did not include our uncommitted changes
+                addCounts(userId, delta);
+            }
+        });
+    }
+
+    /**
+     * Creates the missing rows of these users, counted from their goals, before some of those goals are archived:
+     * a row counted later would not see them. Runs in the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void countBeforeArchiving(Collection<UUID> userIds) {
+        Set<UUID> missing = new HashSet<>(userIds);
+        missing.removeAll(summaryRepository.findExistingIds(userIds));
+        missing.forEach(summaryRepository::insertCountedFromGoals);
+    }
+
+    @Transactional(readOnly = true)
+    public HealthGoalSummary summary(UUID userId) {
+        UserGoalSummaryEntity counts = summaryRepository.findById(userId).orElseGet(() -> countGoals(userId));
+        return new HealthGoalSummary(userId, counts.getActive(), counts.getCompleted(), counts.getCancelled(),
+                counts.getExpired(),
+                counts.getActive() + counts.getCompleted() + counts.getCancelled() + counts.getExpired());
+    }
+
+    // no row yet: answer from the goals and leave creating the row to the next write
+    private UserGoalSummaryEntity countGoals(UUID userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException("user not found for id= " + userId);
+        }
+        Map<HealthGoalEntity.Status, Long> counts = new EnumMap<>(HealthGoalEntity.Status.class);
+        healthGoalRepository.countByStatus(userId)
+                .forEach(row -> counts.put((HealthGoalEntity.Status) row[0], (Long) row[1]));
+        return new UserGoalSummaryEntity(userId, counts.getOrDefault(ACTIVE, 0L),
+                counts.getOrDefault(COMPLETED, 0L), counts.getOrDefault(CANCELLED, 0L),
+                counts.getOrDefault(EXPIRED, 0L));
+    }
+
+    private int addCounts(UUID userId, long[] delta) {
+        return summaryRepository.addCounts(userId, delta[ACTIVE.ordinal()], delta[COMPLETED.ordinal()],
+                delta[CANCELLED.ordinal()], delta[EXPIRED.ordinal()]);
+    }
+}
@@ -4,6 +4,8 @@ public class ApiConstants {
     public static final String X_API_KEY = "x-api-key";
     public static final String X_CORRELATION_ID = "x-correlation-id";
     public static final String X_REQUEST_ID = "x-request-id";
+    public static final String X_NEXT_CURSOR = "x-next-cursor";
+    public static final String X_SEARCH_TRUNCATED = "x-search-truncated";
 
     ApiConstants() throws Exception {
         throw new Exception("Error");
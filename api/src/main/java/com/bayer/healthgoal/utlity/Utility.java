@@ -10,4 +10,32 @@ public class Utility {
         return date == null ? null : date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
     }
 
+    public static String toETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Checks an If-Match / If-None-Match header against a version. If-None-Match uses weak comparison
+     * ({@code W/"3"} matches), If-Match strong comparison, as in RFC 9110.
+     */
+    public static boolean eTagMatches(String header, long version, boolean weakComparison) {
+        if (header == null) {
+            return false;
+        }
+        String expected = toETag(version);
+        for (String tag : header.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+            if (weakComparison && candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
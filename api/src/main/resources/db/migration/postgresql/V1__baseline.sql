@@ -0,0 +1,126 @@
+-- Schema as Hibernate's ddl-auto=update left it before the migrations took over, including the constraint names it
+-- generated, so a database created that way and baselined at version 1 matches one created by this script.
+CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE TABLE users (
+    id UUID NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT ukr43af9ap4edm43mmtq01oddj6 UNIQUE (username),
+    CONSTRAINT uk6dotkott2kjsp8vw4d0m25fb7 UNIQUE (email)
+);
+
+CREATE TABLE health_goals (
+    id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    title VARCHAR(255),
+    description VARCHAR(255),
+    target INTEGER,
+    unit VARCHAR(255),
+    start_date DATE,
+    end_date DATE,
+    status VARCHAR(255),
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT health_goals_pkey PRIMARY KEY (id),
+    CONSTRAINT fklamrakw2djla7iq1t0mqk83yp FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT health_goals_status_check CHECK (status IN ('ACTIVE', 'COMPLETED', 'CANCELLED', 'EXPIRED'))
+);
+
+-- Trailing id serves the keyset order of listHealthGoals
+CREATE INDEX idx_health_goals_user_id_id ON health_goals (user_id, id);
+CREATE INDEX idx_health_goals_status_id ON health_goals (status, id);
+CREATE INDEX idx_health_goals_start_date ON health_goals (start_date);
+-- Overdue ACTIVE goals, read in end date order by GoalExpiryJob
+CREATE INDEX idx_health_goals_status_end_date ON health_goals (status, end_date);
+
+-- Only the hex SHA-256 of each client key is stored
+CREATE TABLE api_keys (
+    id UUID NOT NULL,
+    client_name VARCHAR(255) NOT NULL,
+    key_hash VARCHAR(64) NOT NULL,
+    requests_per_second INTEGER NOT NULL,
+    burst INTEGER NOT NULL,
+    active BOOLEAN NOT NULL,
+    CONSTRAINT api_keys_pkey PRIMARY KEY (id),
+    CONSTRAINT uk6arwpf4yj24tqfp2jfgjffo1c UNIQUE (client_name),
+    CONSTRAINT ukcwrf6urvb9lnvuli1giq8t2k9 UNIQUE (key_hash)
+);
+
+-- Goal counts per user and status, changed by relative updates in the transaction that changes the goals
+CREATE TABLE user_goal_summary (
+    user_id UUID NOT NULL,
+    active BIGINT NOT NULL,
+    completed BIGINT NOT NULL,
+    cancelled BIGINT NOT NULL,
+    expired BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT user_goal_summary_pkey PRIMARY KEY (user_id)
+);
+
+-- Outbox of goal changes, inserted with the change; feed_position is set when GoalEventRelay publishes the row
+CREATE TABLE goal_events (
+    id UUID NOT NULL,
+    feed_position BIGINT,
+    goal_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    event_type VARCHAR(16) NOT NULL,
+    version BIGINT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL,
+    payload VARCHAR(4000),
+    CONSTRAINT goal_events_pkey PRIMARY KEY (id),
+    CONSTRAINT goal_events_event_type_check CHECK (event_type IN ('CREATED', 'UPDATED', 'DELETED'))
+);
+CREATE INDEX idx_goal_events_feed_position_created_at ON goal_events (feed_position, created_at);
+
+-- The last feed position handed out; its single row is locked by the instance that is relaying
+CREATE TABLE goal_event_relay (
+    id INTEGER NOT NULL,
+    last_position BIGINT NOT NULL,
+    CONSTRAINT goal_event_relay_pkey PRIMARY KEY (id)
+);
+
+-- Field-level history of goal updates, inserted in batches by GoalAuditWriter after the update committed
+CREATE TABLE goal_audit (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    goal_id UUID NOT NULL,
+    version BIGINT NOT NULL,
+    field VARCHAR(16) NOT NULL,
+    old_value VARCHAR(255),
+    new_value VARCHAR(255),
+    changed_at TIMESTAMPTZ NOT NULL,
+    correlation_id VARCHAR(255),
+    request_id VARCHAR(255),
+    CONSTRAINT goal_audit_pkey PRIMARY KEY (id)
+);
+CREATE INDEX idx_goal_audit_goal_id_id ON goal_audit (goal_id, id);
+
+-- Responses of creates made with an Idempotency-Key, inserted in the creating transaction; deleted after the ttl
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    goal_id UUID NOT NULL,
+    version BIGINT NOT NULL,
+    response VARCHAR(4000) NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL,
+    CONSTRAINT idempotency_keys_pkey PRIMARY KEY (idempotency_key)
+);
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
+
+-- Raw progress entries, append-only. Range-partitioned by UTC day on recorded_at; ProgressPartitionMaintainer
+-- creates the daily partitions ahead of time, and old days can be dropped or detached a partition at a time.
+-- There is deliberately no index: entries are only appended, aggregates are read from goal_progress_daily.
+CREATE TABLE goal_progress (
+    goal_id UUID NOT NULL,
+    recorded_at TIMESTAMPTZ NOT NULL,
+    amount BIGINT NOT NULL
+) PARTITION BY RANGE (recorded_at);
+
+-- One row per goal and UTC day, incremented in the transaction that appends the entries
+CREATE TABLE goal_progress_daily (
+    goal_id UUID NOT NULL,
+    day_utc DATE NOT NULL,
+    total BIGINT NOT NULL,
+    entries BIGINT NOT NULL,
+    CONSTRAINT goal_progress_daily_pkey PRIMARY KEY (goal_id, day_utc)
+);
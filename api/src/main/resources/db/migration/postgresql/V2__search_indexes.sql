@@ -0,0 +1,25 @@
+-- Search indexes on health_goals. Built CONCURRENTLY, so Flyway runs this script outside a transaction and a large
+-- table keeps taking writes while they build; on a database baselined from ddl-auto they already exist.
+
+-- A CONCURRENTLY build that fails or is cancelled leaves an INVALID index behind, which IF NOT EXISTS would then
+-- keep for good. Drop it, so a rerun after flyway repair builds it again. A DO block cannot drop CONCURRENTLY, but
+-- this only runs after a failed build, and dropping an index nothing reads locks health_goals only briefly.
+DO $$
+DECLARE
+    index_name text;
+BEGIN
+    FOREACH index_name IN ARRAY ARRAY['idx_health_goals_search_document', 'idx_health_goals_title_trgm'] LOOP
+        IF EXISTS (SELECT 1 FROM pg_index WHERE indexrelid = to_regclass(index_name) AND NOT indisvalid) THEN
+            EXECUTE format('DROP INDEX %I', index_name);
+        END IF;
+    END LOOP;
+END $$;
+
+-- Weighted document of a goal: title words rank above description words. The expression must stay identical to
+-- HealthGoalSearchRepositoryImpl.DOCUMENT, or the planner will not use the index.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_health_goals_search_document ON health_goals USING gin (
+    (setweight(to_tsvector('english', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('english', coalesce(description, '')), 'B')));
+
+-- Substrings of titles (ILIKE '%...%'), for words the English stemmer does not reduce to a matching prefix
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_health_goals_title_trgm ON health_goals USING gin (title gin_trgm_ops);
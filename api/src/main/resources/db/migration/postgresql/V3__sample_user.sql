@@ -0,0 +1,4 @@
+-- The user the Bruno collection creates its goals for; it used to come from db/init.sql
+INSERT INTO users (id, username, email)
+VALUES ('f7c962b7-0cc3-4f2d-8b3a-df0c5a9b128e', 'visal', 'visal@zohomail.in')
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,24 @@
+-- When a goal last changed status. GoalArchiveJob ages terminal goals by it; goals that exist when this runs count
+-- from now. A non-volatile default, so adding the column does not rewrite the table.
+ALTER TABLE health_goals ADD COLUMN status_changed_at TIMESTAMPTZ DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+-- Goals moved out of health_goals: COMPLETED, CANCELLED and EXPIRED goals past healthgoal.archive.min-age, and
+-- deleted goals, which have deleted_at set. Range-partitioned by month on archived_at; GoalArchiveJob creates the
+-- monthly partitions ahead of time, and old months can be detached or dropped a partition at a time.
+-- getHealthGoalById looks goals up by id, which leads the key of every partition.
+CREATE TABLE health_goals_archive (
+    id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    title VARCHAR(255),
+    description VARCHAR(255),
+    target INTEGER,
+    unit VARCHAR(255),
+    start_date DATE,
+    end_date DATE,
+    status VARCHAR(255),
+    version BIGINT NOT NULL,
+    status_changed_at TIMESTAMPTZ NOT NULL,
+    archived_at TIMESTAMPTZ NOT NULL,
+    deleted_at TIMESTAMPTZ,
+    CONSTRAINT health_goals_archive_pkey PRIMARY KEY (id, archived_at)
+) PARTITION BY RANGE (archived_at);
@@ -0,0 +1,19 @@
+-- COMPLETED, CANCELLED and EXPIRED goals whose status changed before a cutoff, read by GoalArchiveJob. Built
+-- CONCURRENTLY, so Flyway runs this script outside a transaction and health_goals keeps taking writes while it builds.
+
+-- A CONCURRENTLY build that fails or is cancelled leaves an INVALID index behind, which IF NOT EXISTS would then
+-- keep for good. Drop it, so a rerun after flyway repair builds it again. A DO block cannot drop CONCURRENTLY, but
+-- this only runs after a failed build, and dropping an index nothing reads locks health_goals only briefly.
+DO $$
+DECLARE
+    index_name text;
+BEGIN
+    FOREACH index_name IN ARRAY ARRAY['idx_health_goals_status_status_changed_at'] LOOP
+        IF EXISTS (SELECT 1 FROM pg_index WHERE indexrelid = to_regclass(index_name) AND NOT indisvalid) THEN
+            EXECUTE format('DROP INDEX %I', index_name);
+        END IF;
+    END LOOP;
+END $$;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_health_goals_status_status_changed_at
+    ON health_goals (status, status_changed_at);
@@ -0,0 +1,6 @@
+-- Idempotency keys are scoped to the API client that sent them, so two clients sending the same key never see each
+-- other's goals. The client of an existing key is unknown: those keys match no client and expire with the ttl.
+ALTER TABLE idempotency_keys ADD COLUMN client_id VARCHAR(255) NOT NULL DEFAULT '';
+ALTER TABLE idempotency_keys ALTER COLUMN client_id DROP DEFAULT;
+ALTER TABLE idempotency_keys DROP CONSTRAINT idempotency_keys_pkey;
+ALTER TABLE idempotency_keys ADD CONSTRAINT idempotency_keys_pkey PRIMARY KEY (client_id, idempotency_key);
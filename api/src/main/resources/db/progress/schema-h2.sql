@@ -0,0 +1,14 @@
+-- Same tables without partitioning, for the H2 test database
+CREATE TABLE IF NOT EXISTS goal_progress (
+    goal_id UUID NOT NULL,
+    recorded_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    amount BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS goal_progress_daily (
+    goal_id UUID NOT NULL,
+    day_utc DATE NOT NULL,
+    total BIGINT NOT NULL,
+    entries BIGINT NOT NULL,
+    PRIMARY KEY (goal_id, day_utc)
+);
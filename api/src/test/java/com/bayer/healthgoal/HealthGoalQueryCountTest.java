@@ -0,0 +1,282 @@
+package com.bayer.healthgoal;
+
+import com.bayer.healthgoal.api.model.CreateHealthGoalRequest;
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.api.model.HealthGoalBatchOperation;
+import com.bayer.healthgoal.api.model.HealthGoalBatchRequest;
+import com.bayer.healthgoal.api.model.UpdateHealthGoalRequest;
+import com.bayer.healthgoal.apikey.ApiClient;
+import com.bayer.healthgoal.apikey.RateLimiter;
+import com.bayer.healthgoal.audit.GoalAuditTrail;
+import com.bayer.healthgoal.audit.GoalAuditWriter;
+import com.bayer.healthgoal.cache.HealthGoalCache;
+import com.bayer.healthgoal.config.ApiFilter;
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+import com.bayer.healthgoal.entity.UserEntity;
+import com.bayer.healthgoal.entity.UserGoalSummaryEntity;
+import com.bayer.healthgoal.export.HealthGoalExporter;
+import com.bayer.healthgoal.idempotency.IdempotencyService;
+import com.bayer.healthgoal.mapper.HealthGoalMapperImpl;
+import com.bayer.healthgoal.metrics.OperationMetrics;
+import com.bayer.healthgoal.outbox.GoalChangeFeed;
+import com.bayer.healthgoal.outbox.GoalEventOutbox;
+import com.bayer.healthgoal.progress.GoalProgressService;
+import com.bayer.healthgoal.summary.GoalSummaryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the number of SQL statements each endpoint issues, so an N+1 or an extra lookup fails the build.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never"
+})
+@Import({HealthGoalsApiDelegateImpl.class, HealthGoalMapperImpl.class, HealthGoalCache.class, OperationMetrics.class,
+        GoalSummaryService.class, GoalEventOutbox.class, GoalChangeFeed.class, GoalAuditTrail.class,
+        IdempotencyService.class, HealthGoalQueryCountTest.CacheTestConfig.class})
+class HealthGoalQueryCountTest {
+
+    @TestConfiguration
+    static class CacheTestConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(HealthGoalCache.CACHE_NAME);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private HealthGoalsApiDelegateImpl delegate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private HealthGoalExporter healthGoalExporter;
+
+    @MockitoBean
+    private GoalProgressService goalProgressService;
+
+    @MockitoBean
+    private GoalAuditWriter goalAuditWriter;
+
+    private Statistics statistics;
+    private UUID userId;
+    private UUID goalId;
+
+    @BeforeEach
+    void setup() {
+        UserEntity user = UserEntity.builder().username("visal").email("visal@zohomail.in").build();
+        entityManager.persist(user);
+        userId = user.getId();
+
+        HealthGoalEntity goal = HealthGoalEntity.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .title("Lose Weight")
+                .target(5)
+                .unit("kg")
+                .startDate(LocalDate.now())
+                .status(HealthGoalEntity.Status.ACTIVE)
+                .build();
+        entityManager.persist(goal);
+        goalId = goal.getId();
+        entityManager.persist(new UserGoalSummaryEntity(userId, 1, 0, 0, 0));
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void createHealthGoal_ExistenceCheckAndInsert() {
+        delegate.createHealthGoal("api", new CreateHealthGoalRequest()
+                .userId(userId.toString()).title("Walk").target(10000).unit("steps"), "corr", "req", null);
+        entityManager.flush();
+
+        // existence check, summary counter update, goal insert, event insert
+        assertStatements(4);
+        assertUsersNeverLoaded();
+    }
+
+    @Test
+    void createHealthGoal_RetryWithIdempotencyKey_NoStatements() {
+        CreateHealthGoalRequest request = new CreateHealthGoalRequest()
+                .userId(userId.toString()).title("Walk").target(10000).unit("steps");
+        // the client ApiFilter leaves on the request, so the delegate resolves no key
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        servletRequest.setAttribute(ApiFilter.API_CLIENT, new ApiClient("bootstrap", RateLimiter.UNLIMITED));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+        try {
+            delegate.createHealthGoal("api_key", request, "corr", "req", "walk-1");
+            entityManager.flush();
+
+            // key lookup and key insert on top of the plain create
+            assertStatements(6);
+
+            statistics.clear();
+            delegate.createHealthGoal("api_key", request, "corr", "req", "walk-1");
+            entityManager.flush();
+
+            assertStatements(0);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void getHealthGoalSummary_OneSelect() {
+        delegate.getHealthGoalSummary("api", userId, "corr", "req");
+
+        assertStatements(1);
+        assertUsersNeverLoaded();
+    }
+
+    @Test
+    void getHealthGoalById_OneSelectThenCached() {
+        delegate.getHealthGoalById(goalId, "api", "corr", "req", null);
+        delegate.getHealthGoalById(goalId, "api", "corr", "req", null);
+
+        assertStatements(1);
+        assertUsersNeverLoaded();
+    }
+
+    @Test
+    void getHealthGoalById_NotModifiedReadsVersionOnly() {
+        delegate.getHealthGoalById(goalId, "api", "corr", "req", "\"0\"");
+
+        assertStatements(1);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void listHealthGoals_OneSelectRegardlessOfPageSize() {
+        for (int i = 0; i < 20; i++) {
+            entityManager.persist(HealthGoalEntity.builder().id(UUID.randomUUID()).userId(userId)
+                    .title("Goal " + i).status(HealthGoalEntity.Status.ACTIVE).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<HealthGoal> goals = delegate.listHealthGoals("api", "corr", "req",
+                userId, "ACTIVE", null, null, null, 50).getBody();
+
+        assertEquals(21, goals.size());
+        assertStatements(1);
+        assertUsersNeverLoaded();
+    }
+
+    @Test
+    void updateHealthGoal_SelectAndUpdate() {
+        delegate.updateHealthGoal(goalId, "api", new UpdateHealthGoalRequest().title("Updated Title"),
+                "corr", "req", "\"0\"");
+        entityManager.flush();
+
+        // select, update, event insert
+        assertStatements(3);
+        assertUsersNeverLoaded();
+    }
+
+    @Test
+    void updateHealthGoal_StatusChangeAlsoUpdatesSummary() {
+        delegate.updateHealthGoal(goalId, "api", new UpdateHealthGoalRequest()
+                .status(UpdateHealthGoalRequest.StatusEnum.COMPLETED), "corr", "req", null);
+        entityManager.flush();
+
+        assertStatements(4);
+        assertEquals(1, entityManager.find(UserGoalSummaryEntity.class, userId).getCompleted());
+    }
+
+    @Test
+    void deleteHealthGoal_SelectDeleteAndSummaryUpdate() {
+        delegate.deleteHealthGoal(goalId, "api", "corr", "req");
+        entityManager.flush();
+
+        // the goal is read for its owner and status, copied to the archive, then removed with a version check;
+        // plus the event insert
+        assertStatements(5);
+    }
+
+    @Test
+    void batchHealthGoals_FixedStatementsForManyItems() {
+        List<HealthGoalBatchOperation> operations = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            operations.add(new HealthGoalBatchOperation().op(HealthGoalBatchOperation.OpEnum.CREATE)
+                    .create(new CreateHealthGoalRequest().userId(userId.toString()).title("Goal " + i)));
+        }
+        operations.add(new HealthGoalBatchOperation().op(HealthGoalBatchOperation.OpEnum.UPDATE).id(goalId)
+                .update(new UpdateHealthGoalRequest().title("Updated Title")));
+
+        delegate.batchHealthGoals("api", new HealthGoalBatchRequest().operations(operations), "corr", "req");
+        entityManager.flush();
+
+        // goal lookup, user lookup, batched insert, update, one summary update for the single owner and one
+        // batched insert of all eleven events
+        assertStatements(6);
+        assertUsersNeverLoaded();
+    }
+
+    @Test
+    void listHealthGoalAudit_OneRangeScan() {
+        delegate.listHealthGoalAudit(goalId, "api", "corr", "req", null, 50);
+
+        assertStatements(1);
+    }
+
+    @Test
+    void listHealthGoalChanges_OneRangeScan() {
+        delegate.listHealthGoalChanges("api", "corr", "req", 0L, 50);
+
+        assertStatements(1);
+    }
+
+    private void assertStatements(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount(), "prepared SQL statements");
+    }
+
+    private void assertUsersNeverLoaded() {
+        assertEquals(0, statistics.getEntityStatistics(UserEntity.class.getName()).getLoadCount(), "users loaded");
+    }
+}
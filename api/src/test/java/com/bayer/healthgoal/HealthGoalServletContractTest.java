@@ -0,0 +1,674 @@
+package com.bayer.healthgoal;
+
+import com.bayer.healthgoal.contract.HealthGoalApiContractTest;
+import com.bayer.healthgoal.apikey.ApiKeyService;
+import com.bayer.healthgoal.lifecycle.GoalArchiveJob;
+import com.bayer.healthgoal.lifecycle.GoalExpiryJob;
+import com.bayer.healthgoal.outbox.GoalEvent;
+import com.bayer.healthgoal.outbox.GoalEventRelay;
+import com.bayer.healthgoal.outbox.GoalEventSink;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// metrics export is off in tests by default; the prometheus test below needs the real registry
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:servlet-contract;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never",
+        // the test relays explicitly
+        "healthgoal.outbox.relay-interval=1h",
+        "healthgoal.lifecycle.expiry-cron=-",
+        "healthgoal.archive.cron=-",
+        "healthgoal.audit.spool-dir=target/audit-spool"
+})
+class HealthGoalServletContractTest extends HealthGoalApiContractTest {
+
+    private static final List<GoalEvent> PUBLISHED = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private GoalEventRelay goalEventRelay;
+
+    @Autowired
+    private GoalExpiryJob goalExpiryJob;
+
+    @Autowired
+    private GoalArchiveJob goalArchiveJob;
+
+    @TestConfiguration
+    static class RecordingSinkConfiguration {
+
+        @Bean
+        GoalEventSink recordingSink() {
+            return PUBLISHED::addAll;
+        }
+    }
+
+    @Override
+    protected UUID createUser() {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("insert into users (id, username, email) values (?, ?, ?)",
+                id, "user-" + id, id + "@example.com");
+        return id;
+    }
+
+    @Test
+    void goalProgress_AggregatesRecordedEntriesAgainstTarget() {
+        String id = createGoal("Steps");
+        Instant now = Instant.now();
+        LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+        String yesterday = today.minusDays(1).atStartOfDay(ZoneOffset.UTC).plusHours(12).toInstant().toString();
+        recordProgress(id, "{\"entries\":[{\"recordedAt\":\"" + now + "\",\"value\":500},"
+                + "{\"recordedAt\":\"" + yesterday + "\",\"value\":300}]}")
+                .expectStatus().isNoContent();
+        recordProgress(id, "{\"entries\":[{\"recordedAt\":\"" + now + "\",\"value\":700}]}")
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri(BASE_PATH + "/" + id + "/progress")
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.granularity").isEqualTo("TOTAL")
+                .jsonPath("$.total").isEqualTo(1500)
+                .jsonPath("$.entries").isEqualTo(3)
+                .jsonPath("$.unit").isEqualTo("steps")
+                .jsonPath("$.percentOfTarget").isEqualTo(15.0)
+                .jsonPath("$.buckets.length()").isEqualTo(0);
+
+        webTestClient.get().uri(BASE_PATH + "/" + id + "/progress?granularity=DAILY&from=" + today.minusDays(1)
+                        + "&to=" + today)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.buckets.length()").isEqualTo(2)
+                .jsonPath("$.buckets[0].total").isEqualTo(300)
+                .jsonPath("$.buckets[1].total").isEqualTo(1200)
+                .jsonPath("$.buckets[1].entries").isEqualTo(2);
+
+        webTestClient.get().uri(BASE_PATH + "/" + id + "/progress?granularity=WEEKLY")
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(1500)
+                .jsonPath("$.buckets[0].total").isNumber();
+    }
+
+    @Test
+    void recordGoalProgress_OutsideBackfillWindow_Returns400() {
+        String id = createGoal("Old steps");
+
+        recordProgress(id, "{\"entries\":[{\"recordedAt\":\"2000-01-01T00:00:00Z\",\"value\":1}]}")
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("invalid_request");
+    }
+
+    @Test
+    void recordGoalProgress_UnknownGoal_Returns404() {
+        recordProgress(UUID.randomUUID().toString(),
+                "{\"entries\":[{\"recordedAt\":\"" + Instant.now() + "\",\"value\":1}]}")
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void errorResponse_UsesCorrelationIdAsTraceId() {
+        webTestClient.get().uri(BASE_PATH + "/" + UUID.randomUUID())
+                .header("x-api-key", API_KEY)
+                .header("x-correlation-id", "corr-404")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("resource_not_found")
+                .jsonPath("$.traceId").isEqualTo("corr-404");
+    }
+
+    @Test
+    void listHealthGoalChanges_ReturnsRelayedEventsInOrder() {
+        relayAll();
+        long before = jdbcTemplate.queryForObject("select last_position from goal_event_relay", Long.class);
+        String id = createGoal("Feed");
+        webTestClient.put().uri(BASE_PATH + "/" + id)
+                .header("x-api-key", API_KEY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"status\":\"COMPLETED\"}")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.delete().uri(BASE_PATH + "/" + id)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        // nothing is visible until the relay has published it
+        webTestClient.get().uri(BASE_PATH + "/changes?after=" + before)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.changes.length()").isEqualTo(0)
+                .jsonPath("$.next").isEqualTo(before);
+
+        relayAll();
+
+        webTestClient.get().uri(BASE_PATH + "/changes?after=" + before + "&limit=2")
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.changes.length()").isEqualTo(2)
+                .jsonPath("$.changes[0].position").isEqualTo(before + 1)
+                .jsonPath("$.changes[0].type").isEqualTo("CREATED")
+                .jsonPath("$.changes[0].goalId").isEqualTo(id)
+                .jsonPath("$.changes[0].goal.title").isEqualTo("Feed")
+                .jsonPath("$.changes[1].type").isEqualTo("UPDATED")
+                .jsonPath("$.changes[1].goal.status").isEqualTo("COMPLETED")
+                .jsonPath("$.next").isEqualTo(before + 2);
+
+        webTestClient.get().uri(BASE_PATH + "/changes?after=" + (before + 2))
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.changes.length()").isEqualTo(1)
+                .jsonPath("$.changes[0].type").isEqualTo("DELETED")
+                .jsonPath("$.changes[0].goal").doesNotExist()
+                .jsonPath("$.next").isEqualTo(before + 3);
+
+        List<GoalEvent> published = PUBLISHED.stream()
+                .filter(event -> event.goalId().toString().equals(id))
+                .toList();
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"), published.stream().map(GoalEvent::type).toList());
+        assertEquals(List.of(before + 1, before + 2, before + 3),
+                published.stream().map(GoalEvent::position).toList());
+    }
+
+    @Test
+    void listHealthGoalAudit_RecordsChangedFieldsWithRequestIds() throws InterruptedException {
+        String id = createGoal("Audited");
+        webTestClient.put().uri(BASE_PATH + "/" + id)
+                .header("x-api-key", API_KEY)
+                .header("x-correlation-id", "corr-audit")
+                .header("x-request-id", "req-audit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\"Audited again\",\"status\":\"COMPLETED\",\"unit\":\"km\"}")
+                .exchange()
+                .expectStatus().isOk();
+
+        // written by the background writer after the update committed
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (jdbcTemplate.queryForObject("select count(*) from goal_audit where goal_id = ?", Long.class,
+                UUID.fromString(id)) < 2) {
+            assertTrue(System.nanoTime() < deadline, "audit entries were not written");
+            Thread.sleep(20);
+        }
+
+        webTestClient.get().uri(BASE_PATH + "/" + id + "/audit?limit=1")
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists("x-next-cursor")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1);
+
+        // unit is not audited
+        webTestClient.get().uri(BASE_PATH + "/" + id + "/audit")
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("x-next-cursor")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[?(@.field == 'title')].oldValue").isEqualTo("Audited")
+                .jsonPath("$[?(@.field == 'title')].newValue").isEqualTo("Audited again")
+                .jsonPath("$[?(@.field == 'status')].oldValue").isEqualTo("ACTIVE")
+                .jsonPath("$[?(@.field == 'status')].newValue").isEqualTo("COMPLETED")
+                .jsonPath("$[0].version").isEqualTo(1)
+                .jsonPath("$[0].correlationId").isEqualTo("corr-audit")
+                .jsonPath("$[0].requestId").isEqualTo("req-audit");
+    }
+
+    @Test
+    void createHealthGoal_RetryWithIdempotencyKey_ReturnsOriginalGoal() {
+        UUID owner = createUser();
+        String body = "{\"userId\":\"" + owner + "\",\"title\":\"Retried\",\"target\":10000,\"unit\":\"steps\"}";
+
+        String first = createWithKey("retry-" + owner, body).expectStatus().isCreated()
+                .expectHeader().valueEquals("ETag", "\"0\"")
+                .expectBody(String.class).returnResult().getResponseBody();
+        String retried = createWithKey("retry-" + owner, body).expectStatus().isCreated()
+                .expectHeader().valueEquals("ETag", "\"0\"")
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertEquals(first, retried);
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from health_goals where user_id = ?",
+                Long.class, owner));
+
+        createWithKey("retry-" + owner, body.replace("Retried", "Different"))
+                .expectStatus().isEqualTo(422)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("idempotency_key_reused");
+    }
+
+    @Test
+    void createHealthGoal_SameIdempotencyKeyFromAnotherClient_CreatesItsOwnGoal() {
+        UUID owner = createUser();
+        String otherKey = "other-client-" + owner;
+        jdbcTemplate.update("insert into api_keys (id, client_name, key_hash, requests_per_second, burst, active)"
+                + " values (?, ?, ?, 0, 1, true)", UUID.randomUUID(), "other-" + owner, ApiKeyService.hash(otherKey));
+        String body = "{\"userId\":\"" + owner + "\",\"title\":\"Shared key\"}";
+
+        String first = createWithKey(API_KEY, "shared-" + owner, body).expectStatus().isCreated()
+                .expectBody(String.class).returnResult().getResponseBody();
+        String other = createWithKey(otherKey, "shared-" + owner, body).expectStatus().isCreated()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertNotEquals(first, other);
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from health_goals where user_id = ?",
+                Long.class, owner));
+    }
+
+    private WebTestClient.ResponseSpec createWithKey(String key, String body) {
+        return createWithKey(API_KEY, key, body);
+    }
+
+    private WebTestClient.ResponseSpec createWithKey(String apiKey, String key, String body) {
+        return webTestClient.post().uri(BASE_PATH)
+                .header("x-api-key", apiKey)
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange();
+    }
+
+    @Test
+    void searchHealthGoals_MatchesWordPrefixesTitlesFirst() {
+        UUID owner = createUser();
+        createOwnedGoal(owner, "Evening walk", "Walk the marathon route");
+        createOwnedGoal(owner, "Marathon training", "Run three times a week");
+        createOwnedGoal(owner, "Drink water", "Two litres a day");
+
+        webTestClient.get().uri(BASE_PATH + "/search?q=marath&userId=" + owner + "&limit=1")
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("x-next-cursor", "1")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].title").isEqualTo("Marathon training");
+
+        webTestClient.get().uri(BASE_PATH + "/search?q=marath&userId=" + owner + "&limit=1&cursor=1")
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("x-next-cursor")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].title").isEqualTo("Evening walk");
+
+        webTestClient.get().uri(BASE_PATH + "/search?q=walk marathon&userId=" + owner + "&status=ACTIVE")
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].title").isEqualTo("Evening walk");
+    }
+
+    @Test
+    void searchHealthGoals_BlankQuery_Returns400() {
+        webTestClient.get().uri(BASE_PATH + "/search?q= ")
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void expireOverdueGoals_ExpiresActiveGoalsPastTheirEndDate() {
+        UUID owner = createUser();
+        createOwnedGoal(owner, "Ended yesterday", "Overdue");
+        createOwnedGoal(owner, "Ends today", "Still running");
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        jdbcTemplate.update("update health_goals set end_date = ? where user_id = ? and title = ?",
+                today.minusDays(1), owner, "Ended yesterday");
+        jdbcTemplate.update("update health_goals set end_date = ? where user_id = ? and title = ?",
+                today, owner, "Ends today");
+
+        assertTrue(goalExpiryJob.expireOverdueGoals() >= 1);
+
+        webTestClient.get().uri(BASE_PATH + "?userId=" + owner + "&status=EXPIRED")
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].title").isEqualTo("Ended yesterday")
+                .jsonPath("$[0].status").isEqualTo("EXPIRED");
+
+        webTestClient.get().uri(BASE_PATH + "/summary?userId=" + owner)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.active").isEqualTo(1)
+                .jsonPath("$.expired").isEqualTo(1)
+                .jsonPath("$.total").isEqualTo(2);
+
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from goal_events g join health_goals h"
+                + " on h.id = g.goal_id where h.user_id = ? and g.event_type = 'UPDATED' and g.version = h.version"
+                + " and h.status = 'EXPIRED'", Long.class, owner));
+        assertEquals(0, goalExpiryJob.expireOverdueGoals());
+    }
+
+    @Test
+    void archiveTerminalGoals_MovesOldTerminalGoalsAndServesThemById() {
+        UUID owner = createUser();
+        createOwnedGoal(owner, "Finished long ago", "Archived");
+        createOwnedGoal(owner, "Finished recently", "Kept");
+        createOwnedGoal(owner, "Still running", "Kept");
+        UUID old = goalId(owner, "Finished long ago");
+        complete(old);
+        complete(goalId(owner, "Finished recently"));
+        jdbcTemplate.update("update health_goals set status_changed_at = ? where id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(91))), old);
+
+        assertTrue(goalArchiveJob.archiveTerminalGoals() >= 1);
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from health_goals where id = ?", Long.class, old));
+
+        webTestClient.get().uri(BASE_PATH + "/" + old)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"1\"")
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Finished long ago")
+                .jsonPath("$.status").isEqualTo("COMPLETED");
+        webTestClient.get().uri(BASE_PATH + "/" + old)
+                .header("x-api-key", API_KEY)
+                .header("If-None-Match", "\"1\"")
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.get().uri(BASE_PATH + "?userId=" + owner)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
+        // archived goals keep their place in the summary
+        webTestClient.get().uri(BASE_PATH + "/summary?userId=" + owner)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.completed").isEqualTo(2)
+                .jsonPath("$.total").isEqualTo(3);
+        assertEquals(0, goalArchiveJob.archiveTerminalGoals());
+    }
+
+    @Test
+    void archiveTerminalGoals_ExpiredGoal_AgesFromWhenItExpired() {
+        UUID owner = createUser();
+        createOwnedGoal(owner, "Ended long ago", "Overdue");
+        UUID id = goalId(owner, "Ended long ago");
+        jdbcTemplate.update("update health_goals set end_date = ? where id = ?",
+                LocalDate.now(ZoneOffset.UTC).minusDays(200), id);
+        assertTrue(goalExpiryJob.expireOverdueGoals() >= 1);
+
+        // an end date far in the past does not count, the expiry just now does
+        goalArchiveJob.archiveTerminalGoals();
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from health_goals where id = ?", Long.class, id));
+
+        jdbcTemplate.update("update health_goals set status_changed_at = ? where id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(91))), id);
+        assertTrue(goalArchiveJob.archiveTerminalGoals() >= 1);
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from health_goals where id = ?", Long.class, id));
+
+        webTestClient.get().uri(BASE_PATH + "/" + id)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("EXPIRED");
+        webTestClient.get().uri(BASE_PATH + "/summary?userId=" + owner)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.expired").isEqualTo(1)
+                .jsonPath("$.total").isEqualTo(1);
+    }
+
+    @Test
+    void archivedGoal_IsReadOnly_RejectsProgressUpdatesAndDeletes() {
+        UUID owner = createUser();
+        createOwnedGoal(owner, "Walked enough", "Archived");
+        UUID id = goalId(owner, "Walked enough");
+        recordProgress(id.toString(), "{\"entries\":[{\"recordedAt\":\"" + Instant.now() + "\",\"value\":500}]}")
+                .expectStatus().isNoContent();
+        complete(id);
+        // cached before it is archived, so the archive job has to replace the cached copy
+        webTestClient.get().uri(BASE_PATH + "/" + id)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk();
+        jdbcTemplate.update("update health_goals set status_changed_at = ? where id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(91))), id);
+        assertTrue(goalArchiveJob.archiveTerminalGoals() >= 1);
+
+        recordProgress(id.toString(), "{\"entries\":[{\"recordedAt\":\"" + Instant.now() + "\",\"value\":1}]}")
+                .expectStatus().isNotFound();
+        webTestClient.put().uri(BASE_PATH + "/" + id)
+                .header("x-api-key", API_KEY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"status\":\"ACTIVE\"}")
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri(BASE_PATH + "/" + id)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        webTestClient.get().uri(BASE_PATH + "/" + id)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("COMPLETED");
+        webTestClient.get().uri(BASE_PATH + "/" + id + "/progress")
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(500);
+    }
+
+    @Test
+    void deleteHealthGoal_KeepsTheGoalInTheArchiveMarkedDeleted() {
+        UUID owner = createUser();
+        createOwnedGoal(owner, "Deleted", "Soft");
+        UUID id = goalId(owner, "Deleted");
+
+        webTestClient.delete().uri(BASE_PATH + "/" + id)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri(BASE_PATH + "/" + id)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isNotFound();
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from health_goals_archive"
+                + " where id = ? and deleted_at is not null and title = 'Deleted'", Long.class, id));
+    }
+
+    @Test
+    void deleteHealthGoal_SingleOrBatched_DropsTheGoalsDailyProgress() {
+        UUID owner = createUser();
+        createOwnedGoal(owner, "Deleted alone", "Progress");
+        createOwnedGoal(owner, "Deleted in a batch", "Progress");
+        UUID single = goalId(owner, "Deleted alone");
+        UUID batched = goalId(owner, "Deleted in a batch");
+        for (UUID id : List.of(single, batched)) {
+            recordProgress(id.toString(), "{\"entries\":[{\"recordedAt\":\"" + Instant.now() + "\",\"value\":500}]}")
+                    .expectStatus().isNoContent();
+        }
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from goal_progress_daily where goal_id in (?, ?)",
+                Long.class, single, batched));
+
+        webTestClient.delete().uri(BASE_PATH + "/" + single)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.post().uri(BASE_PATH + "/batch")
+                .header("x-api-key", API_KEY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"operations\":[{\"op\":\"DELETE\",\"id\":\"" + batched + "\"}]}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results[0].status").isEqualTo(204);
+
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from goal_progress_daily where goal_id in (?, ?)",
+                Long.class, single, batched));
+    }
+
+    @Test
+    void batchHealthGoals_CreateWithArchivedOrDeletedId_Returns409() {
+        UUID owner = createUser();
+        createOwnedGoal(owner, "Archived", "Old");
+        createOwnedGoal(owner, "Deleted", "Gone");
+        UUID archived = goalId(owner, "Archived");
+        UUID deleted = goalId(owner, "Deleted");
+        complete(archived);
+        jdbcTemplate.update("update health_goals set status_changed_at = ? where id = ?",
+                Timestamp.from(Instant.now().minus(Duration.ofDays(91))), archived);
+        assertTrue(goalArchiveJob.archiveTerminalGoals() >= 1);
+        webTestClient.delete().uri(BASE_PATH + "/" + deleted)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        // reused, either id would put a second live copy of the goal into the archive once archived again
+        webTestClient.post().uri(BASE_PATH + "/batch")
+                .header("x-api-key", API_KEY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"operations":[
+                          {"op":"CREATE","id":"%s","create":{"userId":"%s","title":"Reused"}},
+                          {"op":"CREATE","id":"%s","create":{"userId":"%s","title":"Reused"}}
+                        ]}""".formatted(archived, owner, deleted, owner))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results[0].status").isEqualTo(409)
+                .jsonPath("$.results[0].error.error").isEqualTo("conflict")
+                .jsonPath("$.results[1].status").isEqualTo(409);
+
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from health_goals where id in (?, ?)",
+                Long.class, archived, deleted));
+        webTestClient.get().uri(BASE_PATH + "/" + archived)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Archived");
+    }
+
+    private UUID goalId(UUID owner, String title) {
+        return jdbcTemplate.queryForObject("select id from health_goals where user_id = ? and title = ?",
+                UUID.class, owner, title);
+    }
+
+    private void complete(UUID id) {
+        webTestClient.put().uri(BASE_PATH + "/" + id)
+                .header("x-api-key", API_KEY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"status\":\"COMPLETED\"}")
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private void createOwnedGoal(UUID owner, String title, String description) {
+        webTestClient.post().uri(BASE_PATH)
+                .header("x-api-key", API_KEY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"userId\":\"" + owner + "\",\"title\":\"" + title + "\",\"description\":\""
+                        + description + "\"}")
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
+    @Test
+    void listHealthGoalChanges_NegativeAfter_Returns400() {
+        webTestClient.get().uri(BASE_PATH + "/changes?after=-1")
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    // the startup run of the scheduled relay may still hold the relay row, in which case relay() returns 0
+    private void relayAll() {
+        while (jdbcTemplate.queryForObject("select count(*) from goal_events where feed_position is null",
+                Long.class) > 0) {
+            goalEventRelay.relay();
+        }
+    }
+
+    private WebTestClient.ResponseSpec recordProgress(String id, String body) {
+        return webTestClient.post().uri(BASE_PATH + "/" + id + "/progress")
+                .header("x-api-key", API_KEY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange();
+    }
+
+    @Test
+    void prometheusEndpoint_ExposesOperationPhaseTimers() {
+        createGoal("Metrics");
+
+        String scrape = webTestClient.mutate()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                .build()
+                .get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertNotNull(scrape);
+        assertTrue(scrape.contains("healthgoal_operation_seconds_count{operation=\"createHealthGoal\",outcome=\"SUCCESS\"}"),
+                "operation timer missing");
+        for (String phase : new String[]{"repository", "mapper", "serialization"}) {
+            assertTrue(scrape.contains("healthgoal_operation_phase_seconds_count{operation=\"createHealthGoal\",phase=\""
+                    + phase + "\"}"), phase + " phase missing");
+        }
+        assertTrue(scrape.contains("hikaricp_connections_acquire_seconds_bucket"), "pool wait histogram missing");
+    }
+}
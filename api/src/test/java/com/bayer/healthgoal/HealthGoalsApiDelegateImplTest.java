@@ -2,31 +2,75 @@ package com.bayer.healthgoal;
 
 import com.bayer.healthgoal.api.model.CreateHealthGoalRequest;
 import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.api.model.HealthGoalBatchOperation;
+import com.bayer.healthgoal.api.model.HealthGoalBatchRequest;
+import com.bayer.healthgoal.api.model.HealthGoalBatchResponse;
+import com.bayer.healthgoal.api.model.HealthGoalBatchResult;
+import com.bayer.healthgoal.api.model.ProgressEntry;
+import com.bayer.healthgoal.api.model.RecordProgressRequest;
 import com.bayer.healthgoal.api.model.UpdateHealthGoalRequest;
+import com.bayer.healthgoal.apikey.ApiClient;
+import com.bayer.healthgoal.apikey.RateLimiter;
+import com.bayer.healthgoal.audit.GoalAuditTrail;
+import com.bayer.healthgoal.cache.HealthGoalCache;
+import com.bayer.healthgoal.config.ApiFilter;
+import com.bayer.healthgoal.entity.HealthGoalArchiveEntity;
 import com.bayer.healthgoal.entity.HealthGoalEntity;
 import com.bayer.healthgoal.entity.UserEntity;
 import com.bayer.healthgoal.exceptions.InvalidRequestException;
+import com.bayer.healthgoal.exceptions.PreconditionFailedException;
 import com.bayer.healthgoal.exceptions.ResourceNotFoundException;
 import com.bayer.healthgoal.exceptions.UserNotFoundException;
+import com.bayer.healthgoal.export.HealthGoalExporter;
+import com.bayer.healthgoal.idempotency.CreatedGoal;
+import com.bayer.healthgoal.idempotency.IdempotencyService;
 import com.bayer.healthgoal.mapper.HealthGoalMapper;
+import com.bayer.healthgoal.metrics.OperationMetrics;
+import com.bayer.healthgoal.outbox.GoalChangeFeed;
+import com.bayer.healthgoal.outbox.GoalEventOutbox;
+import com.bayer.healthgoal.progress.GoalProgressService;
+import com.bayer.healthgoal.repository.GoalAuditRepository;
+import com.bayer.healthgoal.repository.HealthGoalArchiveRepository;
 import com.bayer.healthgoal.repository.HealthGoalRepository;
+import com.bayer.healthgoal.repository.HealthGoalSearchRepository;
 import com.bayer.healthgoal.repository.UserRepository;
+import com.bayer.healthgoal.summary.GoalSummaryService;
+import com.bayer.healthgoal.utlity.ApiConstants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,12 +80,46 @@ class HealthGoalsApiDelegateImplTest {
     @Mock
     private HealthGoalRepository healthGoalRepository;
 
+    @Mock
+    private HealthGoalArchiveRepository healthGoalArchiveRepository;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private HealthGoalMapper healthGoalMapper;
 
+    @Mock
+    private HealthGoalExporter healthGoalExporter;
+
+    @Mock
+    private GoalProgressService goalProgressService;
+
+    @Mock
+    private GoalSummaryService goalSummaryService;
+
+    @Mock
+    private GoalEventOutbox goalEventOutbox;
+
+    @Mock
+    private GoalChangeFeed goalChangeFeed;
+
+    @Mock
+    private GoalAuditTrail goalAuditTrail;
+
+    @Mock
+    private GoalAuditRepository goalAuditRepository;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Spy
+    private HealthGoalCache healthGoalCache =
+            new HealthGoalCache(new ConcurrentMapCacheManager(HealthGoalCache.CACHE_NAME));
+
+    @Spy
+    private OperationMetrics operationMetrics = new OperationMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private HealthGoalsApiDelegateImpl delegate;
     private UUID userId;
@@ -62,7 +140,7 @@ class HealthGoalsApiDelegateImplTest {
 
         goalEntity = HealthGoalEntity.builder()
                 .id(UUID.randomUUID())
-                .user(userEntity)
+                .userId(userId)
                 .title("Lose Weight")
                 .description("Target to lose 5 kg in 3 months")
                 .target(5)
@@ -70,6 +148,7 @@ class HealthGoalsApiDelegateImplTest {
                 .startDate(LocalDate.now())
                 .endDate(LocalDate.now().plusMonths(3))
                 .status(HealthGoalEntity.Status.ACTIVE)
+                .version(0L)
                 .build();
 
         goalDto = new HealthGoal()
@@ -90,22 +169,43 @@ class HealthGoalsApiDelegateImplTest {
                 .target(5)
                 .unit("kg");
 
-        when(userRepository.findById(userId)).thenReturn(Optional.of(userEntity));
+        when(idempotencyService.createOnce(any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<CreatedGoal>>getArgument(3).get());
+        when(userRepository.existsById(userId)).thenReturn(true);
         when(healthGoalRepository.save(any())).thenReturn(goalEntity);
         when(healthGoalMapper.toDto(goalEntity)).thenReturn(goalDto);
 
-        ResponseEntity<HealthGoal> response = delegate.createHealthGoal("api_key", request, "corr", "req");
+        ResponseEntity<HealthGoal> response = delegate.createHealthGoal("api_key", request, "corr", "req", null);
 
         assertEquals(201, response.getStatusCodeValue());
         assertEquals("Lose Weight", response.getBody().getTitle());
         verify(healthGoalRepository).save(any(HealthGoalEntity.class));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void testCreateHealthGoal_IdempotencyKey_ScopedToTheClientApiFilterAuthenticated() {
+        CreateHealthGoalRequest request = new CreateHealthGoalRequest().userId(userId.toString()).title("Lose Weight");
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+        servletRequest.setAttribute(ApiFilter.API_CLIENT, new ApiClient("mobile", RateLimiter.UNLIMITED));
+        when(idempotencyService.createOnce(any(), any(), any(), any()))
+                .thenReturn(new CreatedGoal(goalDto, 0));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(servletRequest));
+        try {
+            delegate.createHealthGoal("mobile-key", request, "corr", "req", "key-1");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        verify(idempotencyService).createOnce(eq("mobile"), eq("key-1"), eq(request), any());
     }
 
     @Test
     void testCreateHealthGoal_InvalidInput_ThrowsException() {
         CreateHealthGoalRequest request = new CreateHealthGoalRequest();
         assertThrows(InvalidRequestException.class, () ->
-                delegate.createHealthGoal("api_key", request, "corr", "req"));
+                delegate.createHealthGoal("api_key", request, "corr", "req", null));
     }
 
     @Test
@@ -114,21 +214,93 @@ class HealthGoalsApiDelegateImplTest {
                 .userId(userId.toString())
                 .title("Lose Weight");
 
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(idempotencyService.createOnce(any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<CreatedGoal>>getArgument(3).get());
+        when(userRepository.existsById(userId)).thenReturn(false);
 
         assertThrows(UserNotFoundException.class, () ->
-                delegate.createHealthGoal("api_key", request, "corr", "req"));
+                delegate.createHealthGoal("api_key", request, "corr", "req", null));
     }
 
     @Test
     void testListHealthGoals_ReturnsList() {
-        when(healthGoalRepository.findAll()).thenReturn(List.of(goalEntity));
+        when(healthGoalRepository.findPage(any(), eq(HealthGoalsApiDelegateImpl.DEFAULT_PAGE_SIZE + 1)))
+                .thenReturn(List.of(goalEntity));
         when(healthGoalMapper.toDto(goalEntity)).thenReturn(goalDto);
 
-        ResponseEntity<List<HealthGoal>> response = delegate.listHealthGoals("api_key", "corr", "req");
+        ResponseEntity<List<HealthGoal>> response = delegate.listHealthGoals("api_key", "corr", "req",
+                null, null, null, null, null, null);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(1, response.getBody().size());
+        assertNull(response.getHeaders().getFirst(ApiConstants.X_NEXT_CURSOR));
+    }
+
+    @Test
+    void testListHealthGoals_MorePages_ReturnsNextCursor() {
+        HealthGoalEntity second = HealthGoalEntity.builder().id(UUID.randomUUID()).userId(userId).build();
+        when(healthGoalRepository.findPage(any(), eq(2))).thenReturn(List.of(goalEntity, second));
+        when(healthGoalMapper.toDto(goalEntity)).thenReturn(goalDto);
+
+        ResponseEntity<List<HealthGoal>> response = delegate.listHealthGoals("api_key", "corr", "req",
+                userId, "ACTIVE", null, null, UUID.randomUUID().toString(), 1);
+
+        assertEquals(1, response.getBody().size());
+        assertEquals(goalEntity.getId().toString(), response.getHeaders().getFirst(ApiConstants.X_NEXT_CURSOR));
+    }
+
+    @Test
+    void testSearchHealthGoals_TruncatedSearch_MarksEveryPage() {
+        HealthGoalEntity second = HealthGoalEntity.builder().id(UUID.randomUUID()).userId(userId).build();
+        when(healthGoalRepository.search("walk", null, null, 0, 2))
+                .thenReturn(new HealthGoalSearchRepository.SearchPage(List.of(goalEntity, second), true));
+        when(healthGoalRepository.search("walk", null, null, 1, 2))
+                .thenReturn(new HealthGoalSearchRepository.SearchPage(List.of(second), true));
+
+        ResponseEntity<List<HealthGoal>> first = delegate.searchHealthGoals("api_key", "walk", "corr", "req",
+                null, null, null, 1);
+        ResponseEntity<List<HealthGoal>> last = delegate.searchHealthGoals("api_key", "walk", "corr", "req",
+                null, null, "1", 1);
+
+        assertEquals("1", first.getHeaders().getFirst(ApiConstants.X_NEXT_CURSOR));
+        assertEquals("true", first.getHeaders().getFirst(ApiConstants.X_SEARCH_TRUNCATED));
+        assertNull(last.getHeaders().getFirst(ApiConstants.X_NEXT_CURSOR));
+        assertEquals("true", last.getHeaders().getFirst(ApiConstants.X_SEARCH_TRUNCATED));
+    }
+
+    @Test
+    void testSearchHealthGoals_AllMatchesRanked_NoTruncationHeader() {
+        when(healthGoalRepository.search("walk", userId, null, 0, HealthGoalsApiDelegateImpl.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(new HealthGoalSearchRepository.SearchPage(List.of(goalEntity), false));
+
+        ResponseEntity<List<HealthGoal>> response = delegate.searchHealthGoals("api_key", "walk", "corr", "req",
+                userId, null, null, null);
+
+        assertEquals(1, response.getBody().size());
+        assertNull(response.getHeaders().getFirst(ApiConstants.X_SEARCH_TRUNCATED));
+    }
+
+    @Test
+    void testListHealthGoals_InvalidCursorOrLimit_ThrowsException() {
+        assertThrows(InvalidRequestException.class, () -> delegate.listHealthGoals("api_key", "corr", "req",
+                null, null, null, null, "not-a-cursor", null));
+        assertThrows(InvalidRequestException.class, () -> delegate.listHealthGoals("api_key", "corr", "req",
+                null, null, null, null, null, HealthGoalsApiDelegateImpl.MAX_PAGE_SIZE + 1));
+        assertThrows(InvalidRequestException.class, () -> delegate.listHealthGoals("api_key", "corr", "req",
+                null, "DONE", null, null, null, null));
+    }
+
+    @Test
+    void testExportHealthGoals_StreamsNdjson() {
+        StreamingResponseBody body = outputStream -> { };
+        when(healthGoalExporter.export(any())).thenReturn(body);
+
+        ResponseEntity<StreamingResponseBody> response = delegate.exportHealthGoals("api_key", "corr", "req",
+                userId, "ACTIVE", goalEntity.getId().toString());
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertSame(body, response.getBody());
     }
 
     @Test
@@ -136,18 +308,57 @@ class HealthGoalsApiDelegateImplTest {
         when(healthGoalRepository.findById(goalEntity.getId())).thenReturn(Optional.of(goalEntity));
         when(healthGoalMapper.toDto(goalEntity)).thenReturn(goalDto);
 
-        ResponseEntity<HealthGoal> response = delegate.getHealthGoalById(goalEntity.getId(), "api", "corr", "req");
+        ResponseEntity<HealthGoal> response = delegate.getHealthGoalById(goalEntity.getId(), "api", "corr", "req", null);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals("Lose Weight", response.getBody().getTitle());
     }
 
+    @Test
+    void testGetHealthGoalById_SecondReadServedFromCache() {
+        when(healthGoalRepository.findById(goalEntity.getId())).thenReturn(Optional.of(goalEntity));
+        when(healthGoalMapper.toDto(goalEntity)).thenReturn(goalDto);
+
+        delegate.getHealthGoalById(goalEntity.getId(), "api", "corr", "req", null);
+        ResponseEntity<HealthGoal> response = delegate.getHealthGoalById(goalEntity.getId(), "api", "corr", "req", null);
+
+        assertSame(goalDto, response.getBody());
+        verify(healthGoalRepository, times(1)).findById(goalEntity.getId());
+    }
+
+    @Test
+    void testGetHealthGoalById_IfNoneMatchCurrent_ReturnsNotModifiedWithoutLoading() {
+        when(healthGoalRepository.findVersionById(goalEntity.getId())).thenReturn(Optional.of(4L));
+
+        ResponseEntity<HealthGoal> response = delegate.getHealthGoalById(goalEntity.getId(), "api", "corr", "req",
+                "W/\"4\"");
+
+        assertEquals(304, response.getStatusCodeValue());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(healthGoalRepository, never()).findById(any());
+        verify(healthGoalMapper, never()).toDto(any(HealthGoalEntity.class));
+    }
+
+    @Test
+    void testGetHealthGoalById_IfNoneMatchStale_ReturnsBodyAndETag() {
+        when(healthGoalRepository.findVersionById(goalEntity.getId())).thenReturn(Optional.of(0L));
+        when(healthGoalRepository.findById(goalEntity.getId())).thenReturn(Optional.of(goalEntity));
+        when(healthGoalMapper.toDto(goalEntity)).thenReturn(goalDto);
+
+        ResponseEntity<HealthGoal> response = delegate.getHealthGoalById(goalEntity.getId(), "api", "corr", "req",
+                "\"7\"");
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("\"0\"", response.getHeaders().getETag());
+    }
+
     @Test
     void testGetHealthGoalById_NotFound_ThrowsException() {
         UUID id = UUID.randomUUID();
         when(healthGoalRepository.findById(id)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () ->
-                delegate.getHealthGoalById(id, "api", "corr", "req"));
+                delegate.getHealthGoalById(id, "api", "corr", "req", null));
     }
 
     @Test
@@ -158,13 +369,26 @@ class HealthGoalsApiDelegateImplTest {
                 .description("Updated Description");
 
         when(healthGoalRepository.findById(goalId)).thenReturn(Optional.of(goalEntity));
-        when(healthGoalRepository.save(any())).thenReturn(goalEntity);
+        when(healthGoalRepository.saveAndFlush(any())).thenReturn(goalEntity);
         when(healthGoalMapper.toDto(goalEntity)).thenReturn(goalDto);
 
-        ResponseEntity<HealthGoal> response = delegate.updateHealthGoal(goalId, "api", request, "corr", "req");
+        ResponseEntity<HealthGoal> response = delegate.updateHealthGoal(goalId, "api", request, "corr", "req", "\"0\"");
 
         assertEquals(200, response.getStatusCodeValue());
-        verify(healthGoalRepository).save(any(HealthGoalEntity.class));
+        assertEquals("\"0\"", response.getHeaders().getETag());
+        verify(healthGoalRepository).saveAndFlush(any(HealthGoalEntity.class));
+        verify(healthGoalCache).evict(goalId, 0L);
+        verify(goalAuditTrail).updated(any(), eq(goalEntity), eq("corr"), eq("req"));
+    }
+
+    @Test
+    void testUpdateHealthGoal_StaleIfMatch_ThrowsPreconditionFailed() {
+        goalEntity.setVersion(3L);
+        when(healthGoalRepository.findById(goalEntity.getId())).thenReturn(Optional.of(goalEntity));
+
+        assertThrows(PreconditionFailedException.class, () -> delegate.updateHealthGoal(goalEntity.getId(), "api",
+                new UpdateHealthGoalRequest().title("Updated Title"), "corr", "req", "\"2\""));
+        assertEquals("Lose Weight", goalEntity.getTitle());
     }
 
     @Test
@@ -175,25 +399,104 @@ class HealthGoalsApiDelegateImplTest {
         when(healthGoalRepository.findById(id)).thenReturn(Optional.empty());
 
         assertThrows(ResourceNotFoundException.class, () ->
-                delegate.updateHealthGoal(id, "api", request, "corr", "req"));
+                delegate.updateHealthGoal(id, "api", request, "corr", "req", null));
+    }
+
+    @Test
+    void testBatchHealthGoals_MixedOperations_ReturnsPerItemResults() {
+        UUID clientId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        HealthGoalEntity toDelete = HealthGoalEntity.builder().id(UUID.randomUUID()).userId(userId).build();
+        HealthGoalBatchRequest request = new HealthGoalBatchRequest().operations(List.of(
+                new HealthGoalBatchOperation().op(HealthGoalBatchOperation.OpEnum.CREATE).id(clientId)
+                        .create(new CreateHealthGoalRequest().userId(userId.toString()).title("Walk")),
+                new HealthGoalBatchOperation().op(HealthGoalBatchOperation.OpEnum.UPDATE).id(goalEntity.getId())
+                        .update(new UpdateHealthGoalRequest().title("Updated Title")),
+                new HealthGoalBatchOperation().op(HealthGoalBatchOperation.OpEnum.DELETE).id(toDelete.getId()),
+                new HealthGoalBatchOperation().op(HealthGoalBatchOperation.OpEnum.DELETE).id(missingId)));
+
+        when(healthGoalRepository.findAllById(any())).thenReturn(List.of(goalEntity, toDelete));
+        when(userRepository.findExistingIds(Set.of(userId))).thenReturn(Set.of(userId));
+        when(healthGoalMapper.toDto(any(HealthGoalEntity.class))).thenReturn(goalDto);
+
+        ResponseEntity<HealthGoalBatchResponse> response = delegate.batchHealthGoals("api", request, "corr", "req");
+
+        List<HealthGoalBatchResult> results = response.getBody().getResults();
+        assertEquals(List.of(201, 200, 204, 404), results.stream().map(HealthGoalBatchResult::getStatus).toList());
+        assertEquals(clientId, results.get(0).getId());
+        assertEquals("Updated Title", goalEntity.getTitle());
+        assertEquals("resource_not_found", results.get(3).getError().getError());
+        verify(healthGoalRepository).saveAll(argThat(goals -> goals.iterator().next().getId().equals(clientId)));
+        verify(healthGoalRepository).deleteAll(List.of(toDelete));
+        verify(goalSummaryService).apply(any());
+    }
+
+    @Test
+    void testBatchHealthGoals_UnknownUser_RejectsItem() {
+        HealthGoalBatchRequest request = new HealthGoalBatchRequest().operations(List.of(
+                new HealthGoalBatchOperation().op(HealthGoalBatchOperation.OpEnum.CREATE)
+                        .create(new CreateHealthGoalRequest().userId(userId.toString()).title("Walk"))));
+
+        when(userRepository.findExistingIds(Set.of(userId))).thenReturn(Set.of());
+
+        ResponseEntity<HealthGoalBatchResponse> response = delegate.batchHealthGoals("api", request, "corr", "req");
+
+        assertEquals(404, response.getBody().getResults().get(0).getStatus());
+        assertEquals("user_not_found", response.getBody().getResults().get(0).getError().getError());
+    }
+
+    @Test
+    void testBatchHealthGoals_TooManyOperations_ThrowsException() {
+        List<HealthGoalBatchOperation> operations = Collections.nCopies(HealthGoalsApiDelegateImpl.MAX_BATCH_SIZE + 1,
+                new HealthGoalBatchOperation().op(HealthGoalBatchOperation.OpEnum.DELETE).id(UUID.randomUUID()));
+
+        assertThrows(InvalidRequestException.class, () -> delegate.batchHealthGoals("api",
+                new HealthGoalBatchRequest().operations(operations), "corr", "req"));
     }
 
     @Test
     void testDeleteHealthGoal_Success() {
-        when(healthGoalRepository.existsById(goalEntity.getId())).thenReturn(true);
+        when(healthGoalRepository.findById(goalEntity.getId())).thenReturn(Optional.of(goalEntity));
 
         ResponseEntity<Void> response = delegate.deleteHealthGoal(goalEntity.getId(), "api", "corr", "req");
 
         assertEquals(204, response.getStatusCodeValue());
-        verify(healthGoalRepository).deleteById(goalEntity.getId());
+        verify(healthGoalRepository).delete(goalEntity);
+        verify(goalSummaryService).apply(any());
+        verify(healthGoalCache).evictDeleted(goalEntity.getId());
     }
 
     @Test
     void testDeleteHealthGoal_NotFound_ThrowsException() {
-        when(healthGoalRepository.existsById(goalEntity.getId())).thenReturn(false);
+        when(healthGoalRepository.findById(goalEntity.getId())).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () ->
                 delegate.deleteHealthGoal(goalEntity.getId(), "api", "corr", "req"));
+        verify(goalSummaryService, never()).apply(any());
     }
 
+    @Test
+    void testRecordGoalProgress_UnknownGoal_ThrowsWithoutWriting() {
+        UUID id = UUID.randomUUID();
+        when(healthGoalRepository.findById(id)).thenReturn(Optional.empty());
+        RecordProgressRequest request = new RecordProgressRequest(List.of(new ProgressEntry(new Date(), 500L)));
+
+        assertThrows(ResourceNotFoundException.class, () ->
+                delegate.recordGoalProgress(id, "api_key", request, "corr", "req"));
+        verify(goalProgressService, never()).record(any(), any());
+    }
 
-}
\ No newline at end of file
+    @Test
+    void testRecordGoalProgress_ArchivedGoal_ThrowsWithoutWriting() {
+        UUID id = UUID.randomUUID();
+        HealthGoalArchiveEntity archived = mock(HealthGoalArchiveEntity.class);
+        when(archived.getVersion()).thenReturn(3L);
+        when(healthGoalRepository.findById(id)).thenReturn(Optional.empty());
+        when(healthGoalArchiveRepository.findByIdAndDeletedAtIsNull(id)).thenReturn(Optional.of(archived));
+        when(healthGoalMapper.toDto(archived)).thenReturn(goalDto);
+        RecordProgressRequest request = new RecordProgressRequest(List.of(new ProgressEntry(new Date(), 500L)));
+
+        assertThrows(ResourceNotFoundException.class, () ->
+                delegate.recordGoalProgress(id, "api_key", request, "corr", "req"));
+        verify(goalProgressService, never()).record(any(), any());
+    }
+}
@@ -0,0 +1,156 @@
+package com.bayer.healthgoal.apikey;
+
+import com.bayer.healthgoal.entity.ApiKeyEntity;
+import com.bayer.healthgoal.repository.ApiKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ApiKeyServiceTest {
+
+    private ApiKeyRepository apiKeyRepository;
+    private ApiKeyService apiKeyService;
+
+    @BeforeEach
+    void setup() {
+        apiKeyRepository = mock(ApiKeyRepository.class);
+        apiKeyService = new ApiKeyService(apiKeyRepository, "api_key", 0, 100, Duration.ofMinutes(1), 100, 50);
+    }
+
+    @Test
+    void testIsBootstrapKey_MatchesOnlyTheExactKey() {
+        assertTrue(apiKeyService.isBootstrapKey("api_key"));
+        assertFalse(apiKeyService.isBootstrapKey(""));
+        assertFalse(apiKeyService.isBootstrapKey("api_ke"));
+        assertFalse(apiKeyService.isBootstrapKey("api_key_"));
+        assertFalse(apiKeyService.isBootstrapKey("api_kez"));
+        // 'y' + 0x100 has the same low byte as 'y'
+        assertFalse(apiKeyService.isBootstrapKey("api_keŹ"));
+    }
+
+    @Test
+    void testAuthenticate_BootstrapKey_NoDatabaseLookup() {
+        assertEquals("bootstrap", apiKeyService.authenticate("api_key").orElseThrow().name());
+        verify(apiKeyRepository, never()).findByKeyHashAndActiveTrue(anyString());
+    }
+
+    @Test
+    void testAuthenticate_BlankBootstrapKey_IsDisabled() {
+        ApiKeyService withoutBootstrap = new ApiKeyService(apiKeyRepository, "", 0, 100, Duration.ofMinutes(1), 100, 50);
+
+        assertTrue(withoutBootstrap.authenticate("").isEmpty());
+        assertFalse(withoutBootstrap.isBootstrapKey(""));
+    }
+
+    @Test
+    void testAuthenticate_StoredKey_LooksUpHashOnceThenCaches() {
+        String hash = ApiKeyService.hash("client-secret");
+        when(apiKeyRepository.findByKeyHashAndActiveTrue(hash)).thenReturn(Optional.of(ApiKeyEntity.builder()
+                .id(UUID.randomUUID()).clientName("mobile").keyHash(hash).requestsPerSecond(10).burst(20).build()));
+
+        ApiClient first = apiKeyService.authenticate("client-secret").orElseThrow();
+        ApiClient second = apiKeyService.authenticate("client-secret").orElseThrow();
+
+        assertEquals("mobile", first.name());
+        assertSame(first, second);
+        verify(apiKeyRepository, times(1)).findByKeyHashAndActiveTrue(hash);
+    }
+
+    @Test
+    void testAuthenticate_UnknownKey_IsCachedAsMissing() {
+        when(apiKeyRepository.findByKeyHashAndActiveTrue(anyString())).thenReturn(Optional.empty());
+
+        assertTrue(apiKeyService.authenticate("guess").isEmpty());
+        assertTrue(apiKeyService.authenticate("guess").isEmpty());
+
+        verify(apiKeyRepository, times(1)).findByKeyHashAndActiveTrue(ApiKeyService.hash("guess"));
+    }
+
+    @Test
+    void testAuthenticate_UnknownKeys_DoNotEvictValidOnes() {
+        ApiKeyService small = new ApiKeyService(apiKeyRepository, "api_key", 0, 1, Duration.ofMinutes(1), 1, 1000);
+        String hash = ApiKeyService.hash("client-secret");
+        when(apiKeyRepository.findByKeyHashAndActiveTrue(anyString())).thenReturn(Optional.empty());
+        when(apiKeyRepository.findByKeyHashAndActiveTrue(hash)).thenReturn(Optional.of(ApiKeyEntity.builder()
+                .id(UUID.randomUUID()).clientName("mobile").keyHash(hash).requestsPerSecond(10).burst(20).build()));
+
+        ApiClient client = small.authenticate("client-secret").orElseThrow();
+        for (int i = 0; i < 20; i++) {
+            small.authenticate("guess-" + i);
+        }
+
+        assertSame(client, small.authenticate("client-secret").orElseThrow());
+        verify(apiKeyRepository, times(1)).findByKeyHashAndActiveTrue(hash);
+    }
+
+    @Test
+    void testAuthenticate_LookupsOverTheLimit_RejectedWithoutQuery() {
+        ApiKeyService limited = new ApiKeyService(apiKeyRepository, "api_key", 0, 100, Duration.ofMinutes(1), 100, 1);
+        when(apiKeyRepository.findByKeyHashAndActiveTrue(anyString())).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limited.authenticate("guess-" + i).isEmpty());
+        }
+
+        // the bucket holds one lookup; the rest of the burst is rejected unread
+        verify(apiKeyRepository, times(1)).findByKeyHashAndActiveTrue(anyString());
+        assertEquals("bootstrap", limited.authenticate("api_key").orElseThrow().name());
+    }
+
+    @Test
+    void testAuthenticate_ValidKeyExpiresDuringFlood_IsStillLookedUp() {
+        // a zero TTL expires every cache entry at once, as if each request came a TTL after the last
+        ApiKeyService limited = new ApiKeyService(apiKeyRepository, "api_key", 0, 100, Duration.ZERO, 100, 1);
+        String hash = ApiKeyService.hash("client-secret");
+        when(apiKeyRepository.findByKeyHashAndActiveTrue(anyString())).thenReturn(Optional.empty());
+        when(apiKeyRepository.findByKeyHashAndActiveTrue(hash)).thenReturn(Optional.of(ApiKeyEntity.builder()
+                .id(UUID.randomUUID()).clientName("mobile").keyHash(hash).requestsPerSecond(10).burst(20).build()));
+
+        assertEquals("mobile", limited.authenticate("client-secret").orElseThrow().name());
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limited.authenticate("guess-" + i).isEmpty());
+        }
+
+        // the flood has used up the lookups, but a key seen valid is re-checked regardless
+        assertEquals("mobile", limited.authenticate("client-secret").orElseThrow().name());
+        verify(apiKeyRepository, times(2)).findByKeyHashAndActiveTrue(hash);
+        verify(apiKeyRepository, never()).findByKeyHashAndActiveTrue(ApiKeyService.hash("guess-0"));
+    }
+
+    @Test
+    void testAuthenticate_RevokedKey_IsLimitedAgain() {
+        ApiKeyService limited = new ApiKeyService(apiKeyRepository, "api_key", 0, 100, Duration.ZERO, 100, 1);
+        String hash = ApiKeyService.hash("client-secret");
+        when(apiKeyRepository.findByKeyHashAndActiveTrue(hash))
+                .thenReturn(Optional.of(ApiKeyEntity.builder().id(UUID.randomUUID()).clientName("mobile")
+                        .keyHash(hash).requestsPerSecond(10).burst(20).build()))
+                .thenReturn(Optional.empty());
+
+        assertTrue(limited.authenticate("client-secret").isPresent());
+        assertTrue(limited.authenticate("client-secret").isEmpty());
+        assertTrue(limited.authenticate("client-secret").isEmpty());
+
+        // the third attempt needed a lookup again, and the bucket was empty
+        verify(apiKeyRepository, times(2)).findByKeyHashAndActiveTrue(hash);
+    }
+
+    @Test
+    void testHash_IsHexSha256() {
+        assertEquals(64, ApiKeyService.hash("api_key").length());
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", ApiKeyService.hash(""));
+    }
+}
@@ -0,0 +1,48 @@
+package com.bayer.healthgoal.apikey;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000_000L);
+
+    @Test
+    void testTryAcquire_AdmitsBurstThenRejectsWithWait() {
+        RateLimiter limiter = new RateLimiter(10, 3, now::get);
+
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(0, limiter.tryAcquire());
+        // one token every 100ms
+        assertEquals(100_000_000L, limiter.tryAcquire());
+
+        now.addAndGet(40_000_000L);
+        assertEquals(60_000_000L, limiter.tryAcquire());
+    }
+
+    @Test
+    void testTryAcquire_RefillsAtTheSustainedRate() {
+        RateLimiter limiter = new RateLimiter(10, 1, now::get);
+
+        assertEquals(0, limiter.tryAcquire());
+        now.addAndGet(100_000_000L);
+        assertEquals(0, limiter.tryAcquire());
+        now.addAndGet(10_000_000_000L);
+        // an idle bucket fills up to the burst, not beyond
+        assertEquals(0, limiter.tryAcquire());
+        assertEquals(100_000_000L, limiter.tryAcquire());
+    }
+
+    @Test
+    void testTryAcquire_ZeroRateIsUnlimited() {
+        RateLimiter limiter = new RateLimiter(0, 0, now::get);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(0, limiter.tryAcquire());
+        }
+    }
+}
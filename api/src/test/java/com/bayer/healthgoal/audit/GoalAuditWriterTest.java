@@ -0,0 +1,158 @@
+package com.bayer.healthgoal.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GoalAuditWriterTest {
+
+    private static final String CREATE_TABLE = """
+            create table goal_audit (id bigint generated by default as identity primary key, goal_id uuid not null,
+                version bigint not null, field varchar(16) not null, old_value varchar(255), new_value varchar(255),
+                changed_at timestamp(6) with time zone not null, correlation_id varchar(255), request_id varchar(255))""";
+
+    @TempDir
+    Path spoolDir;
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private GoalAuditWriter writer;
+
+    @BeforeEach
+    void setup() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:audit-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void stopWriter() throws InterruptedException {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void testSubmit_WritesEntriesInTheBackground() throws Exception {
+        jdbcTemplate.execute(CREATE_TABLE);
+        writer = start(100);
+
+        writer.submit(List.of(entry("title"), entry("status")));
+
+        awaitRows(2);
+        assertEquals("corr", jdbcTemplate.queryForObject(
+                "select correlation_id from goal_audit where field = 'status'", String.class));
+        assertFalse(Files.exists(spoolDir.resolve(GoalAuditWriter.SPOOL_FILE)));
+    }
+
+    @Test
+    void testDatabaseDown_SpoolsThenReplays() throws Exception {
+        // no table yet: every insert fails
+        writer = start(100);
+
+        writer.submit(List.of(entry("title"), entry("target")));
+
+        Path spool = spoolDir.resolve(GoalAuditWriter.SPOOL_FILE);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!Files.exists(spool) || Files.readAllLines(spool).size() < 2) {
+            assertTrue(System.nanoTime() < deadline, "entries were not spooled");
+            Thread.sleep(10);
+        }
+        assertEquals(0, writer.replaySpool());
+
+        jdbcTemplate.execute(CREATE_TABLE);
+        assertEquals(2, writer.replaySpool());
+        assertEquals(2, count());
+        assertEquals(0, writer.replaySpool());
+    }
+
+    @Test
+    void testFullQueue_SpoolerSpoolsWhatDoesNotFit() throws Exception {
+        jdbcTemplate.execute(CREATE_TABLE);
+        // not started yet, so nothing drains the single slot of either queue
+        writer = writer(1);
+
+        Thread request = Thread.ofVirtual().start(() ->
+                writer.submit(List.of(entry("title"), entry("target"), entry("status"))));
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (request.getState() != Thread.State.WAITING) {
+            assertTrue(System.nanoTime() < deadline, "the request did not wait for the spooler");
+            Thread.sleep(10);
+        }
+        // the request parked instead of writing the file itself
+        assertFalse(Files.exists(spoolDir.resolve(GoalAuditWriter.SPOOL_FILE)));
+        assertEquals(1.0, meterRegistry.get("healthgoal.audit.queue.size").gauge().value());
+
+        writer.start();
+        request.join(Duration.ofSeconds(5));
+        awaitRows(1);
+        Path spool = spoolDir.resolve(GoalAuditWriter.SPOOL_FILE);
+        while (!Files.exists(spool) || Files.readAllLines(spool).size() < 2) {
+            assertTrue(System.nanoTime() < deadline, "entries were not spooled");
+            Thread.sleep(10);
+        }
+        assertFalse(request.isAlive());
+        assertEquals(2.0, meterRegistry.get("healthgoal.audit.spooled").counter().count());
+        assertEquals(2, writer.replaySpool());
+    }
+
+    @Test
+    void testStart_UnusableSpoolDir_StillStarts() throws Exception {
+        Path file = Files.createFile(spoolDir.resolve("not-a-directory"));
+        writer = new GoalAuditWriter(jdbcTemplate, new DataSourceTransactionManager(jdbcTemplate.getDataSource()),
+                new ObjectMapper().findAndRegisterModules(), meterRegistry, 100, 50, Duration.ofMillis(10),
+                file.resolve("spool"));
+
+        writer.start();
+
+        jdbcTemplate.execute(CREATE_TABLE);
+        writer.submit(List.of(entry("title")));
+        awaitRows(1);
+    }
+
+    private GoalAuditWriter start(int capacity) throws Exception {
+        GoalAuditWriter started = writer(capacity);
+        started.start();
+        return started;
+    }
+
+    private GoalAuditWriter writer(int capacity) {
+        return new GoalAuditWriter(jdbcTemplate, new DataSourceTransactionManager(jdbcTemplate.getDataSource()),
+                new ObjectMapper().findAndRegisterModules(), meterRegistry, capacity, 50, Duration.ofMillis(10),
+                spoolDir);
+    }
+
+    private void awaitRows(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (count() < expected) {
+            assertTrue(System.nanoTime() < deadline, "audit entries were not written");
+            Thread.sleep(10);
+        }
+    }
+
+    private long count() {
+        return jdbcTemplate.queryForObject("select count(*) from goal_audit", Long.class);
+    }
+
+    private static GoalAuditEntry entry(String field) {
+        return new GoalAuditEntry(UUID.randomUUID(), 1, field, "old", "new", Instant.now(), "corr", "req");
+    }
+}
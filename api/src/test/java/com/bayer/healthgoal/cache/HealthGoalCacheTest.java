@@ -0,0 +1,132 @@
+package com.bayer.healthgoal.cache;
+
+import com.bayer.healthgoal.api.model.HealthGoal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HealthGoalCacheTest {
+
+    private HealthGoalCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setup() {
+        cache = new HealthGoalCache(new ConcurrentMapCacheManager(HealthGoalCache.CACHE_NAME));
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGet_SecondReadIsServedFromCache() {
+        UUID id = UUID.randomUUID();
+        VersionedHealthGoal first = cache.get(id, () -> load(id));
+        VersionedHealthGoal second = cache.get(id, () -> load(id));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testEvict_NextReadLoadsAgain() {
+        UUID id = UUID.randomUUID();
+        cache.get(id, () -> load(id, 0));
+        cache.evict(id, 1);
+        VersionedHealthGoal reloaded = cache.get(id, () -> load(id, 1));
+
+        assertEquals(2, loads.get());
+        assertEquals(1, reloaded.version());
+        assertSame(reloaded, cache.get(id, () -> load(id, 1)));
+    }
+
+    @Test
+    void testEvict_InTransaction_KeepsTheCommittedGoalUntilCommit() {
+        UUID id = UUID.randomUUID();
+        VersionedHealthGoal committed = cache.get(id, () -> load(id, 0));
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evict(id, 1);
+
+        assertSame(committed, cache.get(id, () -> load(id, 0)));
+        commit();
+        assertTrue(cache.peek(id).isEmpty());
+    }
+
+    @Test
+    void testEvict_StaleLoadFinishingAfterCommitIsNotCached() {
+        UUID id = UUID.randomUUID();
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evict(id, 1);
+
+        // a reader loads the pre-commit row, or reads a lagging replica, and stores it after the writer committed
+        VersionedHealthGoal stale = cache.get(id, () -> {
+            VersionedHealthGoal loaded = load(id, 0);
+            commit();
+            return loaded;
+        });
+
+        assertEquals(0, stale.version());
+        assertTrue(cache.peek(id).isEmpty());
+        assertEquals(1, cache.get(id, () -> load(id, 1)).version());
+        assertEquals(1, cache.peek(id).orElseThrow().version());
+    }
+
+    @Test
+    void testEvictDeleted_NoVersionIsCachedAgain() {
+        UUID id = UUID.randomUUID();
+        cache.evictDeleted(id);
+        cache.get(id, () -> load(id, 7));
+
+        assertTrue(cache.peek(id).isEmpty());
+    }
+
+    @Test
+    void testEvictArchived_ReplacesLiveCopyAndKeepsStaleLoadsOut() {
+        UUID id = UUID.randomUUID();
+        cache.get(id, () -> load(id, 2));
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictArchived(id, 2);
+        commit();
+
+        assertTrue(cache.peek(id).isEmpty());
+        // a copy read from the working set before the goal moved has the same version, but is not archived
+        cache.get(id, () -> load(id, 2));
+        assertTrue(cache.peek(id).isEmpty());
+        cache.get(id, () -> load(id, 2, true));
+        assertTrue(cache.peek(id).orElseThrow().archived());
+        cache.get(id, () -> load(id, 2));
+        assertTrue(cache.peek(id).orElseThrow().archived());
+    }
+
+    private void commit() {
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private VersionedHealthGoal load(UUID id) {
+        return load(id, 0);
+    }
+
+    private VersionedHealthGoal load(UUID id, long version) {
+        return load(id, version, false);
+    }
+
+    private VersionedHealthGoal load(UUID id, long version, boolean archived) {
+        loads.incrementAndGet();
+        return new VersionedHealthGoal(new HealthGoal().id(id).title("Lose Weight"), version, archived);
+    }
+}
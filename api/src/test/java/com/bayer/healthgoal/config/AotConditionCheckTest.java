@@ -0,0 +1,48 @@
+package com.bayer.healthgoal.config;
+
+import com.bayer.healthgoal.datasource.ReplicaDataSource;
+import com.bayer.healthgoal.outbox.FileGoalEventSink;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AotConditionCheckTest {
+
+    @Test
+    void testVerify_SettingsMatchTheBuild_Passes() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        assertDoesNotThrow(() -> AotConditionCheck.verify(new MockEnvironment(), beanFactory));
+
+        beanFactory.registerBeanDefinition("replicaDataSource", new RootBeanDefinition(ReplicaDataSource.class));
+        beanFactory.registerBeanDefinition("fileGoalEventSink", new RootBeanDefinition(FileGoalEventSink.class));
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("healthgoal.datasource.replica-urls", "jdbc:postgresql://replica/healthgoal")
+                .withProperty("healthgoal.outbox.sink", "file");
+        assertDoesNotThrow(() -> AotConditionCheck.verify(environment, beanFactory));
+    }
+
+    @Test
+    void testVerify_ReplicasSetOnlyAtRuntime_Fails() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("healthgoal.datasource.replica-urls", "jdbc:postgresql://replica/healthgoal");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> AotConditionCheck.verify(environment, new DefaultListableBeanFactory()));
+        assertTrue(e.getMessage().startsWith("healthgoal.datasource.replica-urls is set"), e.getMessage());
+    }
+
+    @Test
+    void testVerify_FileSinkBuiltButNotSet_Fails() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("fileGoalEventSink", new RootBeanDefinition(FileGoalEventSink.class));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> AotConditionCheck.verify(new MockEnvironment(), beanFactory));
+        assertTrue(e.getMessage().startsWith("healthgoal.outbox.sink=file is not set"), e.getMessage());
+    }
+}
@@ -0,0 +1,131 @@
+package com.bayer.healthgoal.config;
+
+import com.bayer.healthgoal.apikey.ApiKeyService;
+import com.bayer.healthgoal.repository.ApiKeyRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ApiFilterTest {
+
+    private final ApiFilter filter = filter(0);
+
+    @Test
+    void testShouldNotFilter_ExcludedPrefixesOnly() {
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/actuator/health")));
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/v3/api-docs/swagger-config")));
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/bayer/v1/health-goals")));
+    }
+
+    @Test
+    void testDoFilterInternal_Unauthorized_EscapesCorrelationId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bayer/v1/health-goals");
+        request.addHeader("x-correlation-id", "a\"b\\c");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilterInternal(request, response, (req, res) -> { });
+
+        assertEquals(401, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        assertEquals("{\"error\":\"unauthorized\",\"message\":\"Missing or invalid API key\",\"traceId\":\"a\\\"b\\\\c\"}",
+                response.getContentAsString());
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+    }
+
+    @Test
+    void testDoFilterInternal_ChainFailure_Returns500WithoutTheExceptionMessage() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bayer/v1/health-goals");
+        request.addHeader("x-api-key", "api_key");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain failing = (req, res) -> {
+            throw new IllegalStateException("bad \"input\"");
+        };
+
+        filter.doFilterInternal(request, response, failing);
+
+        assertEquals(500, response.getStatus());
+        assertEquals("{\"error\":\"internal_error\",\"message\":\"Internal server error\","
+                + "\"traceId\":\"missing_correlationId\"}", response.getContentAsString());
+    }
+
+    @Test
+    void testDoFilterInternal_OverRateLimit_Returns429WithRetryAfter() throws Exception {
+        ApiFilter limited = filter(1);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bayer/v1/health-goals");
+        request.addHeader("x-api-key", "api_key");
+        request.addHeader("x-correlation-id", "corr-429");
+        AtomicInteger passed = new AtomicInteger();
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        limited.doFilterInternal(request, first, (req, res) -> passed.incrementAndGet());
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        limited.doFilterInternal(request, second, (req, res) -> passed.incrementAndGet());
+
+        assertEquals(1, passed.get());
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("1", second.getHeader("Retry-After"));
+        assertEquals("{\"error\":\"too_many_requests\",\"message\":\"Rate limit exceeded for API key\","
+                + "\"traceId\":\"corr-429\"}", second.getContentAsString());
+    }
+
+    @Test
+    void testRetryAfterSeconds_RoundsUpToWholeSeconds() {
+        assertEquals(1, ApiFilter.retryAfterSeconds(1));
+        assertEquals(1, ApiFilter.retryAfterSeconds(1_000_000_000L));
+        assertEquals(2, ApiFilter.retryAfterSeconds(1_000_000_001L));
+    }
+
+    @Test
+    void testDoFilterInternal_PutsIdsInMdcOnlyForTheRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bayer/v1/health-goals");
+        request.addHeader("x-api-key", "api_key");
+        request.addHeader("x-correlation-id", "corr-1");
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilterInternal(request, new MockHttpServletResponse(),
+                (req, res) -> seen.set(MDC.get(ApiFilter.CORRELATION_ID)));
+
+        assertEquals("corr-1", seen.get());
+        assertNull(MDC.get(ApiFilter.CORRELATION_ID));
+        assertNull(MDC.get(ApiFilter.REQUEST_ID));
+    }
+
+    @Test
+    void testDoFilterInternal_Authorized_LeavesTheClientOnTheRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bayer/v1/health-goals");
+        request.addHeader("x-api-key", "api_key");
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilterInternal(request, new MockHttpServletResponse(), (req, res) -> {
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((HttpServletRequest) req));
+            try {
+                seen.set(ApiFilter.currentClient().name());
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+
+        assertEquals("bootstrap", seen.get());
+    }
+
+    private static ApiFilter filter(int bootstrapRequestsPerSecond) {
+        return new ApiFilter(new ApiKeyService(mock(ApiKeyRepository.class), "api_key", bootstrapRequestsPerSecond,
+                100, Duration.ofMinutes(1), 100, 50));
+    }
+}
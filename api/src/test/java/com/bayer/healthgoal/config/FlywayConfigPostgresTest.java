@@ -0,0 +1,81 @@
+package com.bayer.healthgoal.config;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.sql.init.mode=never",
+        "healthgoal.outbox.relay-interval=1h",
+        "healthgoal.lifecycle.expiry-cron=-",
+        "healthgoal.archive.cron=-",
+        "healthgoal.audit.spool-dir=target/audit-spool"
+})
+class FlywayConfigPostgresTest {
+
+    // stopped by its own shutdown hook when the test JVM exits
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        assumeFalse("root".equals(System.getProperty("user.name")), "initdb refuses to run as root");
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @Test
+    void testMigrations_RunWithoutThePoolSocketTimeout() throws SQLException {
+        // PgConnection reports its socket timeout as the network timeout
+        try (Connection pooled = dataSource.getConnection()) {
+            assertEquals(60_000, pooled.getNetworkTimeout());
+        }
+        try (Connection migrations = flyway.getConfiguration().getDataSource().getConnection()) {
+            assertEquals(0, migrations.getNetworkTimeout());
+        }
+    }
+
+    @Test
+    void testSearchIndexMigration_InvalidIndexFromFailedBuild_IsBuiltAgain() {
+        // what a cancelled CREATE INDEX CONCURRENTLY leaves behind; flyway repair then drops the failed V2 row
+        jdbcTemplate.update("update pg_index set indisvalid = false"
+                + " where indexrelid = 'idx_health_goals_title_trgm'::regclass");
+        jdbcTemplate.update("delete from flyway_schema_history where version = '2'");
+
+        Flyway.configure().configuration(flyway.getConfiguration()).outOfOrder(true).load().migrate();
+
+        assertTrue(jdbcTemplate.queryForObject("select indisvalid from pg_index"
+                + " where indexrelid = 'idx_health_goals_title_trgm'::regclass", Boolean.class));
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from flyway_schema_history"
+                + " where version = '2' and success", Integer.class));
+    }
+}
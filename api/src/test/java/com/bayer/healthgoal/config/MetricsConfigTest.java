@@ -0,0 +1,103 @@
+package com.bayer.healthgoal.config;
+
+import com.bayer.healthgoal.metrics.OperationMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OperationMetrics operationMetrics = new OperationMetrics(meterRegistry);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("POST", "/bayer/v1/health-goals");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("operationMetrics", operationMetrics);
+        BeanPostProcessor timing = MetricsConfig.operationMetricsDataAccessTiming(
+                beanFactory.getBeanProvider(OperationMetrics.class));
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        Object bean = timing.postProcessAfterInitialization(new JdbcTemplate(database), "jdbcTemplate");
+        jdbcTemplate = assertInstanceOf(JdbcTemplate.class, bean);
+        handler = new HandlerMethod(this, MetricsConfigTest.class.getDeclaredMethod("recordGoalProgress"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    // stands in for the generated controller method, whose name becomes the operation tag
+    void recordGoalProgress() {
+    }
+
+    @Test
+    void testJdbcTemplate_CallsDuringARequest_CountAsRepositoryTime() {
+        operationMetrics.preHandle(request, response, handler);
+        assertEquals(1, jdbcTemplate.queryForObject("select 1", Integer.class));
+        operationMetrics.afterCompletion(request, response, handler, null);
+
+        assertEquals(1, repositoryPhase().count());
+        assertTrue(repositoryPhase().totalTime(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    void testJdbcTemplate_InsideATimedRepositoryCall_IsNotCountedTwice() {
+        // a repository fragment that runs its statement through JdbcTemplate
+        ProxyFactory fragment = new ProxyFactory((Supplier<Integer>) () -> jdbcTemplate.query("select 1", rows -> {
+            sleep(50);
+            return 1;
+        }));
+        fragment.addAdvice((MethodInterceptor) operationMetrics::timeDataAccess);
+        @SuppressWarnings("unchecked")
+        Supplier<Integer> repository = (Supplier<Integer>) fragment.getProxy();
+
+        operationMetrics.preHandle(request, response, handler);
+        long started = System.nanoTime();
+        repository.get();
+        long elapsed = System.nanoTime() - started;
+        operationMetrics.afterCompletion(request, response, handler, null);
+
+        assertTrue(repositoryPhase().totalTime(TimeUnit.NANOSECONDS) <= elapsed);
+    }
+
+    private Timer repositoryPhase() {
+        return meterRegistry.get("healthgoal.operation.phase")
+                .tag("operation", "recordGoalProgress")
+                .tag("phase", "repository")
+                .timer();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.bayer.healthgoal.datasource;
+
+import com.bayer.healthgoal.entity.UserEntity;
+import com.bayer.healthgoal.repository.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+// a primary and a streaming standby, wired by DataSourceConfig and driven through the JPA transaction manager
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.sql.init.mode=never",
+        "healthgoal.datasource.replica-max-lag=1s",
+        // the test runs the health check itself
+        "healthgoal.datasource.replica-check-interval=1h",
+        "healthgoal.outbox.relay-interval=1h",
+        "healthgoal.lifecycle.expiry-cron=-",
+        "healthgoal.archive.cron=-",
+        "healthgoal.audit.spool-dir=target/audit-spool"
+})
+class ReplicaDataSourcePostgresTest {
+
+    private static final Duration REPLICATION_TIMEOUT = Duration.ofSeconds(20);
+
+    // stopped by their own shutdown hooks when the test JVM exits
+    private static EmbeddedPostgres primary;
+    private static EmbeddedPostgres standby;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        assumeFalse("root".equals(System.getProperty("user.name")), "initdb refuses to run as root");
+        Path root = Files.createTempDirectory("healthgoal-replication");
+        Path primaryData = root.resolve("primary");
+        Path standbyData = root.resolve("standby");
+
+        // the standby starts from a copy of the stopped primary and streams from it from then on
+        EmbeddedPostgres initialized = EmbeddedPostgres.builder()
+                .setDataDirectory(primaryData).setCleanDataDirectory(false).start();
+        int port = initialized.getPort();
+        initialized.close();
+        try (Stream<Path> files = Files.walk(primaryData)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.copy(file, standbyData.resolve(primaryData.relativize(file).toString()),
+                        StandardCopyOption.COPY_ATTRIBUTES);
+            }
+        }
+        Files.createFile(standbyData.resolve("standby.signal"));
+        Files.writeString(standbyData.resolve("postgresql.auto.conf"),
+                "primary_conninfo = 'host=localhost port=" + port + " user=postgres'\n", StandardOpenOption.APPEND);
+
+        primary = EmbeddedPostgres.builder()
+                .setDataDirectory(primaryData).setCleanDataDirectory(false).setPort(port).start();
+        standby = EmbeddedPostgres.builder()
+                .setDataDirectory(standbyData).setCleanDataDirectory(false).start();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> primary.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("healthgoal.datasource.replica-urls", () -> standby.getJdbcUrl("postgres", "postgres"));
+    }
+
+    @BeforeEach
+    void setUp() {
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void resumeReplay() throws SQLException {
+        onStandby("select pg_wal_replay_resume()");
+        await(() -> {
+            replicaDataSource.checkReplicas();
+            return replicaDataSource.isHealthy(0);
+        });
+    }
+
+    @Test
+    void testReadOnlyTransactions_RunOnTheStandby_OthersOnThePrimary() {
+        assertInstanceOf(JpaTransactionManager.class, transactionManager);
+
+        UUID id = readWrite.execute(status -> userRepository.save(user()).getId());
+
+        assertEquals(Boolean.FALSE, readWrite.execute(status -> inRecovery()));
+        assertEquals(Boolean.TRUE, readOnly.execute(status -> inRecovery()));
+        // the user written on the primary is read back through the standby once it is replayed there
+        await(() -> Boolean.TRUE.equals(readOnly.execute(status -> userRepository.existsById(id))));
+    }
+
+    @Test
+    void testLaggingStandby_IsSkippedUntilItCatchesUp() throws SQLException {
+        replicaDataSource.checkReplicas();
+        assertTrue(replicaDataSource.isHealthy(0));
+
+        // the standby keeps receiving WAL but stops applying it, so its lag grows with the clock
+        onStandby("select pg_wal_replay_pause()");
+        UUID id = readWrite.execute(status -> userRepository.save(user()).getId());
+        await(() -> {
+            replicaDataSource.checkReplicas();
+            return !replicaDataSource.isHealthy(0);
+        });
+
+        assertEquals(Boolean.FALSE, readOnly.execute(status -> inRecovery()));
+        assertEquals(Boolean.TRUE, readOnly.execute(status -> userRepository.existsById(id)));
+
+        onStandby("select pg_wal_replay_resume()");
+        await(() -> {
+            replicaDataSource.checkReplicas();
+            return replicaDataSource.isHealthy(0);
+        });
+        assertEquals(Boolean.TRUE, readOnly.execute(status -> inRecovery()));
+    }
+
+    private Boolean inRecovery() {
+        return (Boolean) entityManager.createNativeQuery("select pg_is_in_recovery()").getSingleResult();
+    }
+
+    private static UserEntity user() {
+        String name = "user-" + UUID.randomUUID();
+        return UserEntity.builder().username(name).email(name + "@example.com").build();
+    }
+
+    private static void onStandby(String sql) throws SQLException {
+        try (Connection connection = standby.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + REPLICATION_TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "gave up after " + REPLICATION_TIMEOUT);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
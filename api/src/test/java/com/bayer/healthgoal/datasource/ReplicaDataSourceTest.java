@@ -0,0 +1,132 @@
+package com.bayer.healthgoal.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// the same wiring as DataSourceConfig, with two H2 databases that each know their own name
+class ReplicaDataSourceTest {
+
+    private SwitchableDataSource replica;
+    private ReplicaDataSource replicas;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setup() {
+        DataSource primary = database("primary");
+        replica = new SwitchableDataSource(database("replica"));
+        replicas = new ReplicaDataSource(List.of(replica), primary, Duration.ofSeconds(5));
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicas);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void testReadOnlyTransactions_RunOnReplica_OthersOnPrimary() {
+        assertEquals("replica", readOnly.execute(status -> server()));
+        assertEquals("primary", readWrite.execute(status -> server()));
+        // no transaction at all: not marked read-only, so the primary
+        assertEquals("primary", server());
+    }
+
+    @Test
+    void testReplicaDown_ReadsFallBackToPrimaryUntilHealthCheckPasses() {
+        replica.down = true;
+
+        assertEquals("primary", readOnly.execute(status -> server()));
+        assertFalse(replicas.isHealthy(0));
+
+        // still taken out while it is down, even though connections would now succeed
+        replica.down = false;
+        assertEquals("primary", readOnly.execute(status -> server()));
+
+        replicas.checkReplicas();
+        assertTrue(replicas.isHealthy(0));
+        assertEquals("replica", readOnly.execute(status -> server()));
+    }
+
+    @Test
+    void testHealthCheck_TakesOutUnreachableReplica() {
+        replica.down = true;
+
+        replicas.checkReplicas();
+
+        assertFalse(replicas.isHealthy(0));
+        assertEquals("primary", readOnly.execute(status -> server()));
+    }
+
+    @Test
+    void testExplicitCredentials_AreUsedOnTheChosenReplica() throws SQLException {
+        try (Connection connection = replicas.getConnection("sa", "")) {
+            assertEquals("replica", new JdbcTemplate(new SingleConnectionDataSource(connection, true))
+                    .queryForObject("select name from server", String.class));
+        }
+
+        replica.down = true;
+        try (Connection connection = replicas.getConnection("sa", "")) {
+            assertEquals("primary", new JdbcTemplate(new SingleConnectionDataSource(connection, true))
+                    .queryForObject("select name from server", String.class));
+        }
+    }
+
+    private String server() {
+        return jdbcTemplate.queryForObject("select name from server", String.class);
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table server (name varchar(16))");
+        jdbcTemplate.update("insert into server (name) values (?)", name);
+        return dataSource;
+    }
+
+    private static final class SwitchableDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+
+        private SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection(username, password);
+        }
+    }
+}
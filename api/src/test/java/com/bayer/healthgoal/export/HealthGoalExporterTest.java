@@ -0,0 +1,71 @@
+package com.bayer.healthgoal.export;
+
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+import com.bayer.healthgoal.mapper.HealthGoalMapper;
+import com.bayer.healthgoal.repository.HealthGoalRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HealthGoalExporterTest {
+
+    @Mock
+    private HealthGoalRepository healthGoalRepository;
+
+    @Mock
+    private HealthGoalMapper healthGoalMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private HealthGoalExporter exporter;
+
+    @BeforeEach
+    void setup() {
+        exporter = new HealthGoalExporter(healthGoalRepository, healthGoalMapper, entityManager,
+                new ObjectMapper(), transactionManager, 2);
+    }
+
+    @Test
+    void testExport_WritesOneLinePerGoalAndDetaches() throws Exception {
+        HealthGoalEntity first = HealthGoalEntity.builder().id(UUID.randomUUID()).title("Walk").build();
+        HealthGoalEntity second = HealthGoalEntity.builder().id(UUID.randomUUID()).title("Run").build();
+        when(healthGoalRepository.streamAll(any(), eq(2))).thenReturn(Stream.of(first, second));
+        when(healthGoalMapper.toDto(first)).thenReturn(new HealthGoal().id(first.getId()).title("Walk"));
+        when(healthGoalMapper.toDto(second)).thenReturn(new HealthGoal().id(second.getId()).title("Run"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(Specification.unrestricted()).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"title\":\"Walk\""));
+        assertTrue(lines[1].startsWith("{") && lines[1].contains("\"title\":\"Run\""));
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+        verify(entityManager).clear();
+    }
+}
@@ -0,0 +1,163 @@
+package com.bayer.healthgoal.idempotency;
+
+import com.bayer.healthgoal.api.model.CreateHealthGoalRequest;
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.entity.IdempotencyKeyEntity;
+import com.bayer.healthgoal.exceptions.IdempotencyKeyReusedException;
+import com.bayer.healthgoal.exceptions.UserNotFoundException;
+import com.bayer.healthgoal.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private final AtomicInteger creates = new AtomicInteger();
+    private IdempotencyKeyRepository repository;
+    private IdempotencyService service;
+    private CreateHealthGoalRequest request;
+
+    @BeforeEach
+    void setup() {
+        repository = mock(IdempotencyKeyRepository.class);
+        when(repository.findById(any())).thenReturn(Optional.empty());
+        service = new IdempotencyService(repository, new ObjectMapper(), new NoOpTransactionManager(),
+                100, Duration.ofHours(24));
+        request = new CreateHealthGoalRequest().userId(UUID.randomUUID().toString()).title("Walk");
+    }
+
+    @Test
+    void testRetry_AnsweredFromCacheWithoutRepository() {
+        CreatedGoal first = service.createOnce("mobile", "key-1", request, this::create);
+        CreatedGoal retried = service.createOnce("mobile", "key-1", request, this::create);
+
+        assertSame(first, retried);
+        assertEquals(1, creates.get());
+        verify(repository, times(1)).findById(new IdempotencyKeyEntity.Key("mobile", "key-1"));
+        verify(repository, times(1)).save(any(IdempotencyKeyEntity.class));
+    }
+
+    @Test
+    void testConcurrentDuplicates_CollapsedIntoOneCreate() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CreatedGoal>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> service.createOnce("mobile", "key-2", request, () -> {
+                    await(release);
+                    return create();
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            CreatedGoal first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<CreatedGoal> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, creates.get());
+    }
+
+    @Test
+    void testKeyReusedForDifferentRequest_Rejected() {
+        service.createOnce("mobile", "key-3", request, this::create);
+
+        CreateHealthGoalRequest other = new CreateHealthGoalRequest().userId(request.getUserId()).title("Run");
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> service.createOnce("mobile", "key-3", other, this::create));
+        assertEquals(1, creates.get());
+    }
+
+    @Test
+    void testSameKeyFromAnotherClient_CreatesItsOwnGoal() {
+        CreatedGoal mobile = service.createOnce("mobile", "key-5", request, this::create);
+        CreatedGoal web = service.createOnce("web", "key-5", request, this::create);
+
+        assertNotEquals(mobile.goal().getId(), web.goal().getId());
+        assertEquals(2, creates.get());
+    }
+
+    @Test
+    void testFailedCreate_NotRemembered() {
+        assertThrows(UserNotFoundException.class, () -> service.createOnce("mobile", "key-4", request, () -> {
+            throw new UserNotFoundException("user not found");
+        }));
+
+        service.createOnce("mobile", "key-4", request, this::create);
+
+        assertEquals(1, creates.get());
+    }
+
+    @Test
+    void testNoKey_AlwaysCreates() {
+        service.createOnce("mobile", null, request, this::create);
+        service.createOnce("mobile", null, request, this::create);
+
+        assertEquals(2, creates.get());
+        verify(repository, never()).findById(any());
+    }
+
+    private CreatedGoal create() {
+        creates.incrementAndGet();
+        return new CreatedGoal(new HealthGoal().id(UUID.randomUUID()).title("Walk"), 0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // runs the callbacks without a database
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.bayer.healthgoal.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiscardingAsyncDisruptorAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger("async");
+
+    @Test
+    void testAppend_NearlyFullBuffer_DiscardsInfoButKeepsWarn() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingAppender delegate = new BlockingAppender(release);
+        DiscardingAsyncDisruptorAppender appender = new DiscardingAsyncDisruptorAppender();
+        appender.setContext(context);
+        appender.setRingBufferSize(8);
+        appender.setDiscardingThreshold(4);
+        appender.setAddDefaultStatusListener(false);
+        appender.addAppender(delegate);
+        appender.start();
+
+        // a slot is only freed once the delegate returns, so five events leave three free, below the threshold
+        for (int i = 0; i < 5; i++) {
+            appender.doAppend(event(Level.INFO, "info " + i));
+        }
+        appender.doAppend(event(Level.INFO, "discarded"));
+        appender.doAppend(event(Level.DEBUG, "discarded"));
+        appender.doAppend(event(Level.WARN, "kept"));
+        release.countDown();
+        appender.stop();
+
+        assertEquals(2, appender.getDiscardedCount());
+        assertEquals(6, delegate.messages.size());
+        assertTrue(delegate.messages.contains("kept"));
+    }
+
+    private ILoggingEvent event(Level level, String message) {
+        logger.setLevel(Level.ALL);
+        return new LoggingEvent(Logger.FQCN, logger, level, message, null, null);
+    }
+
+    private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch release;
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        private BlockingAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(event.getFormattedMessage());
+        }
+    }
+}
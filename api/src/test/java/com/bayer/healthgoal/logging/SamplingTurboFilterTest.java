@@ -0,0 +1,54 @@
+package com.bayer.healthgoal.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static com.bayer.healthgoal.logging.SamplingTurboFilter.SAMPLED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SamplingTurboFilterTest {
+
+    private final Logger logger = new LoggerContext().getLogger("sampled");
+
+    @Test
+    void testDecide_OnlySamplesMarkedInfoAndBelow() {
+        SamplingTurboFilter filter = filter(1_000_000);
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "unmarked", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(SAMPLED, logger, Level.WARN, "warn", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(SAMPLED, logger, Level.ERROR, "error", null, null));
+    }
+
+    @Test
+    void testDecide_SampleEveryOne_KeepsEverything() {
+        SamplingTurboFilter filter = filter(1);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(SAMPLED, logger, Level.INFO, "kept", null, null));
+        }
+    }
+
+    @Test
+    void testDecide_KeepsRoughlyOneInN() {
+        SamplingTurboFilter filter = filter(10);
+
+        int kept = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.decide(SAMPLED, logger, Level.INFO, "sampled", null, null) == FilterReply.NEUTRAL) {
+                kept++;
+            }
+        }
+        assertTrue(kept > 9_000 && kept < 11_000, "kept " + kept);
+    }
+
+    private static SamplingTurboFilter filter(int sampleEvery) {
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setSampleEvery(sampleEvery);
+        filter.start();
+        return filter;
+    }
+}
@@ -0,0 +1,151 @@
+package com.bayer.healthgoal.repository;
+
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+// the full-text and trigram queries only run on PostgreSQL; the schema comes from the Flyway migrations
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.sql.init.mode=never",
+        "healthgoal.search.max-candidates=3",
+        "healthgoal.outbox.relay-interval=1h",
+        "healthgoal.lifecycle.expiry-cron=-",
+        "healthgoal.archive.cron=-",
+        "healthgoal.audit.spool-dir=target/audit-spool"
+})
+class HealthGoalSearchRepositoryPostgresTest {
+
+    // stopped by its own shutdown hook when the test JVM exits
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private HealthGoalRepository healthGoalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID userId;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        assumeFalse("root".equals(System.getProperty("user.name")), "initdb refuses to run as root");
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("delete from health_goals");
+        userId = createUser();
+    }
+
+    @Test
+    void testSearch_WordPrefix_RanksTitleMatchesFirst() {
+        UUID inDescription = createGoal(userId, "Evening walk", "Training for a marathon");
+        UUID inTitle = createGoal(userId, "Run a marathon", "Build up slowly");
+        createGoal(userId, "Drink more water", "Every day");
+
+        HealthGoalSearchRepository.SearchPage page = healthGoalRepository.search("marath", null, null, 0, 10);
+
+        assertEquals(List.of(inTitle, inDescription), ids(page));
+        assertFalse(page.truncated());
+    }
+
+    @Test
+    void testSearch_SubstringOfTitle_MatchesThroughTrigrams() {
+        // no word of the title starts with "marathon", so only the substring match finds it
+        UUID goal = createGoal(userId, "Halfmarathon in spring", "Build up slowly");
+
+        assertEquals(List.of(goal), ids(healthGoalRepository.search("marathon", null, null, 0, 10)));
+        assertEquals(List.of(goal), ids(healthGoalRepository.search("marathon", userId, null, 0, 10)));
+        assertEquals(List.of(), ids(healthGoalRepository.search("mar", null, HealthGoalEntity.Status.COMPLETED,
+                0, 10)));
+    }
+
+    @Test
+    void testSearch_MoreMatchesThanCandidates_IsTruncated() {
+        for (int i = 0; i < 4; i++) {
+            createGoal(userId, "Walk " + i, "Every day");
+        }
+
+        HealthGoalSearchRepository.SearchPage page = healthGoalRepository.search("walk", null, null, 0, 10);
+        assertEquals(3, page.goals().size());
+        assertTrue(page.truncated());
+
+        // the next page of a truncated search is still marked, so a client paging on learns it stopped early
+        page = healthGoalRepository.search("walk", null, null, 2, 10);
+        assertEquals(1, page.goals().size());
+        assertTrue(page.truncated());
+
+        // one user's goals are all ranked
+        page = healthGoalRepository.search("walk", userId, null, 0, 10);
+        assertEquals(4, page.goals().size());
+        assertFalse(page.truncated());
+    }
+
+    @Test
+    void testSearch_MatchesAreServedByTheSearchIndexes() {
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                // the table is tiny; without this the planner would rightly prefer scanning it
+                statement.execute("set enable_seqscan = off");
+                StringBuilder lines = new StringBuilder();
+                try (ResultSet rows = statement.executeQuery("explain select * from health_goals where "
+                        + HealthGoalSearchRepositoryImpl.DOCUMENT + " @@ to_tsquery('english', 'marath:*')"
+                        + " or title ilike '%marath%'")) {
+                    while (rows.next()) {
+                        lines.append(rows.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("reset enable_seqscan");
+                return lines.toString();
+            }
+        });
+
+        assertTrue(plan.contains("idx_health_goals_search_document"), plan);
+        assertTrue(plan.contains("idx_health_goals_title_trgm"), plan);
+    }
+
+    private UUID createUser() {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("insert into users (id, username, email) values (?, ?, ?)",
+                id, "user-" + id, id + "@example.com");
+        return id;
+    }
+
+    private UUID createGoal(UUID owner, String title, String description) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("insert into health_goals (id, user_id, title, description, status) values (?, ?, ?, ?, ?)",
+                id, owner, title, description, "ACTIVE");
+        return id;
+    }
+
+    private static List<UUID> ids(HealthGoalSearchRepository.SearchPage page) {
+        return page.goals().stream().map(HealthGoalEntity::getId).toList();
+    }
+}
@@ -0,0 +1,22 @@
+#!/bin/sh
+# Prints score and allocation per benchmark for two JMH JSON result files, with the relative change.
+# Requires jq.
+#
+#   ./benchmarks/compare-results.sh benchmarks/results/abc1234.json benchmarks/results/def5678.json
+set -e
+
+: "${1:?baseline result file}" "${2:?candidate result file}"
+
+summary() {
+  jq -r '.[] | [(.benchmark | sub("^com\\.bayer\\.healthgoal\\."; "")) + (if .params then "(" + (.params | to_entries | map(.key + "=" + .value) | join(",")) + ")" else "" end),
+                .primaryMetric.score, .primaryMetric.scoreUnit,
+                (.secondaryMetrics["gc.alloc.rate.norm"].score // "n/a")] | @tsv' "$1" | sort
+}
+
+summary "$1" > /tmp/jmh-baseline.$$
+summary "$2" > /tmp/jmh-candidate.$$
+printf "%-70s %14s %14s %8s %14s %14s %8s\n" benchmark base new change "base B/op" "new B/op" change
+join -t "$(printf '\t')" /tmp/jmh-baseline.$$ /tmp/jmh-candidate.$$ | awk -F'\t' '
+  function pct(a, b) { return (a == 0 || a == "n/a") ? "n/a" : sprintf("%+.1f%%", (b - a) * 100 / a) }
+  { printf "%-70s %11.3f %-2s %11.3f %-2s %8s %14.1f %14.1f %8s\n", $1, $2, substr($3, 1, 2), $5, substr($6, 1, 2), pct($2, $5), $4, $7, pct($4, $7) }'
+rm -f /tmp/jmh-baseline.$$ /tmp/jmh-candidate.$$
@@ -0,0 +1,17 @@
+#!/bin/sh
+# Runs the JMH suite with the GC profiler and stores machine-readable results per commit, so ns/op and
+# allocation (gc.alloc.rate.norm, bytes/op) can be compared between commits with compare-results.sh.
+#
+#   mvn -B -DskipTests package
+#   ./benchmarks/run-benchmarks.sh                      # all benchmarks
+#   ./benchmarks/run-benchmarks.sh ApiFilterBenchmark   # any JMH include regex / options
+set -e
+
+cd "$(dirname "$0")"
+mkdir -p results
+commit=$(git rev-parse --short HEAD 2>/dev/null || echo local)
+if [ -n "$(git status --porcelain 2>/dev/null)" ]; then commit="$commit-dirty"; fi
+out="results/$commit.json"
+
+java -jar target/healthgoal-benchmarks.jar -prof gc -rf json -rff "$out" "$@"
+echo "results written to benchmarks/$out"
@@ -0,0 +1,58 @@
+package com.bayer.healthgoal;
+
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a listHealthGoals page, at one goal, the default page size and the maximum page size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class HealthGoalSerializationBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int size;
+
+    private ObjectWriter writer;
+    private List<HealthGoal> goals;
+
+    @Setup
+    public void setup() {
+        // same defaults as the ObjectMapper Spring Boot configures for the message converters
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, HealthGoal.class));
+
+        goals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            goals.add(new HealthGoal()
+                    .id(UUID.randomUUID())
+                    .userId(UUID.randomUUID().toString())
+                    .title("Goal " + i)
+                    .description("Walk 10000 steps every day")
+                    .target(10000)
+                    .unit("steps")
+                    .startDate(new Date(1759276800000L))
+                    .endDate(new Date(1764547200000L))
+                    .status(HealthGoal.StatusEnum.ACTIVE));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(goals);
+    }
+}
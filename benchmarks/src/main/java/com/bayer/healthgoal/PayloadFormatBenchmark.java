@@ -0,0 +1,86 @@
+package com.bayer.healthgoal;
+
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding a listHealthGoals page as JSON, CBOR and Smile, the formats the API negotiates. The encoded
+ * size of each page is printed once per fork, at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class PayloadFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"1", "500"})
+    public int size;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<HealthGoal> goals;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        // the converters and codecs build their binary mappers from the same Boot builder as the JSON one
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory()).build();
+        var listType = objectMapper.getTypeFactory().constructCollectionType(List.class, HealthGoal.class);
+        writer = objectMapper.writerFor(listType);
+        reader = objectMapper.readerFor(listType);
+
+        goals = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            goals.add(new HealthGoal()
+                    .id(UUID.randomUUID())
+                    .userId(UUID.randomUUID().toString())
+                    .title("Goal " + i)
+                    .description("Walk 10000 steps every day")
+                    .target(10000)
+                    .unit("steps")
+                    .startDate(new Date(1759276800000L))
+                    .endDate(new Date(1764547200000L))
+                    .status(HealthGoal.StatusEnum.ACTIVE));
+        }
+        encoded = writer.writeValueAsBytes(goals);
+        System.out.printf("%n%s, %d goals: %d bytes%n", format, size, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(goals);
+    }
+
+    @Benchmark
+    public List<HealthGoal> decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+
+    private JsonFactory factory() {
+        return switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> throw new IllegalArgumentException("unknown format " + format);
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.bayer.healthgoal.config;
+
+import com.bayer.healthgoal.apikey.ApiKeyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiFilter runs in front of every request; lives in the filter's package to reach its protected methods.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ApiFilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    // bootstrap key only, so the repository is never reached
+    private final ApiFilter filter = new ApiFilter(
+            new ApiKeyService(null, "api_key", 0, 100, Duration.ofMinutes(1), 100, 50));
+    private MockHttpServletRequest apiRequest;
+    private MockHttpServletRequest actuatorRequest;
+    private MockHttpServletRequest unauthorizedRequest;
+    // reused so the numbers show the filter's own allocation, not the mock response's buffers
+    private final MockHttpServletResponse response = new BufferedResponse();
+
+    @Setup
+    public void setup() {
+        apiRequest = request("/bayer/v1/health-goals", "api_key");
+        actuatorRequest = request("/actuator/health", null);
+        unauthorizedRequest = request("/bayer/v1/health-goals", "wrong_key");
+    }
+
+    @Benchmark
+    public boolean shouldNotFilterApiPath() {
+        return filter.shouldNotFilter(apiRequest);
+    }
+
+    @Benchmark
+    public boolean shouldNotFilterExcludedPath() {
+        return filter.shouldNotFilter(actuatorRequest);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilterInternalAuthorized() throws ServletException, IOException {
+        filter.doFilterInternal(apiRequest, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilterInternalUnauthorized() throws ServletException, IOException {
+        response.reset();
+        filter.doFilterInternal(unauthorizedRequest, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    /**
+     * MockHttpServletResponse's output stream writes and flushes one byte at a time; a container buffers bulk
+     * writes, so this one does too.
+     */
+    private static final class BufferedResponse extends MockHttpServletResponse {
+
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                body.write(b);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                body.write(bytes, offset, length);
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            body.reset();
+        }
+    }
+
+    private static MockHttpServletRequest request(String uri, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (apiKey != null) {
+            request.addHeader("x-api-key", apiKey);
+        }
+        request.addHeader("x-correlation-id", "bench-correlation");
+        request.addHeader("x-request-id", "bench-request");
+        return request;
+    }
+}
@@ -0,0 +1,120 @@
+package com.bayer.healthgoal.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.bayer.healthgoal.logging.SamplingTurboFilter.SAMPLED;
+
+/**
+ * One request's worth of CPU plus its per-request INFO line, logged through the api module's
+ * {@code logback-spring.xml} from four threads. {@code pipeline} is logging off (the baseline), straight into the
+ * JSON console appender, through the async ring buffer, or through the ring buffer sampled 1 in 10. {@code sink} is
+ * stdout discarding everything, or a pipe whose reader lags and stalls every write for 20us. The number of events
+ * the async appender discarded is printed after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@Threads(4)
+public class LoggingBenchmark {
+
+    private static final long REQUEST_WORK_TOKENS = 2_000;
+    private static final long SLOW_PIPE_STALL_NANOS = 20_000;
+
+    @Param({"off", "sync", "async", "asyncSampled"})
+    public String pipeline;
+
+    @Param({"devNull", "slowPipe"})
+    public String sink;
+
+    private final PrintStream stdout = System.out;
+    private LoggerContext context;
+    private Logger log;
+    private DiscardingAsyncDisruptorAppender async;
+
+    @Setup
+    public void setup() throws Exception {
+        System.setOut(new PrintStream(sink.equals("slowPipe") ? new SlowPipe() : OutputStream.nullOutputStream()));
+
+        // the properties Spring would resolve for the springProperty elements, which plain Joran skips
+        context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        context.putProperty("APP_NAME", "healthgoal-api");
+        context.putProperty("LOG_LEVEL", pipeline.equals("off") ? "OFF" : "INFO");
+        context.putProperty("LOG_SAMPLE_EVERY", pipeline.equals("asyncSampled") ? "10" : "1");
+        context.putProperty("LOG_RING_BUFFER_SIZE", "8192");
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(LoggingBenchmark.class.getResource("/logback-spring.xml"));
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        async = (DiscardingAsyncDisruptorAppender) root.getAppender("ASYNC_JSON");
+        if (pipeline.equals("sync")) {
+            Appender<ILoggingEvent> console = async.getAppender("JSON_CONSOLE");
+            root.detachAppender(async);
+            async.stop();
+            console.start();
+            root.addAppender(console);
+        }
+        log = context.getLogger("com.bayer.healthgoal.HealthGoalsApiDelegateImpl");
+        log.setLevel(pipeline.equals("off") ? Level.OFF : null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        long discarded = async.getDiscardedCount();
+        context.stop();
+        System.setOut(stdout);
+        System.out.println("discarded: " + discarded);
+    }
+
+    @State(Scope.Thread)
+    public static class Request {
+
+        @Setup
+        public void setup() {
+            MDC.put("correlationId", UUID.randomUUID().toString());
+            MDC.put("requestId", UUID.randomUUID().toString());
+        }
+    }
+
+    @Benchmark
+    public void retrievedGoals(Request request) {
+        Blackhole.consumeCPU(REQUEST_WORK_TOKENS);
+        log.info(SAMPLED, "retrieved {} health goals | hasMore={}", 20, true);
+    }
+
+    // a full pipe buffer: the writing thread parks until the reader catches up
+    private static final class SlowPipe extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+            LockSupport.parkNanos(SLOW_PIPE_STALL_NANOS);
+        }
+    }
+}
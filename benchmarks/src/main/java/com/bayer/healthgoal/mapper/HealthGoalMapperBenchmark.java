@@ -0,0 +1,45 @@
+package com.bayer.healthgoal.mapper;
+
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning one entity into the API model, paid once per goal on every read path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class HealthGoalMapperBenchmark {
+
+    private final HealthGoalMapper mapper = new HealthGoalMapperImpl();
+    private HealthGoalEntity entity;
+
+    @Setup
+    public void setup() {
+        entity = HealthGoalEntity.builder()
+                .id(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .title("Lose Weight")
+                .description("Lose 5kg in 2 months")
+                .target(5)
+                .unit("kg")
+                .startDate(LocalDate.of(2025, 10, 1))
+                .endDate(LocalDate.of(2025, 12, 1))
+                .status(HealthGoalEntity.Status.ACTIVE)
+                .version(3L)
+                .build();
+    }
+
+    @Benchmark
+    public HealthGoal toDto() {
+        return mapper.toDto(entity);
+    }
+}
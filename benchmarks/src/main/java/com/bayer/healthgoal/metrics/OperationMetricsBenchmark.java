@@ -0,0 +1,100 @@
+package com.bayer.healthgoal.metrics;
+
+import com.bayer.healthgoal.api.model.HealthGoal;
+import com.bayer.healthgoal.entity.HealthGoalEntity;
+import com.bayer.healthgoal.mapper.HealthGoalMapper;
+import com.bayer.healthgoal.mapper.HealthGoalMapperImpl;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the operation timers add to a request: the same 50-goal page mapped bare and inside a fully instrumented
+ * request (interceptor, mapping phase, commit and serialization phases, Prometheus registry).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class OperationMetricsBenchmark {
+
+    private final HealthGoalMapper mapper = new HealthGoalMapperImpl();
+    private final OperationMetrics operationMetrics =
+            new OperationMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bayer/v1/health-goals");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    private HandlerMethod handler;
+    private List<HealthGoalEntity> page;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        handler = new HandlerMethod(this, OperationMetricsBenchmark.class.getMethod("listHealthGoals"));
+        page = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            page.add(HealthGoalEntity.builder()
+                    .id(UUID.randomUUID())
+                    .userId(UUID.randomUUID())
+                    .title("Goal " + i)
+                    .description("Walk more")
+                    .target(10_000)
+                    .unit("steps")
+                    .startDate(LocalDate.of(2025, 10, 1))
+                    .endDate(LocalDate.of(2025, 12, 1))
+                    .status(HealthGoalEntity.Status.ACTIVE)
+                    .version(1L)
+                    .build());
+        }
+    }
+
+    // stands in for the generated controller method, whose name becomes the operation tag
+    public List<HealthGoal> listHealthGoals() {
+        return mapPage();
+    }
+
+    @Benchmark
+    public List<HealthGoal> uninstrumented() {
+        return mapPage();
+    }
+
+    @Benchmark
+    public List<HealthGoal> instrumented() {
+        operationMetrics.preHandle(request, response, handler);
+        operationMetrics.beforeCommit(null);
+        operationMetrics.afterCommit(null, null);
+        List<HealthGoal> goals = operationMetrics.timeMapping(this::mapPage);
+        operationMetrics.addSerializationTime(1_000);
+        operationMetrics.afterCompletion(request, response, handler, null);
+        return goals;
+    }
+
+    // the instrumentation alone, around an empty handler
+    @Benchmark
+    public Object lifecycleOnly() {
+        operationMetrics.preHandle(request, response, handler);
+        operationMetrics.beforeCommit(null);
+        operationMetrics.afterCommit(null, null);
+        Object none = operationMetrics.timeMapping(() -> handler);
+        operationMetrics.addSerializationTime(1_000);
+        operationMetrics.afterCompletion(request, response, handler, null);
+        return none;
+    }
+
+    private List<HealthGoal> mapPage() {
+        List<HealthGoal> goals = new ArrayList<>(page.size());
+        for (HealthGoalEntity entity : page) {
+            goals.add(mapper.toDto(entity));
+        }
+        return goals;
+    }
+}
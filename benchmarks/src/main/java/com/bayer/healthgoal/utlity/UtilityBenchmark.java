@@ -0,0 +1,31 @@
+package com.bayer.healthgoal.utlity;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date conversion runs for both dates of every create and update request and for each list filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class UtilityBenchmark {
+
+    private final Date date = new Date(1759276800000L); // 2025-10-01T00:00:00Z
+
+    @Benchmark
+    public LocalDate toLocalDate() {
+        return Utility.toLocalDate(date);
+    }
+
+    @Benchmark
+    public LocalDate toLocalDateNull() {
+        return Utility.toLocalDate(null);
+    }
+}
@@ -0,0 +1,419 @@
+package com.bayer.healthgoal.contract;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HTTP behaviour every implementation of the Health Goal contract must share: status codes, error bodies, ETags
+ * and cursors. Subclasses start their application on a random port with an empty database and provide users.
+ */
+public abstract class HealthGoalApiContractTest {
+
+    protected static final String BASE_PATH = "/bayer/v1/health-goals";
+    protected static final String API_KEY = "api_key";
+
+    private static final MediaType APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+    private static final ObjectMapper SMILE = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    protected WebTestClient webTestClient;
+
+    private UUID userId;
+
+    /**
+     * Inserts a user row directly and returns its id; there is no endpoint for users.
+     */
+    protected abstract UUID createUser();
+
+    @BeforeEach
+    void createOwner() {
+        userId = createUser();
+    }
+
+    @Test
+    void missingApiKey_Returns401WithCorrelationIdAsTraceId() {
+        webTestClient.get().uri(BASE_PATH)
+                .header("x-correlation-id", "corr-401")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("unauthorized")
+                .jsonPath("$.message").isEqualTo("Missing or invalid API key")
+                .jsonPath("$.traceId").isEqualTo("corr-401");
+    }
+
+    @Test
+    void createHealthGoal_Returns201WithETag() {
+        webTestClient.post().uri(BASE_PATH)
+                .headers(this::apiHeaders)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(createBody("Walk"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody()
+                .jsonPath("$.id").isNotEmpty()
+                .jsonPath("$.userId").isEqualTo(userId.toString())
+                .jsonPath("$.title").isEqualTo("Walk")
+                .jsonPath("$.status").isEqualTo("ACTIVE");
+    }
+
+    @Test
+    void createHealthGoal_MissingTitle_Returns400() {
+        webTestClient.post().uri(BASE_PATH)
+                .headers(this::apiHeaders)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"userId\":\"" + userId + "\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("invalid_request")
+                .jsonPath("$.message").isEqualTo("userId and title are required fields");
+    }
+
+    @Test
+    void createHealthGoal_UnknownUser_Returns404() {
+        UUID unknown = UUID.randomUUID();
+        webTestClient.post().uri(BASE_PATH)
+                .headers(this::apiHeaders)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"userId\":\"" + unknown + "\",\"title\":\"Walk\"}")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("user_not_found")
+                .jsonPath("$.message").isEqualTo("user not found for id= " + unknown);
+    }
+
+    @Test
+    void getHealthGoalById_ReturnsGoalThen304ForMatchingETag() {
+        String id = createGoal("Read");
+
+        webTestClient.get().uri(BASE_PATH + "/{id}", id)
+                .headers(this::apiHeaders)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody().jsonPath("$.title").isEqualTo("Read");
+
+        webTestClient.get().uri(BASE_PATH + "/{id}", id)
+                .headers(this::apiHeaders)
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"0\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getHealthGoalById_Unknown_Returns404() {
+        UUID unknown = UUID.randomUUID();
+        webTestClient.get().uri(BASE_PATH + "/{id}", unknown)
+                .headers(this::apiHeaders)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("resource_not_found")
+                .jsonPath("$.message").isEqualTo("HealthGoal not found: " + unknown);
+    }
+
+    @Test
+    void getHealthGoalById_MalformedId_Returns400() {
+        webTestClient.get().uri(BASE_PATH + "/not-a-uuid")
+                .headers(this::apiHeaders)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("invalid_request");
+    }
+
+    @Test
+    void updateHealthGoal_StaleIfMatch_Returns412_CurrentIfMatch_BumpsETag() {
+        String id = createGoal("Before");
+
+        webTestClient.put().uri(BASE_PATH + "/{id}", id)
+                .headers(this::apiHeaders)
+                .header(HttpHeaders.IF_MATCH, "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\"After\"}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED)
+                .expectBody().jsonPath("$.error").isEqualTo("precondition_failed");
+
+        webTestClient.put().uri(BASE_PATH + "/{id}", id)
+                .headers(this::apiHeaders)
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\"After\",\"status\":\"COMPLETED\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("After")
+                .jsonPath("$.status").isEqualTo("COMPLETED");
+    }
+
+    @Test
+    void listHealthGoals_PagesWithCursorAndRejectsBadLimit() {
+        createGoal("First");
+        createGoal("Second");
+
+        EntityExchangeResult<byte[]> firstPage = webTestClient.get()
+                .uri(BASE_PATH + "?userId={userId}&limit=1", userId)
+                .headers(this::apiHeaders)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(1)
+                .returnResult();
+        String cursor = firstPage.getResponseHeaders().getFirst("x-next-cursor");
+        assertNotNull(cursor);
+
+        webTestClient.get().uri(BASE_PATH + "?userId={userId}&limit=1&cursor={cursor}", userId, cursor)
+                .headers(this::apiHeaders)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist("x-next-cursor")
+                .expectBody().jsonPath("$.length()").isEqualTo(1);
+
+        webTestClient.get().uri(BASE_PATH + "?limit=0")
+                .headers(this::apiHeaders)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("limit must be between 1 and 500");
+    }
+
+    @Test
+    void deleteHealthGoal_Returns204Then404() {
+        String id = createGoal("Delete me");
+
+        webTestClient.delete().uri(BASE_PATH + "/{id}", id)
+                .headers(this::apiHeaders)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.delete().uri(BASE_PATH + "/{id}", id)
+                .headers(this::apiHeaders)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("resource_not_found");
+    }
+
+    @Test
+    void batchHealthGoals_ReportsPerItemStatus() {
+        String existing = createGoal("Existing");
+        UUID missing = UUID.randomUUID();
+        String body = """
+                {"operations":[
+                  {"op":"CREATE","create":{"userId":"%s","title":"Batch"}},
+                  {"op":"UPDATE","id":"%s","update":{"title":"Batch updated"}},
+                  {"op":"DELETE","id":"%s"}
+                ]}
+                """.formatted(userId, existing, missing);
+
+        webTestClient.post().uri(BASE_PATH + "/batch")
+                .headers(this::apiHeaders)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results[0].status").isEqualTo(201)
+                .jsonPath("$.results[0].goal.title").isEqualTo("Batch")
+                .jsonPath("$.results[1].status").isEqualTo(200)
+                .jsonPath("$.results[1].goal.title").isEqualTo("Batch updated")
+                .jsonPath("$.results[2].status").isEqualTo(404)
+                .jsonPath("$.results[2].error.error").isEqualTo("resource_not_found");
+    }
+
+    @Test
+    void getHealthGoalSummary_FollowsCreatesStatusChangesAndDeletes() {
+        expectSummary(0, 0, 0);
+
+        String completed = createGoal("Completed");
+        String cancelled = createGoal("Cancelled");
+        String removed = createGoal("Removed");
+        createGoal("Active");
+
+        webTestClient.put().uri(BASE_PATH + "/{id}", completed)
+                .headers(this::apiHeaders)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"status\":\"COMPLETED\"}")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.post().uri(BASE_PATH + "/batch")
+                .headers(this::apiHeaders)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {"operations":[
+                          {"op":"UPDATE","id":"%s","update":{"status":"CANCELLED"}},
+                          {"op":"DELETE","id":"%s"}
+                        ]}
+                        """.formatted(cancelled, removed))
+                .exchange()
+                .expectStatus().isOk();
+        expectSummary(1, 1, 1);
+
+        webTestClient.delete().uri(BASE_PATH + "/{id}", completed)
+                .headers(this::apiHeaders)
+                .exchange()
+                .expectStatus().isNoContent();
+        expectSummary(1, 0, 1);
+    }
+
+    @Test
+    void getHealthGoalSummary_UnknownUser_Returns404() {
+        webTestClient.get().uri(BASE_PATH + "/summary?userId={userId}", UUID.randomUUID())
+                .headers(this::apiHeaders)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.error").isEqualTo("user_not_found");
+    }
+
+    @Test
+    void exportHealthGoals_StreamsOneJsonDocumentPerLine() {
+        createGoal("One");
+        createGoal("Two");
+
+        byte[] body = webTestClient.get().uri(BASE_PATH + "/export?userId={userId}", userId)
+                .headers(this::apiHeaders)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody().returnResult().getResponseBody();
+
+        String[] lines = new String(body, StandardCharsets.UTF_8).strip().split("\n");
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            assertTrue(line.startsWith("{") && line.endsWith("}"), line);
+        }
+    }
+
+    @Test
+    void createAndGetHealthGoal_NegotiateCbor() throws IOException {
+        byte[] body = CBOR.writeValueAsBytes(Map.of("userId", userId.toString(), "title", "Binary",
+                "target", 10000, "unit", "steps"));
+
+        Map<?, ?> created = CBOR.readValue(webTestClient.post().uri(BASE_PATH)
+                .headers(this::apiHeaders)
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                .expectBody(byte[].class).returnResult().getResponseBody(), Map.class);
+        assertEquals("Binary", created.get("title"));
+        assertEquals(10000, created.get("target"));
+        // Jackson writes a UUID as its 16 bytes in binary formats
+        UUID id = toUuid((byte[]) created.get("id"));
+
+        Map<?, ?> read = CBOR.readValue(webTestClient.get().uri(BASE_PATH + "/{id}", id)
+                .headers(this::apiHeaders)
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class).returnResult().getResponseBody(), Map.class);
+        assertEquals("Binary", read.get("title"));
+        assertEquals(id, toUuid((byte[]) read.get("id")));
+    }
+
+    @Test
+    void updateAndListHealthGoals_NegotiateSmile() throws IOException {
+        String id = createGoal("Smile");
+
+        webTestClient.put().uri(BASE_PATH + "/{id}", id)
+                .headers(this::apiHeaders)
+                .contentType(APPLICATION_SMILE)
+                .accept(APPLICATION_SMILE)
+                .bodyValue(SMILE.writeValueAsBytes(Map.of("title", "Smiled")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(APPLICATION_SMILE);
+
+        List<?> goals = SMILE.readValue(webTestClient.get().uri(BASE_PATH + "?userId={userId}", userId)
+                .headers(this::apiHeaders)
+                .accept(APPLICATION_SMILE)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(APPLICATION_SMILE)
+                .expectBody(byte[].class).returnResult().getResponseBody(), List.class);
+        assertEquals(1, goals.size());
+        assertEquals("Smiled", ((Map<?, ?>) goals.get(0)).get("title"));
+    }
+
+    @Test
+    void getHealthGoalById_WithoutAccept_ReturnsJson() {
+        String id = createGoal("Default");
+
+        webTestClient.get().uri(BASE_PATH + "/{id}", id)
+                .header("x-api-key", API_KEY)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody().jsonPath("$.title").isEqualTo("Default");
+    }
+
+    protected String createGoal(String title) {
+        EntityExchangeResult<byte[]> result = webTestClient.post().uri(BASE_PATH)
+                .headers(this::apiHeaders)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(createBody(title))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().returnResult();
+        String json = new String(result.getResponseBody(), StandardCharsets.UTF_8);
+        int start = json.indexOf("\"id\":\"") + 6;
+        return json.substring(start, json.indexOf('"', start));
+    }
+
+    private static UUID toUuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private String createBody(String title) {
+        return "{\"userId\":\"" + userId + "\",\"title\":\"" + title + "\",\"target\":10000,\"unit\":\"steps\"}";
+    }
+
+    private void expectSummary(long active, long completed, long cancelled) {
+        webTestClient.get().uri(BASE_PATH + "/summary?userId={userId}", userId)
+                .headers(this::apiHeaders)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.userId").isEqualTo(userId.toString())
+                .jsonPath("$.active").isEqualTo(active)
+                .jsonPath("$.completed").isEqualTo(completed)
+                .jsonPath("$.cancelled").isEqualTo(cancelled)
+                .jsonPath("$.total").isEqualTo(active + completed + cancelled);
+    }
+
+    private void apiHeaders(HttpHeaders headers) {
+        headers.set("x-api-key", API_KEY);
+        headers.set("x-correlation-id", "contract");
+        headers.set("x-request-id", UUID.randomUUID().toString());
+    }
+}
@@ -0,0 +1,3 @@
+-- The previous listHealthGoals behaviour: findAll() over the whole table.
+SELECT id, user_id, title, description, target, unit, start_date, end_date, status
+FROM health_goals;
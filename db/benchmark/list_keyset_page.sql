@@ -0,0 +1,6 @@
+-- One keyset page starting at a random position in the id space, as issued by listHealthGoals.
+SELECT id, user_id, title, description, target, unit, start_date, end_date, status
+FROM health_goals
+WHERE id > uuid_generate_v4()
+ORDER BY id
+LIMIT 51;
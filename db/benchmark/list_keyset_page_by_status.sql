@@ -0,0 +1,8 @@
+-- One keyset page filtered by status and start date range.
+SELECT id, user_id, title, description, target, unit, start_date, end_date, status
+FROM health_goals
+WHERE status = 'COMPLETED'
+  AND start_date BETWEEN DATE '2024-03-01' AND DATE '2024-09-30'
+  AND id > uuid_generate_v4()
+ORDER BY id
+LIMIT 51;
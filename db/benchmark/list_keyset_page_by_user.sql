@@ -0,0 +1,8 @@
+-- One keyset page of a random benchmark user's goals (userId filter + cursor).
+\set n random(1, 10000)
+SELECT g.id, g.user_id, g.title, g.description, g.target, g.unit, g.start_date, g.end_date, g.status
+FROM health_goals g
+WHERE g.user_id = (SELECT id FROM users WHERE username = 'bench_user_' || :n)
+  AND g.id > uuid_generate_v4()
+ORDER BY g.id
+LIMIT 51;
@@ -0,0 +1,28 @@
+#!/bin/sh
+# Compares keyset-paginated listHealthGoals queries against the old findAll() on a seeded table.
+# Requires psql/pgbench and the PG* environment variables (PGHOST, PGUSER, PGDATABASE, PGPASSWORD).
+#
+#   ./run-list-benchmark.sh            # seed 1M goals (10k users x 100) and benchmark
+#   SKIP_SEED=1 ./run-list-benchmark.sh
+set -e
+
+cd "$(dirname "$0")"
+DURATION=${DURATION:-30}
+CLIENTS=${CLIENTS:-8}
+
+if [ -z "$SKIP_SEED" ]; then
+  psql -v ON_ERROR_STOP=1 -v users="${USERS:-10000}" -v goals_per_user="${GOALS_PER_USER:-100}" \
+       -f seed_health_goals.sql
+fi
+
+for script in list_keyset_page list_keyset_page_by_user list_keyset_page_by_status; do
+  echo "=== $script (${CLIENTS} clients, ${DURATION}s)"
+  pgbench -n -M prepared -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" -P 10 -f "$script.sql" \
+    | grep -E "tps|latency"
+done
+
+echo "=== list_find_all (1 client, 3 transactions)"
+pgbench -n -c 1 -t 3 -f list_find_all.sql | grep -E "tps|latency"
+
+echo "=== plan of a keyset page"
+psql -c "EXPLAIN (ANALYZE, BUFFERS) $(grep -v '^--' list_keyset_page.sql)"
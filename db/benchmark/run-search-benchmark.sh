@@ -0,0 +1,28 @@
+#!/bin/sh
+# Compares searchHealthGoals queries against fetching goals and filtering them on the client, on a seeded table.
+# Requires psql/pgbench and the PG* environment variables (PGHOST, PGUSER, PGDATABASE, PGPASSWORD), and the search
+# indexes: start the API once against the database, which applies the migrations that create them.
+#
+#   ./run-search-benchmark.sh            # seed 1M goals (10k users x 100) and benchmark
+#   SKIP_SEED=1 ./run-search-benchmark.sh
+set -e
+
+cd "$(dirname "$0")"
+DURATION=${DURATION:-30}
+CLIENTS=${CLIENTS:-8}
+
+if [ -z "$SKIP_SEED" ]; then
+  psql -v ON_ERROR_STOP=1 -v users="${USERS:-10000}" -v goals_per_user="${GOALS_PER_USER:-100}" \
+       -f seed_health_goals.sql
+fi
+
+for script in search_full_text search_full_text_by_user search_fetch_all_by_user; do
+  echo "=== $script (${CLIENTS} clients, ${DURATION}s)"
+  pgbench -n -M prepared -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION" -P 10 -f "$script.sql" \
+    | grep -E "tps|latency"
+done
+
+for script in search_unindexed_filter list_find_all; do
+  echo "=== $script (1 client, 3 transactions)"
+  pgbench -n -c 1 -t 3 -f "$script.sql" | grep -E "tps|latency"
+done
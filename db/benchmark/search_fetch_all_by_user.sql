@@ -0,0 +1,6 @@
+-- What clients do without search: fetch every goal of a user and filter title/description themselves.
+\set n random(1, 10000)
+SELECT g.id, g.user_id, g.title, g.description, g.target, g.unit, g.start_date, g.end_date, g.status
+FROM health_goals g
+WHERE g.user_id = (SELECT id FROM users WHERE username = 'bench_user_' || :n)
+ORDER BY g.id;
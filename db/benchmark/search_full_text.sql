@@ -0,0 +1,22 @@
+-- One searchHealthGoals page over all users, as HealthGoalSearchRepositoryImpl issues it on PostgreSQL, for a
+-- random word prefix from the seeded vocabulary. Each word matches about 1/16 of the table.
+\set n random(1, 16)
+SELECT *
+FROM (SELECT *
+      FROM health_goals
+      WHERE ((setweight(to_tsvector('english', coalesce(title, '')), 'A')
+                 || setweight(to_tsvector('english', coalesce(description, '')), 'B'))
+                 @@ to_tsquery('english', (ARRAY ['marath:*', 'walk:*', 'weigh:*', 'water:*', 'sleep:*', 'cycl:*',
+                     'swim:*', 'medit:*', 'veget:*', 'sugar:*', 'strength:*', 'yoga:*', 'blood:*', 'smok:*',
+                     'stretch:*', 'mountain:*'])[:n])
+          OR title ILIKE '%' || (ARRAY ['marath', 'walk', 'weigh', 'water', 'sleep', 'cycl', 'swim', 'medit',
+              'veget', 'sugar', 'strength', 'yoga', 'blood', 'smok', 'stretch', 'mountain'])[:n] || '%')
+      LIMIT 1000) g
+ORDER BY ts_rank((setweight(to_tsvector('english', coalesce(title, '')), 'A')
+                     || setweight(to_tsvector('english', coalesce(description, '')), 'B')),
+                 to_tsquery('english', (ARRAY ['marath:*', 'walk:*', 'weigh:*', 'water:*', 'sleep:*', 'cycl:*',
+                     'swim:*', 'medit:*', 'veget:*', 'sugar:*', 'strength:*', 'yoga:*', 'blood:*', 'smok:*',
+                     'stretch:*', 'mountain:*'])[:n]))
+             + similarity(title, (ARRAY ['marath', 'walk', 'weigh', 'water', 'sleep', 'cycl', 'swim', 'medit',
+                 'veget', 'sugar', 'strength', 'yoga', 'blood', 'smok', 'stretch', 'mountain'])[:n]) DESC, id
+LIMIT 51;
@@ -0,0 +1,15 @@
+-- One searchHealthGoals page of a random benchmark user's goals (userId filter) for the prefix "marath".
+\set n random(1, 10000)
+WITH owned AS MATERIALIZED (SELECT *
+                            FROM health_goals
+                            WHERE user_id = (SELECT id FROM users WHERE username = 'bench_user_' || :n))
+SELECT *
+FROM owned
+WHERE ((setweight(to_tsvector('english', coalesce(title, '')), 'A')
+           || setweight(to_tsvector('english', coalesce(description, '')), 'B'))
+           @@ to_tsquery('english', 'marath:*')
+    OR title ILIKE '%marath%')
+ORDER BY ts_rank((setweight(to_tsvector('english', coalesce(title, '')), 'A')
+                     || setweight(to_tsvector('english', coalesce(description, '')), 'B')),
+                 to_tsquery('english', 'marath:*')) + similarity(title, 'marath') DESC, id
+LIMIT 51;
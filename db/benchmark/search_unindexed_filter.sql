@@ -0,0 +1,5 @@
+-- Filtering in the database without an index: every row is read to find the 100 goals of one user name.
+SELECT id, user_id, title, description, target, unit, start_date, end_date, status
+FROM health_goals
+WHERE title || ' ' || description ILIKE '%bench_user_7'
+LIMIT 51;
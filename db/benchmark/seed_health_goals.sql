@@ -0,0 +1,45 @@
+-- Seeds a benchmark data set: :users users with :goals_per_user goals each (default 10k x 100 = 1M goals).
+-- Usage: psql -v users=10000 -v goals_per_user=100 -f seed_health_goals.sql
+-- Expects the application schema (users, health_goals and their indexes) to exist already.
+
+\if :{?users}
+\else
+\set users 10000
+\endif
+\if :{?goals_per_user}
+\else
+\set goals_per_user 100
+\endif
+
+CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
+
+INSERT INTO users (id, username, email)
+SELECT uuid_generate_v4(), 'bench_user_' || n, 'bench_user_' || n || '@example.com'
+FROM generate_series(1, :users) AS n
+ON CONFLICT DO NOTHING;
+
+INSERT INTO health_goals (id, user_id, title, description, target, unit, start_date, end_date, status)
+SELECT uuid_generate_v4(),
+       u.id,
+       -- a small vocabulary, so search terms match from a few goals per user up to a large share of the table
+       (ARRAY ['Run a marathon', 'Walk every day', 'Lose weight', 'Drink more water', 'Sleep eight hours',
+           'Cycle to work', 'Swim twice a week', 'Meditate daily', 'Eat more vegetables', 'Cut down on sugar',
+           'Strength training', 'Morning yoga', 'Lower blood pressure', 'Quit smoking', 'Stretch after work',
+           'Hike a mountain'])[(g % 16) + 1] || ' ' || g,
+       (ARRAY ['Build up slowly', 'Track it with a wearable', 'Keep a steady routine', 'Train with a friend',
+           'Follow the coach''s plan', 'Log every session'])[((g / 16) % 6) + 1] || ' through '
+           || (ARRAY ['the winter', 'the spring', 'the summer', 'the autumn', 'a busy quarter'])[(g % 5) + 1]
+           || ' for ' || u.username,
+       (g % 50) + 1,
+       (ARRAY ['kg', 'km', 'steps', 'minutes'])[(g % 4) + 1],
+       DATE '2024-01-01' + (g % 365),
+       DATE '2024-01-01' + (g % 365) + 90,
+       (ARRAY ['ACTIVE', 'ACTIVE', 'COMPLETED', 'CANCELLED'])[(g % 4) + 1]
+FROM users u
+         CROSS JOIN generate_series(1, :goals_per_user) AS g
+WHERE u.username LIKE 'bench_user_%';
+
+ANALYZE users;
+ANALYZE health_goals;
+
+SELECT count(*) AS seeded_goals FROM health_goals;
@@ -11,9 +11,6 @@ done
 
 echo "postgres is up and running!"
 
-# Enable uuid-ossp extension if not already enabled
-echo "enabling uuid-ossp extension..."
-PGPASSWORD=$SPRING_DATASOURCE_PASSWORD psql -h postgres -U $SPRING_DATASOURCE_USERNAME -d healthgoal -c 'CREATE EXTENSION IF NOT EXISTS "uuid-ossp";' || true
-
+# the schema, including the uuid-ossp extension, is created by the Flyway migrations at startup
 echo "🚀 Starting HealthGoal API..."
-exec java -jar /app/healthgoal-api.jar
+exec java $JAVA_OPTS -jar ${HEALTHGOAL_API_JAR:-/app/healthgoal-api.jar}
@@ -0,0 +1,35 @@
+#!/bin/sh
+# Writes the same goals once as single createHealthGoal/updateHealthGoal calls and once as batchHealthGoals calls of
+# BATCH_SIZE operations (half creates, half updates), with the same users, seeded data and concurrency, and prints
+# goals written per second for both and their ratio.
+#
+#   mvn -B -DskipTests package
+#   ./loadtest/compare-batch.sh                         # Postgres from docker compose (localhost:5432)
+#   DB=embedded BATCH_SIZE=100 ./loadtest/compare-batch.sh   # throwaway embedded Postgres, run as a non-root user
+set -e
+
+cd "$(dirname "$0")/.."
+BATCH_SIZE=${BATCH_SIZE:-10}
+RESULTS=${RESULTS:-loadtest/target/batch-vs-single.csv}
+API_JAR=${API_JAR:-api/target/api-0.0.1-SNAPSHOT-exec.jar}
+LOADTEST_JAR=loadtest/target/healthgoal-loadtest.jar
+
+mkdir -p "$(dirname "$RESULTS")"
+rm -f "$RESULTS"
+for mode in single batch; do
+  if [ "$mode" = batch ]; then mix="batchHealthGoals:1"; else mix="createHealthGoal:1,updateHealthGoal:1"; fi
+  java -jar "$LOADTEST_JAR" --db="${DB:-external}" --app-jar="$API_JAR" \
+       --users="${USERS:-1000}" --goals-per-user="${GOALS_PER_USER:-100}" \
+       --concurrency="${CONCURRENCY:-16}" --warmup="${WARMUP:-15}" --duration="${DURATION:-60}" \
+       --mix="$mix" --batch-size="$BATCH_SIZE" --label="$mode" --out="$RESULTS"
+done
+
+echo
+column -s, -t "$RESULTS" 2>/dev/null || cat "$RESULTS"
+# throughput counts requests; a batch writes BATCH_SIZE goals, and only requests without errors count
+awk -F, -v size="$BATCH_SIZE" '
+  NR > 1 && $4 > 0 { goals[$1] += ($4 - $5) / $4 * $6 * ($3 == "batchHealthGoals" ? size : 1) }
+  END {
+    printf "\ngoals written/s: single %.1f, batch of %d %.1f, ratio %.1fx\n",
+        goals["single"], size, goals["batch"], goals["batch"] / goals["single"]
+  }' "$RESULTS"
@@ -0,0 +1,38 @@
+#!/bin/sh
+# Runs the API once on Tomcat's platform-thread pool and once on virtual threads, drives both with the same
+# seeded data and mixed workload, and prints throughput and p50/p95/p99 per operationId side by side.
+#
+#   mvn -B -DskipTests package
+#   ./loadtest/compare-thread-modes.sh                  # Postgres from docker compose (localhost:5432)
+#   DB=embedded ./loadtest/compare-thread-modes.sh      # throwaway embedded Postgres, run as a non-root user
+#   PINNING=1 ./loadtest/compare-thread-modes.sh        # also report pinned virtual threads
+set -e
+
+cd "$(dirname "$0")/.."
+CONCURRENCY=${CONCURRENCY:-400}
+DURATION=${DURATION:-60}
+WARMUP=${WARMUP:-15}
+RESULTS=${RESULTS:-loadtest/target/thread-modes.csv}
+API_JAR=${API_JAR:-api/target/api-0.0.1-SNAPSHOT-exec.jar}
+LOADTEST_JAR=loadtest/target/healthgoal-loadtest.jar
+
+rm -f "$RESULTS"
+for mode in platform virtual; do
+  if [ "$mode" = virtual ]; then enabled=true; else enabled=false; fi
+  jvm_args=""
+  if [ -n "$PINNING" ]; then jvm_args="-Djdk.tracePinnedThreads=short"; fi
+
+  # caching would hide the JDBC wait that this comparison is about
+  java -jar "$LOADTEST_JAR" --db="${DB:-external}" --app-jar="$API_JAR" --app-jvm-args="$jvm_args" \
+       --app-env="HEALTHGOAL_VIRTUAL_THREADS=$enabled,HEALTHGOAL_CACHE_TYPE=none" \
+       --users="${USERS:-1000}" --goals-per-user="${GOALS_PER_USER:-100}" \
+       --concurrency="$CONCURRENCY" --warmup="$WARMUP" --duration="$DURATION" --label="$mode" --out="$RESULTS"
+
+  if [ -n "$PINNING" ]; then
+    log="${TMPDIR:-/tmp}/healthgoal-$mode.log"
+    echo "pinned virtual thread stacks ($mode): $(grep -c 'onPinned\|<== monitors' "$log" || true)"
+  fi
+done
+
+echo
+column -s, -t "$RESULTS"
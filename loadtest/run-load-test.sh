@@ -0,0 +1,27 @@
+#!/bin/sh
+# Baseline load test of the API as deployed: seeds USERS x GOALS_PER_USER goals, runs the mixed CRUD workload
+# (weights per operationId in MIX, see LoadTestOptions.DEFAULT_MIX) and appends p50/p95/p99 per operationId
+# to loadtest/target/results.csv.
+#
+#   mvn -B -DskipTests package
+#   DB=embedded ./loadtest/run-load-test.sh             # embedded Postgres + API jar, run as a non-root user
+#   ./loadtest/run-load-test.sh                         # docker compose up postgres, API jar started here
+#   DB=embedded PROGRESS_DAYS=90 MIX=recordGoalProgress:70,getGoalProgress:30 ./loadtest/run-load-test.sh
+#                                                       # progress ingest and aggregation over 90 days of history
+#   APP_JAR= BASE_URL=http://localhost:8080/bayer/v1 ./loadtest/run-load-test.sh   # API already running
+set -e
+
+cd "$(dirname "$0")/.."
+mkdir -p loadtest/target
+set -- --db="${DB:-external}" --users="${USERS:-1000}" --goals-per-user="${GOALS_PER_USER:-100}" \
+       --concurrency="${CONCURRENCY:-64}" --warmup="${WARMUP:-15}" --duration="${DURATION:-60}" \
+       --label="${LABEL:-$(git rev-parse --short HEAD 2>/dev/null || echo run)}" \
+       --out="${RESULTS:-loadtest/target/results.csv}"
+if [ -n "${APP_JAR-api/target/api-0.0.1-SNAPSHOT-exec.jar}" ]; then
+  set -- "$@" --app-jar="${APP_JAR-api/target/api-0.0.1-SNAPSHOT-exec.jar}"
+fi
+if [ -n "$BASE_URL" ]; then set -- "$@" --base-url="$BASE_URL"; fi
+if [ -n "$MIX" ]; then set -- "$@" --mix="$MIX"; fi
+if [ -n "$PROGRESS_DAYS" ]; then set -- "$@" --progress-days="$PROGRESS_DAYS"; fi
+
+java -jar loadtest/target/healthgoal-loadtest.jar "$@"
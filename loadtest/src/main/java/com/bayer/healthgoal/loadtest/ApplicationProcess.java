@@ -0,0 +1,87 @@
+package com.bayer.healthgoal.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The API started from its executable jar in a child JVM, pointed at the database under test.
+ */
+final class ApplicationProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process process;
+    private final Path log;
+
+    private ApplicationProcess(Process process, Path log) {
+        this.process = process;
+        this.log = log;
+    }
+
+    static ApplicationProcess start(LoadTestOptions options, PostgresDatabase database)
+            throws IOException, InterruptedException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(options.appJvmArgs());
+        command.add("-jar");
+        command.add(options.appJar().toString());
+
+        Path log = Path.of(System.getProperty("java.io.tmpdir"), "healthgoal-" + options.label() + ".log");
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        Map<String, String> env = builder.environment();
+        env.put("SPRING_DATASOURCE_URL", database.jdbcUrl());
+        env.put("SPRING_DATASOURCE_USERNAME", database.user());
+        env.put("SPRING_DATASOURCE_PASSWORD", database.password());
+        env.put("SERVER_PORT", Integer.toString(options.appPort()));
+        // the seeded goals ended in 2025; expiring half of them mid-run would skew the measured workload
+        env.put("HEALTHGOAL_EXPIRY_CRON", "-");
+        env.putAll(options.appEnv());
+
+        System.out.printf("starting %s (log: %s)%n", String.join(" ", command), log);
+        ApplicationProcess application = new ApplicationProcess(builder.start(), log);
+        application.awaitHealthy(URI.create("http://localhost:" + options.appPort() + "/actuator/health"));
+        return application;
+    }
+
+    private void awaitHealthy(URI health) throws InterruptedException, IOException {
+        HttpClient client = HttpClient.newHttpClient();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("application exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(health).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(500);
+        }
+        close();
+        throw new IllegalStateException("application not healthy after " + STARTUP_TIMEOUT + ", see " + log);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.bayer.healthgoal.loadtest;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Seeds users and goals with set-based SQL (the same shape as db/benchmark/seed_health_goals.sql) once the
+ * application has created the schema, then samples ids for the workload.
+ */
+final class DatabaseSeeder {
+
+    private static final int SAMPLE_SIZE = 10_000;
+
+    private DatabaseSeeder() {
+    }
+
+    static SeedData seed(LoadTestOptions options, PostgresDatabase database) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                database.jdbcUrl(), database.user(), database.password())) {
+            if (!options.skipSeed()) {
+                long started = System.nanoTime();
+                insert(connection, options.users(), options.goalsPerUser());
+                System.out.printf("seeded %d users x %d goals in %d ms%n", options.users(), options.goalsPerUser(),
+                        (System.nanoTime() - started) / 1_000_000);
+                if (options.progressDays() > 0) {
+                    started = System.nanoTime();
+                    insertProgress(connection, options.progressDays());
+                    System.out.printf("seeded %d days of daily progress per goal in %d ms%n", options.progressDays(),
+                            (System.nanoTime() - started) / 1_000_000);
+                }
+            }
+            SeedData data = new SeedData(
+                    sample(connection, "select id from users where username like 'loadtest_user_%' "
+                            + "order by random() limit ?"),
+                    sample(connection, "select g.id from health_goals g join users u on u.id = g.user_id "
+                            + "where u.username like 'loadtest_user_%' order by random() limit ?"));
+            if (data.userIds().isEmpty() || data.goalIds().isEmpty()) {
+                throw new IllegalStateException("no seeded users or goals found, run without --skip-seed first");
+            }
+            return data;
+        }
+    }
+
+    private static void insert(Connection connection, int users, int goalsPerUser) throws SQLException {
+        try (Statement deleteProgress = connection.createStatement();
+             PreparedStatement deleteGoals = connection.prepareStatement("""
+                delete from health_goals
+                where user_id in (select id from users where username like 'loadtest_user_%')
+                """);
+             PreparedStatement insertUsers = connection.prepareStatement("""
+                insert into users (id, username, email)
+                select gen_random_uuid(), 'loadtest_user_' || n, 'loadtest_user_' || n || '@example.com'
+                from generate_series(1, ?) as n
+                on conflict do nothing
+                """);
+             PreparedStatement insertGoals = connection.prepareStatement("""
+                insert into health_goals (id, user_id, title, description, target, unit,
+                                          start_date, end_date, status, version)
+                select gen_random_uuid(), u.id, 'Goal ' || g, 'Load test goal ' || g || ' for ' || u.username,
+                       (g % 50) + 1,
+                       (array ['kg', 'km', 'steps', 'minutes'])[(g % 4) + 1],
+                       date '2025-01-01' + (g % 365),
+                       date '2025-01-01' + (g % 365) + 90,
+                       (array ['ACTIVE', 'ACTIVE', 'COMPLETED', 'CANCELLED'])[(g % 4) + 1],
+                       0
+                from users u
+                         cross join generate_series(1, ?) as g
+                where u.username like 'loadtest_user_%'
+                """);
+             PreparedStatement insertSummaries = connection.prepareStatement("""
+                insert into user_goal_summary (user_id, active, completed, cancelled)
+                select u.id,
+                       count(*) filter (where g.status = 'ACTIVE'),
+                       count(*) filter (where g.status = 'COMPLETED'),
+                       count(*) filter (where g.status = 'CANCELLED')
+                from users u
+                         left join health_goals g on g.user_id = u.id
+                where u.username like 'loadtest_user_%'
+                group by u.id
+                """);
+             Statement analyze = connection.createStatement()) {
+            // reseeding replaces the previous run's goals, so every run starts from the same row counts
+            for (String table : new String[]{"goal_progress", "goal_progress_daily", "goal_audit"}) {
+                deleteProgress.executeUpdate("delete from " + table + " where goal_id in (select g.id from health_goals g "
+                        + "join users u on u.id = g.user_id where u.username like 'loadtest_user_%')");
+            }
+            deleteProgress.executeUpdate("delete from goal_events "
+                    + "where user_id in (select id from users where username like 'loadtest_user_%')");
+            deleteProgress.executeUpdate("delete from user_goal_summary "
+                    + "where user_id in (select id from users where username like 'loadtest_user_%')");
+            deleteGoals.executeUpdate();
+            insertUsers.setInt(1, users);
+            insertUsers.executeUpdate();
+            insertGoals.setInt(1, goalsPerUser);
+            insertGoals.executeUpdate();
+            // what a backfill of user_goal_summary produces; the API keeps it current from here on
+            insertSummaries.executeUpdate();
+            analyze.execute("analyze users");
+            analyze.execute("analyze health_goals");
+        }
+    }
+
+    /**
+     * Gives every seeded goal a daily rollup row for each of the last {@code days} days, the history the
+     * aggregation queries read. Raw entries are not seeded: nothing reads them back, and appending does not depend
+     * on how many a partition already holds, since it carries no index.
+     */
+    private static void insertProgress(Connection connection, int days) throws SQLException {
+        try (PreparedStatement insertDaily = connection.prepareStatement("""
+                insert into goal_progress_daily (goal_id, day_utc, total, entries)
+                select g.id, current_date - d, 6000 + (abs(hashtext(g.id::text || d)) % 8000), 288
+                from health_goals g
+                         join users u on u.id = g.user_id
+                         cross join generate_series(1, ?) as d
+                where u.username like 'loadtest_user_%'
+                """);
+             Statement analyze = connection.createStatement()) {
+            insertDaily.setInt(1, days);
+            insertDaily.executeUpdate();
+            analyze.execute("analyze goal_progress_daily");
+        }
+    }
+
+    private static List<UUID> sample(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setInt(1, SAMPLE_SIZE);
+            List<UUID> ids = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    ids.add(rows.getObject(1, UUID.class));
+                }
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.bayer.healthgoal.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}.
+ */
+record LoadTestOptions(URI baseUrl,
+                       String apiKey,
+                       int concurrency,
+                       Duration warmup,
+                       Duration duration,
+                       String label,
+                       Path out,
+                       Database database,
+                       String jdbcUrl,
+                       String dbUser,
+                       String dbPassword,
+                       int users,
+                       int goalsPerUser,
+                       int progressDays,
+                       boolean skipSeed,
+                       Path appJar,
+                       int appPort,
+                       List<String> appJvmArgs,
+                       Map<String, String> appEnv,
+                       Map<String, Integer> mix,
+                       int batchSize) {
+
+    enum Database { EXTERNAL, EMBEDDED }
+
+    /**
+     * Weights per operationId, following the requests of the Bruno collection in {@code Bayer/}.
+     */
+    static final String DEFAULT_MIX = "getHealthGoalById:40,listHealthGoals:20,createHealthGoal:12,"
+            + "updateHealthGoal:12,deleteHealthGoal:6,batchHealthGoals:8,exportHealthGoals:2";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+                throw new IllegalArgumentException("expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        Path appJar = values.containsKey("app-jar") ? Path.of(values.get("app-jar")) : null;
+        int appPort = Integer.parseInt(values.getOrDefault("app-port", appJar != null ? "18080" : "8080"));
+        Database database = Database.valueOf(values.getOrDefault("db", "external").toUpperCase());
+        if (database == Database.EMBEDDED && appJar == null) {
+            throw new IllegalArgumentException("--db=embedded needs --app-jar, the application must use that database");
+        }
+        String out = values.get("out");
+        return new LoadTestOptions(
+                URI.create(values.getOrDefault("base-url", "http://localhost:" + appPort + "/bayer/v1")),
+                values.getOrDefault("api-key", "api_key"),
+                Integer.parseInt(values.getOrDefault("concurrency", "64")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                values.getOrDefault("label", "run"),
+                out != null ? Path.of(out) : null,
+                database,
+                values.getOrDefault("jdbc-url", "jdbc:postgresql://localhost:5432/healthgoal"),
+                values.getOrDefault("db-user", "healthgoal_user"),
+                values.getOrDefault("db-password", "healthgoal_pass"),
+                Integer.parseInt(values.getOrDefault("users", "1000")),
+                Integer.parseInt(values.getOrDefault("goals-per-user", "100")),
+                Integer.parseInt(values.getOrDefault("progress-days", "0")),
+                Boolean.parseBoolean(values.getOrDefault("skip-seed", "false")),
+                appJar,
+                appPort,
+                split(values.get("app-jvm-args"), " "),
+                keyValues(values.get("app-env"), "=", Map.of()),
+                keyValues(values.getOrDefault("mix", DEFAULT_MIX), ":", null).entrySet().stream()
+                        .collect(LinkedHashMap::new, (m, e) -> m.put(e.getKey(), Integer.parseInt(e.getValue())),
+                                Map::putAll),
+                Integer.parseInt(values.getOrDefault("batch-size", "10")));
+    }
+
+    private static List<String> split(String value, String separator) {
+        return value == null || value.isBlank() ? List.of() : Arrays.asList(value.trim().split(separator));
+    }
+
+    // "a=1,b=2" -> {a=1, b=2}
+    private static Map<String, String> keyValues(String value, String separator, Map<String, String> empty) {
+        if (value == null || value.isBlank()) {
+            return empty;
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        for (String pair : value.split(",")) {
+            String[] parts = pair.split(separator, 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("expected key" + separator + "value but got " + pair);
+            }
+            map.put(parts[0].trim(), parts[1].trim());
+        }
+        return map;
+    }
+}
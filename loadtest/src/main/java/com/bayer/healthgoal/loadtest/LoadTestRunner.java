@@ -0,0 +1,141 @@
+package com.bayer.healthgoal.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load harness: optionally starts an embedded Postgres and the API jar, seeds users and goals, then runs
+ * a closed-loop mixed CRUD workload where {@code concurrency} virtual users each send the next request as soon as
+ * the previous one returns. Throughput and p50/p95/p99 are reported per operationId; the warmup is discarded.
+ *
+ * <pre>
+ *   # everything local: embedded Postgres + the API jar
+ *   java -jar healthgoal-loadtest.jar --db=embedded --app-jar=api/target/api-0.0.1-SNAPSHOT-exec.jar
+ *   # an API that is already running against docker compose's Postgres
+ *   java -jar healthgoal-loadtest.jar --jdbc-url=jdbc:postgresql://localhost:5432/healthgoal --users=10000
+ * </pre>
+ */
+public final class LoadTestRunner {
+
+    private final LoadTestOptions options;
+    private final Workload workload;
+    private final HttpClient client;
+    private final Map<String, OperationStats> stats = new LinkedHashMap<>();
+
+    private LoadTestRunner(LoadTestOptions options, Workload workload, ExecutorService executor) {
+        this.options = options;
+        this.workload = workload;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        workload.operationIds().forEach(operationId -> stats.put(operationId, new OperationStats(operationId)));
+        // a delete with nothing to delete is sent as a create
+        stats.putIfAbsent(Workload.CREATE, new OperationStats(Workload.CREATE));
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        try (PostgresDatabase database = PostgresDatabase.start(options);
+             ApplicationProcess ignored = options.appJar() != null ? ApplicationProcess.start(options, database) : null;
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            SeedData data = DatabaseSeeder.seed(options, database);
+            Workload workload = new Workload(options.baseUrl(), data, options.mix(), options.batchSize());
+            new LoadTestRunner(options, workload, executor).run(executor);
+        }
+    }
+
+    private void run(ExecutorService executor) throws Exception {
+        long measureFrom = System.nanoTime() + options.warmup().toNanos();
+        long stopAt = measureFrom + options.duration().toNanos();
+        for (int i = 0; i < options.concurrency(); i++) {
+            executor.submit(() -> virtualUser(stopAt));
+        }
+
+        Thread.sleep(options.warmup());
+        stats.values().forEach(OperationStats::reset);
+        Thread.sleep(options.duration());
+        // stats are read once the users have drained, in-flight requests may still land in the histograms
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        report((System.nanoTime() - measureFrom) / 1_000_000_000.0);
+    }
+
+    private Void virtualUser(long stopAt) {
+        while (System.nanoTime() < stopAt) {
+            Workload.Step step = workload.next();
+            try {
+                HttpResponse<String> response = send(stats.get(step.operationId()), step.request());
+                if (response != null) {
+                    workload.onResponse(step.operationId(), response);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private HttpResponse<String> send(OperationStats stats, HttpRequest.Builder request) throws InterruptedException {
+        HttpRequest built = request
+                .timeout(Duration.ofSeconds(30))
+                .header("x-api-key", options.apiKey())
+                .header("x-correlation-id", "loadtest-" + options.label())
+                .header("x-request-id", Long.toString(ThreadLocalRandom.current().nextLong()))
+                .build();
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(built, HttpResponse.BodyHandlers.ofString());
+            stats.record(System.nanoTime() - started, response.statusCode() < 400);
+            return response;
+        } catch (IOException e) {
+            stats.record(System.nanoTime() - started, false);
+            return null;
+        }
+    }
+
+    private void report(double seconds) throws IOException {
+        List<String> lines = new ArrayList<>();
+        System.out.printf(Locale.ROOT, "%n%s: %d users, %.0fs measured%n", options.label(), options.concurrency(), seconds);
+        System.out.printf(Locale.ROOT, "%-18s %10s %8s %10s %9s %9s %9s %9s%n",
+                "operationId", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        long total = 0;
+        for (OperationStats operation : stats.values()) {
+            total += operation.count();
+            System.out.printf(Locale.ROOT, "%-18s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.name(), operation.count(), operation.errors(), operation.count() / seconds,
+                    operation.percentileMillis(50), operation.percentileMillis(95), operation.percentileMillis(99),
+                    operation.maxMillis());
+            lines.add(String.format(Locale.ROOT, "%s,%d,%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f",
+                    options.label(), options.concurrency(), operation.name(), operation.count(), operation.errors(),
+                    operation.count() / seconds, operation.percentileMillis(50), operation.percentileMillis(95),
+                    operation.percentileMillis(99), operation.maxMillis()));
+        }
+        System.out.printf(Locale.ROOT, "%-18s %10d %8s %10.1f%n", "total", total, "", total / seconds);
+
+        if (options.out() != null) {
+            if (Files.notExists(options.out())) {
+                Files.writeString(options.out(),
+                        "label,concurrency,operationId,requests,errors,throughput,p50,p95,p99,max\n");
+            }
+            Files.write(options.out(), lines, StandardOpenOption.APPEND);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.bayer.healthgoal.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+
+/**
+ * The database under test: either the one given on the command line (e.g. {@code docker compose up postgres})
+ * or a throwaway embedded Postgres with the same major version as docker-compose.yml.
+ */
+final class PostgresDatabase implements AutoCloseable {
+
+    private final EmbeddedPostgres embedded;
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+
+    private PostgresDatabase(EmbeddedPostgres embedded, String jdbcUrl, String user, String password) {
+        this.embedded = embedded;
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+    }
+
+    static PostgresDatabase start(LoadTestOptions options) throws IOException {
+        if (options.database() == LoadTestOptions.Database.EXTERNAL) {
+            return new PostgresDatabase(null, options.jdbcUrl(), options.dbUser(), options.dbPassword());
+        }
+        // initdb refuses to run as root, run the harness as a regular user
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                .setServerConfig("max_connections", "200")
+                .start();
+        System.out.printf("embedded postgres listening on port %d%n", postgres.getPort());
+        return new PostgresDatabase(postgres, postgres.getJdbcUrl("postgres", "postgres"), "postgres", "postgres");
+    }
+
+    String jdbcUrl() {
+        return jdbcUrl;
+    }
+
+    String user() {
+        return user;
+    }
+
+    String password() {
+        return password;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (embedded != null) {
+            embedded.close();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.bayer.healthgoal.loadtest;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ids sampled from the seeded tables that the workload reads and updates.
+ */
+record SeedData(List<UUID> userIds, List<UUID> goalIds) {
+}
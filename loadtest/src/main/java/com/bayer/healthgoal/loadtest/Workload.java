@@ -0,0 +1,198 @@
+package com.bayer.healthgoal.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mixed CRUD workload over the seeded data, one request shape per operationId of the contract, modelled on the
+ * requests of the Bruno collection. Deletes only remove goals the workload created itself, so reads and updates
+ * keep hitting existing rows.
+ */
+final class Workload {
+
+    static final String CREATE = "createHealthGoal";
+    static final String GET = "getHealthGoalById";
+    static final String LIST = "listHealthGoals";
+    static final String UPDATE = "updateHealthGoal";
+    static final String DELETE = "deleteHealthGoal";
+    static final String BATCH = "batchHealthGoals";
+    static final String EXPORT = "exportHealthGoals";
+    static final String RECORD_PROGRESS = "recordGoalProgress";
+    static final String GET_PROGRESS = "getGoalProgress";
+    static final String SUMMARY = "getHealthGoalSummary";
+    static final String CHANGES = "listHealthGoalChanges";
+    static final String AUDIT = "listHealthGoalAudit";
+
+    private static final List<String> OPERATIONS =
+            List.of(CREATE, GET, LIST, UPDATE, DELETE, BATCH, EXPORT, RECORD_PROGRESS, GET_PROGRESS, SUMMARY,
+                    CHANGES, AUDIT);
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-fA-F-]{36})\"");
+    private static final Pattern NEXT = Pattern.compile("\"next\"\\s*:\\s*(\\d+)");
+    private static final String[] STATUSES = {"ACTIVE", "COMPLETED", "CANCELLED"};
+    // an hour of readings from a wearable reporting every five minutes
+    private static final int PROGRESS_ENTRIES = 12;
+    private static final String[] GRANULARITIES = {"DAILY", "WEEKLY", "TOTAL"};
+
+    private final URI baseUrl;
+    private final SeedData data;
+    private final String[] operations;
+    private final int[] cumulativeWeights;
+    // a batch is half creates, half updates of distinct seeded goals
+    private final int batchCreates;
+    private final int batchUpdates;
+    private final Queue<String> createdIds = new ConcurrentLinkedQueue<>();
+    // feed readers follow the change feed from where the previous page ended
+    private final AtomicLong feedPosition = new AtomicLong();
+
+    Workload(URI baseUrl, SeedData data, Map<String, Integer> mix, int batchSize) {
+        this.baseUrl = baseUrl;
+        this.data = data;
+        this.batchCreates = batchSize / 2;
+        this.batchUpdates = batchSize - batchCreates;
+        this.operations = new String[mix.size()];
+        this.cumulativeWeights = new int[mix.size()];
+        int index = 0;
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            if (!OPERATIONS.contains(entry.getKey())) {
+                throw new IllegalArgumentException("unknown operationId " + entry.getKey() + ", expected one of " + OPERATIONS);
+            }
+            total += entry.getValue();
+            operations[index] = entry.getKey();
+            cumulativeWeights[index++] = total;
+        }
+    }
+
+    List<String> operationIds() {
+        return List.of(operations);
+    }
+
+    /**
+     * Picks the next operation by weight and builds its request. With nothing left to delete, a delete turns
+     * into a create and is reported as one.
+     */
+    Step next() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (roll >= cumulativeWeights[index]) {
+            index++;
+        }
+        String operationId = operations[index];
+        if (DELETE.equals(operationId)) {
+            String id = createdIds.poll();
+            return id == null
+                    ? new Step(CREATE, json(uri("/health-goals"), "POST", createBody(randomUser())))
+                    : new Step(DELETE, HttpRequest.newBuilder(uri("/health-goals/" + id)).DELETE());
+        }
+        return new Step(operationId, request(operationId));
+    }
+
+    private HttpRequest.Builder request(String operationId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operationId) {
+            case CREATE -> json(uri("/health-goals"), "POST", createBody(randomUser()));
+            case GET -> HttpRequest.newBuilder(uri("/health-goals/" + randomGoal())).GET();
+            case LIST -> HttpRequest.newBuilder(random.nextBoolean()
+                    ? uri("/health-goals?userId=" + randomUser() + "&limit=50")
+                    : uri("/health-goals?status=" + STATUSES[random.nextInt(STATUSES.length)] + "&limit=50")).GET();
+            case UPDATE -> json(uri("/health-goals/" + randomGoal()), "PUT", updateBody());
+            case BATCH -> json(uri("/health-goals/batch"), "POST", batchBody());
+            case EXPORT -> HttpRequest.newBuilder(uri("/health-goals/export?userId=" + randomUser()))
+                    .header("Accept", "application/x-ndjson").GET();
+            case SUMMARY -> HttpRequest.newBuilder(uri("/health-goals/summary?userId=" + randomUser())).GET();
+            case AUDIT -> HttpRequest.newBuilder(uri("/health-goals/" + randomGoal() + "/audit?limit=50")).GET();
+            case CHANGES -> HttpRequest.newBuilder(uri("/health-goals/changes?after=" + feedPosition.get()
+                    + "&limit=100")).GET();
+            case RECORD_PROGRESS -> json(uri("/health-goals/" + randomGoal() + "/progress"), "POST", progressBody());
+            case GET_PROGRESS -> HttpRequest.newBuilder(uri("/health-goals/" + randomGoal() + "/progress?granularity="
+                    + GRANULARITIES[random.nextInt(GRANULARITIES.length)])).GET();
+            default -> throw new IllegalArgumentException(operationId);
+        };
+    }
+
+    void onResponse(String operationId, HttpResponse<String> response) {
+        if (CREATE.equals(operationId) && response.statusCode() == 201) {
+            Matcher matcher = ID.matcher(response.body());
+            if (matcher.find()) {
+                createdIds.add(matcher.group(1));
+            }
+        } else if (CHANGES.equals(operationId) && response.statusCode() == 200) {
+            Matcher matcher = NEXT.matcher(response.body());
+            if (matcher.find()) {
+                feedPosition.accumulateAndGet(Long.parseLong(matcher.group(1)), Math::max);
+            }
+        }
+    }
+
+    private String batchBody() {
+        StringBuilder body = new StringBuilder("{\"operations\":[");
+        for (int i = 0; i < batchCreates; i++) {
+            body.append("{\"op\":\"CREATE\",\"create\":").append(createBody(randomUser())).append("},");
+        }
+        // distinct ids, a batch rejects the same goal twice
+        List<UUID> goals = data.goalIds();
+        int start = ThreadLocalRandom.current().nextInt(goals.size());
+        for (int i = 0; i < batchUpdates; i++) {
+            body.append("{\"op\":\"UPDATE\",\"id\":\"").append(goals.get((start + i) % goals.size()))
+                    .append("\",\"update\":").append(updateBody()).append('}');
+            body.append(i < batchUpdates - 1 ? "," : "");
+        }
+        return body.append("]}").toString();
+    }
+
+    private static String progressBody() {
+        Instant now = Instant.now();
+        StringBuilder body = new StringBuilder("{\"entries\":[");
+        for (int i = 0; i < PROGRESS_ENTRIES; i++) {
+            body.append("{\"recordedAt\":\"").append(now.minus(Duration.ofMinutes(5L * i)))
+                    .append("\",\"value\":").append(ThreadLocalRandom.current().nextInt(1000)).append('}')
+                    .append(i < PROGRESS_ENTRIES - 1 ? "," : "");
+        }
+        return body.append("]}").toString();
+    }
+
+    // the same change as a single update, so batched and single writes can be compared item for item
+    private static String updateBody() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return "{\"title\":\"Updated " + random.nextInt(1000) + "\",\"status\":\""
+                + STATUSES[random.nextInt(STATUSES.length)] + "\"}";
+    }
+
+    private static String createBody(UUID userId) {
+        return "{\"userId\":\"" + userId + "\",\"title\":\"Walk 10k steps\",\"target\":10000,"
+                + "\"unit\":\"steps\",\"startDate\":\"2025-10-20\"}";
+    }
+
+    private static HttpRequest.Builder json(URI uri, String method, String body) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private UUID randomUser() {
+        return data.userIds().get(ThreadLocalRandom.current().nextInt(data.userIds().size()));
+    }
+
+    private UUID randomGoal() {
+        return data.goalIds().get(ThreadLocalRandom.current().nextInt(data.goalIds().size()));
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    record Step(String operationId, HttpRequest.Builder request) {
+    }
+}